@@ -1,22 +1,60 @@
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class BaconNumber {
+    private static final Set<String> FLAG_OPTIONS = Set.of("--bipartite", "--table", "--parallel", "--stats", "--components", "--approx", "--labels",
+            "--movies-only", "--off-heap", "--verify");
+    private static final Set<String> VALUE_OPTIONS = Set.of("--save-snapshot", "--load-snapshot",
+            "--batch", "--format", "--threads", "--center", "--centers", "--candidates", "--cache-mb",
+            "--metrics-out", "--metrics-format", "--append", "--landmarks", "--landmark-strategy",
+            "--all-paths", "--k-paths", "--years", "--movie-titles", "--serve", "--reorder");
+    private static final Set<String> OFF_HEAP_OPTIONS = Set.of("--off-heap", "--load-snapshot", "--verify", "--center", "--stats",
+            "--metrics-out", "--metrics-format");
+    private static final String DEFAULT_CENTER = "Kevin Bacon (I)";
+
     private Graph graph;
     private Set<String> names;
     private Set<String> titles;
     private Map<String, List<String>> nameToTitle;
     private Map<String, List<String>>titleToName;
+    private BipartiteGraph bipartite;
+    private CompactGraph compact;
+    private BidirectionalSearch search;
+    private CompactGraph searchGraph;
+    private BidirectionalSearch bipartiteSearch;
+    private ForkJoinPool parallelPool;
+    private ParallelBfs parallelSearch;
+    private CompactGraph parallelGraph;
+    private BfsTreeCache treeCache;
+    private final Metrics metrics;
+    private CreditTable credits;
+    private CreditIndex creditIndex;
+    private int landmarkCount;
+    private boolean farthestLandmarks;
+    private boolean wantsLabels;
+    private NameIndex bipartiteNames;
+    private TitleFilter titleFilter;
+    private EdgeMask edgeMask;
+    private CompactGraph compactAtMask;
+    private StringDictionary movieTitles;
     
     /**
      * Constructs a new `BaconNumber` instance with an empty graph and sets of names and titles.
@@ -27,6 +65,16 @@ public class BaconNumber {
         titles = new HashSet<>();
         nameToTitle = new HashMap<>();
         titleToName = new HashMap<>();
+        metrics = new Metrics();
+    }
+
+    /**
+     * Retrieves the phase timings and traversal counters recorded so far.
+     *
+     * @return The metrics of this instance.
+     */
+    public Metrics getMetrics(){
+        return metrics;
     }
 
     /**
@@ -93,188 +141,1318 @@ public class BaconNumber {
     }
 
     /**
-     * Finds the shortest path from a source actor to a destination actor using BFS.
+     * Retrieves the CSR co-star graph used for path queries: the one built by
+     * `creditData` if there is one, otherwise the compiled form of `getGraph()`.
+     *
+     * @return The CSR co-star graph.
+     */
+    public CompactGraph getCompactGraph(){
+        if (compact != null) {
+            return compact;
+        }
+        return getGraph().compile();
+    }
+
+    /**
+     * Retrieves the bipartite actor-title graph built by `bipartiteData`.
+     *
+     * @return The bipartite graph, or null if it has not been built.
+     */
+    public BipartiteGraph getBipartiteGraph(){
+        return bipartite;
+    }
+
+    /**
+     * Finds the shortest path from a source actor to a destination actor using a
+     * bidirectional BFS over the compiled CSR form of the graph.
      *
      * @param center The source actor.
      * @param goal   The destination actor.
      * @return A list of actor names representing the shortest path from the source to the destination.
      */
     public List<String> findPath(Vertex center, Vertex goal) {
-        Queue<Vertex> frontier = new LinkedList<>();
-        Set<String> explored = new HashSet<>();
-        Map<String, String> parentMap = new HashMap<>();  // To store the parent of each vertex
-    
-        frontier.offer(center);
-        parentMap.put(center.getName(), null);  // Center has no parent
-    
-        while (!frontier.isEmpty()) {
-            Vertex vertex = frontier.poll();
-    
-            if (vertex == null) {
-                continue;
-            }
-    
-            for (Vertex neighbor : vertex.getAdjacents()) {
-                if (neighbor != null && !explored.contains(neighbor.getName()) && !frontier.contains(neighbor)) {
-                    frontier.offer(neighbor);
-                    parentMap.put(neighbor.getName(), vertex.getName());  // Set the parent of the neighbor
-                }
-            }
-    
-            explored.add(vertex.getName());
-    
-            if (vertex.getName().equals(goal.getName())) {
-                // Reconstruct the path from the goal to the center
-                return buildPath(parentMap, center.getName(), goal.getName());
-            }
+        return findPath(center.getName(), goal.getName());
+    }
+
+    /**
+     * Switches path queries and Bacon tables to the parallel direction-optimizing BFS,
+     * or back to the sequential searches.
+     *
+     * @param pool The pool to run the parallel BFS on, or null for the sequential searches.
+     */
+    public void setParallel(ForkJoinPool pool){
+        parallelPool = pool;
+        parallelSearch = null;
+    }
+
+    /**
+     * Turns on a shared LRU cache of BFS trees for path queries over the current
+     * co-star graph.
+     *
+     * @param maxBytes   The memory budget for cached trees.
+     * @param admitAfter How many requests a source needs before its tree is cached.
+     * @return The cache, so its counters can be read.
+     */
+    public BfsTreeCache enableTreeCache(long maxBytes, int admitAfter){
+        treeCache = new BfsTreeCache(getCompactGraph(), maxBytes, admitAfter);
+        return treeCache;
+    }
+
+    /**
+     * Builds a landmark distance oracle over the current co-star graph and installs it
+     * there, so path queries are pruned by its bounds and `distanceBounds` can answer
+     * without searching. When appended credits add actors or edges, the oracle is
+     * rebuilt on the next query.
+     *
+     * @param k        The number of landmarks.
+     * @param farthest True to pick landmarks by farthest-point sampling, false to pick
+     *                 the highest-degree actors.
+     * @return The oracle.
+     */
+    public LandmarkOracle enableLandmarks(int k, boolean farthest){
+        if (k < 1) {
+            throw new IllegalArgumentException("The number of landmarks must be positive: " + k);
         }
-    
-        return new ArrayList<>();  // No path found
+        landmarkCount = k;
+        farthestLandmarks = farthest;
+        return buildLandmarks(getCompactGraph());
     }
-    
+
+    /**
+     * Gives the current co-star graph exact distance labels, building them unless the
+     * graph already has some, for example from a snapshot. `distanceBounds` then
+     * answers exactly without searching, snapshots saved afterwards keep the labels,
+     * and when appended credits add actors or edges the labels are rebuilt on the
+     * next query.
+     *
+     * @return The labels.
+     */
+    public PrunedLandmarkLabels enableDistanceLabels(){
+        wantsLabels = true;
+        CompactGraph compact = getCompactGraph();
+        PrunedLandmarkLabels labels = compact.getDistanceLabels();
+        return labels != null ? labels : buildDistanceLabels(compact);
+    }
+
+    private PrunedLandmarkLabels buildDistanceLabels(CompactGraph graph){
+        long start = System.nanoTime();
+        PrunedLandmarkLabels labels = PrunedLandmarkLabels.build(graph);
+        graph.setDistanceLabels(labels);
+        metrics.time(Metrics.LABELS, start);
+        return labels;
+    }
+
+    private LandmarkOracle buildLandmarks(CompactGraph graph){
+        long start = System.nanoTime();
+        LandmarkOracle oracle = LandmarkOracle.build(graph, landmarkCount, farthestLandmarks);
+        graph.setLandmarks(oracle);
+        metrics.time(Metrics.LANDMARKS, start);
+        return oracle;
+    }
+
+    /**
+     * Retrieves the co-star graph for a query, first building the landmarks, distance
+     * labels and edge mask that were asked for but that appended credits or a
+     * renumbering left out of date. Building them here rather than on every change
+     * means several appends in a row pay for one rebuild.
+     *
+     * @return The current co-star graph, with its indexes up to date.
+     */
+    private CompactGraph queryGraph(){
+        CompactGraph compact = getCompactGraph();
+        if (landmarkCount > 0 && compact.getLandmarks() == null) {
+            buildLandmarks(compact);
+        }
+        if (wantsLabels && compact.getDistanceLabels() == null) {
+            buildDistanceLabels(compact);
+        }
+        if (titleFilter != null && compactAtMask != compact) {
+            buildEdgeMask(compact);
+        }
+        return compact;
+    }
+
+    /**
+     * Bounds the Bacon number between two actors without searching: exactly from the
+     * distance labels if the graph has them, otherwise with the landmark oracle.
+     *
+     * @param center The name of the source actor.
+     * @param goal   The name of the destination actor.
+     * @return The lower and upper bound, equal when exact; both are -1 if no path
+     *         exists, and the upper bound alone is -1 if no landmark reaches the actors.
+     * @throws IllegalStateException    If neither labels nor landmarks were built.
+     * @throws IllegalArgumentException If either actor is unknown.
+     */
+    public int[] distanceBounds(String center, String goal){
+        CompactGraph compact = queryGraph();
+        PrunedLandmarkLabels labels = compact.getDistanceLabels();
+        LandmarkOracle oracle = compact.getLandmarks();
+        if (labels == null && oracle == null) {
+            throw new IllegalStateException("Neither distance labels nor landmarks have been built.");
+        }
+        int centerId = compact.vertexId(center);
+        int goalId = compact.vertexId(goal);
+        if (centerId < 0 || goalId < 0) {
+            throw new IllegalArgumentException("Unknown actor: " + (centerId < 0 ? center : goal));
+        }
+        if (!compact.getComponents().connected(centerId, goalId)) {
+            return new int[] {-1, -1};
+        }
+        long start = System.nanoTime();
+        int[] bounds;
+        if (labels != null) {
+            int distance = labels.distance(centerId, goalId);
+            bounds = new int[] {distance, distance};
+        }
+        else {
+            bounds = new int[] {oracle.lowerBound(centerId, goalId), oracle.upperBound(centerId, goalId)};
+        }
+        metrics.time(Metrics.QUERY, start);
+        return bounds;
+    }
+
+    /**
+     * Retrieves the parallel BFS engine for the current graph, creating it if needed.
+     *
+     * @return The engine, or null if parallel search is off.
+     */
+    private ParallelBfs parallelSearch(){
+        if (parallelPool == null) {
+            return null;
+        }
+        CompactGraph compact = getCompactGraph();
+        if (parallelSearch == null || compact != parallelGraph) {
+            parallelSearch = new ParallelBfs(compact, parallelPool);
+            parallelGraph = compact;
+        }
+        return parallelSearch;
+    }
+
     /**
-     * Constructs a path from the source to the destination using the parentMap.
+     * Finds the shortest path between two actors given by name, with the bidirectional
+     * BFS or, if `setParallel` was called, the parallel BFS.
      *
-     * @param parentMap A map representing the parent of each vertex in the path.
-     * @param center    The source actor.
-     * @param goal      The destination actor.
-     * @return A list of actor names representing the path from the source to the destination.
+     * @param center The name of the source actor.
+     * @param goal   The name of the destination actor.
+     * @return A list of actor names representing the shortest path from the source to the destination.
      */
-    private List<String> buildPath(Map<String, String> parentMap, String center, String goal) {
+    public List<String> findPath(String center, String goal) {
+        CompactGraph compact = queryGraph();
+        if (compact != searchGraph) {
+            search = new BidirectionalSearch(compact);
+            searchGraph = compact;
+        }
+        int centerId = compact.vertexId(center);
+        int goalId = compact.vertexId(goal);
         List<String> path = new ArrayList<>();
-        String current = goal;
-    
-        while (current != null && !current.equals(center)) {
-            path.add(0, current);  // Add to the beginning of the list
-            current = parentMap.get(current);
+        if (centerId < 0 || goalId < 0 || !compact.getComponents().connected(centerId, goalId)) {
+            return path;  // No path found
         }
-    
-        if (current != null && current.equals(center)) {
-            path.add(0, current);  // Add the center to the path
+
+        long start = System.nanoTime();
+        long searched = search.getQueries();
+        ParallelBfs parallel = parallelSearch();
+        int[] ids;
+        if (edgeMask != null) {
+            ids = search.findPath(centerId, goalId, null, edgeMask);
+        }
+        else if (parallel != null) {
+            ids = parallel.findPath(centerId, goalId);
+        }
+        else if (treeCache != null) {
+            ids = treeCache.findPath(centerId, goalId, search);
+        }
+        else {
+            ids = search.findPath(centerId, goalId, compact.getLandmarks());
+        }
+        metrics.time(Metrics.QUERY, start);
+        if (search.getQueries() != searched) {
+            metrics.recordSearch(search);
+        }
+        for (int id : ids) {
+            path.add(compact.nameOf(id));
         }
-    
         return path;
     }
-    
+
+    /**
+     * Renumbers the actors of the co-star graph so that co-stars get nearby IDs,
+     * which keeps traversals within fewer cache lines. Indexes built so far are
+     * rebuilt over the new graph on the next query. The credits no longer match its vertex IDs, so no
+     * more credits can be appended afterwards.
+     *
+     * @param strategy How to order the actors.
+     * @return The ordering, with the edge gap statistics before and after.
+     */
+    public VertexOrdering reorder(VertexOrdering.Strategy strategy){
+        long start = System.nanoTime();
+        VertexOrdering ordering = VertexOrdering.reorder(getCompactGraph(), strategy);
+        CompactGraph updated = ordering.getGraph();
+        compact = updated;
+        credits = null;
+        creditIndex = null;
+        if (treeCache != null) {
+            treeCache = treeCache.forGraph(updated);
+        }
+        applyMovieTitles(updated);
+        metrics.time(Metrics.REORDER, start);
+        return ordering;
+    }
+
+    /**
+     * Limits path queries on the co-star graph to the titles a filter allows. The
+     * graph is not rebuilt: searches skip the edges an edge mask rules out, and the
+     * mask is rebuilt on the next query after appended credits change the graph. Tables, center
+     * rankings, distance bounds and path enumeration still use the whole graph.
+     *
+     * @param filter The filter, or null to search the whole graph again.
+     * @return The edge mask, or null if the filter allows every title.
+     */
+    public EdgeMask setTitleFilter(TitleFilter filter){
+        titleFilter = filter == null || filter.isEmpty() ? null : filter;
+        edgeMask = null;
+        return titleFilter == null ? null : buildEdgeMask(getCompactGraph());
+    }
+
+    /**
+     * Treats every title missing from a list of movies as TV, for credits files whose
+     * titles carry no TV markers. The list is applied again whenever appended credits
+     * change the graph.
+     *
+     * @param movies The titles known to be movies.
+     */
+    public void useMovieTitles(StringDictionary movies){
+        movieTitles = movies;
+        CompactGraph compact = getCompactGraph();
+        applyMovieTitles(compact);
+        if (titleFilter != null) {
+            buildEdgeMask(compact);
+        }
+    }
+
+    private void applyMovieTitles(CompactGraph graph){
+        if (movieTitles != null) {
+            graph.setTitleAttributes(graph.getTitleAttributes().withMovies(graph.getLabelDictionary(), movieTitles));
+        }
+    }
+
+    private EdgeMask buildEdgeMask(CompactGraph graph){
+        long start = System.nanoTime();
+        edgeMask = EdgeMask.build(graph, titleFilter);
+        compactAtMask = graph;
+        metrics.time(Metrics.MASK, start);
+        return edgeMask;
+    }
+
+    /**
+     * Retrieves the edge mask of the current title filter, rebuilding it first if
+     * appended credits changed the graph.
+     *
+     * @return The mask, or null if no filter is set.
+     */
+    public EdgeMask getEdgeMask(){
+        CompactGraph compact = getCompactGraph();
+        if (titleFilter != null && compactAtMask != compact) {
+            buildEdgeMask(compact);
+        }
+        return edgeMask;
+    }
+
+    /**
+     * Describes every title linking two adjacent actors, only those the title filter
+     * allows if a filter is set.
+     *
+     * @param v The ID of the first vertex.
+     * @param w The ID of the second vertex.
+     * @return The titles joined by " / ", or null if the actors are not linked.
+     */
+    public String edgeLabel(int v, int w){
+        CompactGraph compact = getCompactGraph();
+        return edgeMask != null ? edgeMask.sharedLabels(compact, v, w) : compact.sharedLabels(v, w);
+    }
+
+    /**
+     * Finds every shortest path between two actors, as a DAG that counts them and
+     * streams them one at a time.
+     *
+     * @param center The name of the source actor.
+     * @param goal   The name of the destination actor.
+     * @return The shortest-path DAG, empty if no path exists.
+     * @throws IllegalArgumentException If either actor is unknown.
+     */
+    public ShortestPathDag shortestPaths(String center, String goal){
+        CompactGraph compact = getCompactGraph();
+        long start = System.nanoTime();
+        ShortestPathDag dag = ShortestPathDag.build(compact, knownActor(compact, center), knownActor(compact, goal));
+        metrics.time(Metrics.QUERY, start);
+        return dag;
+    }
+
+    /**
+     * Streams the loopless paths between two actors from shortest to longest, for
+     * "other ways to connect these two".
+     *
+     * @param center The name of the source actor.
+     * @param goal   The name of the destination actor.
+     * @return An iterator computing each path when it is asked for.
+     * @throws IllegalArgumentException If either actor is unknown.
+     */
+    public KShortestPaths alternativePaths(String center, String goal){
+        CompactGraph compact = getCompactGraph();
+        return new KShortestPaths(compact, knownActor(compact, center), knownActor(compact, goal));
+    }
+
+    private static int knownActor(CompactGraph compact, String name){
+        int id = compact.vertexId(name);
+        if (id < 0) {
+            throw new IllegalArgumentException("Unknown actor: " + name);
+        }
+        return id;
+    }
 
     /**
      * Builds the graph by adding vertices for actors and edges for co-appearances in movies.
      */
     public void baconData(){
+        long start = System.nanoTime();
         for (String actor : getNames()){
             Vertex vertex = new Vertex(actor);
             getGraph().addVertex(vertex);
         }
+        metrics.time(Metrics.INDEX, start);
+        start = System.nanoTime();
 
         for (String actor : names) {
             List<String> movies = nameToTitle.get(actor);
+            Vertex vertex = getGraph().findVertex(actor);
             if (movies != null) {
                 for (String movie : movies) {
                     List<String> coActors = titleToName.get(movie);
                     if (coActors != null) {
                         for (String coActor : coActors) {
-                            if (!coActor.equals(actor) && getGraph().findVertex(coActor) != null) {
-                                graph.addEdge(getGraph().findVertex(actor), getGraph().findVertex(coActor), movie);
+                            Vertex coVertex = getGraph().findVertex(coActor);
+                            if (!coActor.equals(actor) && coVertex != null) {
+                                graph.addEdge(vertex, coVertex, movie);
                             }
                         }
                     }
                 }
             }
         }
+        metrics.time(Metrics.EDGES, start);
     }
 
     /**
-     * The main method for the `BaconNumber` program, which reads IMDb data and calculates
-     * the Bacon Number for specified actors.
+     * Loads a credits file with the parallel loader, timing it as the parse phase.
      *
-     * @param args Command line arguments: (1) source file (2) source actor (3) optional destination actor.
+     * @param source The credits file.
+     * @return The loaded credits.
+     * @throws IOException If the file cannot be read.
      */
-    public static void main(String[] args) {
-        if (args.length != 2 && args.length != 3) {
-            System.out.println("Please enter (1) source file (2) source actor (3) optional destination actor");
-            System.out.println("Note: If you dont input (3), Kevin Bacon will be the default destination actor.");
-            System.exit(1);
+    public CreditTable loadCredits(Path source) throws IOException {
+        long start = System.nanoTime();
+        CreditTable credits = new CreditLoader().load(source);
+        metrics.time(Metrics.PARSE, start);
+        return credits;
+    }
+
+    /**
+     * Builds the CSR co-star graph straight from a loaded credit table, skipping the
+     * name/title maps and the `Vertex` graph. The fuzzy name index is built at the
+     * same time on the common pool.
+     *
+     * @param credits The loaded credits.
+     */
+    public void creditData(CreditTable credits){
+        // The name index only needs the names, so it is built on the pool while the graph is.
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        ForkJoinTask<NameIndex> nameIndex = pool.submit(() -> {
+            long start = System.nanoTime();
+            NameIndex index = NameIndex.build(credits.getNameDictionary(), pool);
+            metrics.time(Metrics.NAMES, start);
+            return index;
+        });
+        compact = CompactGraph.fromCredits(credits, metrics);
+        compact.setNameIndex(nameIndex.join());
+        this.credits = credits;
+        creditIndex = null;
+    }
+
+    /**
+     * Adds new credits to the co-star graph built by `creditData`, adding only the new
+     * actors and the edges between each new credit's actor and the title's cast.
+     * If nothing but known credits arrived, the graph and everything derived from it
+     * are kept; otherwise the searches pick up the new graph and the tree cache is emptied.
+     * Indexes the new credits leave valid carry over; landmarks, distance labels and
+     * the edge mask they invalidate are rebuilt on the next query. An append that
+     * changes the graph costs O(V + E), and the next query pays for those rebuilds.
+     *
+     * @param delta The new credits.
+     * @return The index holding the counters of this update.
+     * @throws IllegalStateException If the co-star graph was not built by `creditData`.
+     */
+    public CreditIndex appendCredits(CreditTable delta){
+        if (credits == null || compact == null) {
+            throw new IllegalStateException("Credits can only be appended to a graph built from a credits file.");
         }
-        else {
-            String fileName = args[0];
-            try (Scanner scanner = new Scanner(new File(fileName))) {
+        long start = System.nanoTime();
+        if (creditIndex == null) {
+            creditIndex = new CreditIndex(credits, compact);
+        }
+        CompactGraph updated = creditIndex.apply(delta);
+        if (updated != compact) {
+            compact = updated;
+            if (treeCache != null) {
+                treeCache = treeCache.forGraph(updated);
+            }
+            if (creditIndex.getAddedTitles() > 0) {
+                applyMovieTitles(updated);
+            }
+        }
+        metrics.time(Metrics.APPEND, start);
+        return creditIndex;
+    }
 
-                BaconNumber baconator = new BaconNumber();
+    /**
+     * Builds the bipartite actor-title graph straight from a loaded credit table.
+     *
+     * @param credits The loaded credits.
+     */
+    public void bipartiteData(CreditTable credits){
+        long start = System.nanoTime();
+        setBipartite(BipartiteGraph.fromCredits(credits));
+        metrics.time(Metrics.EDGES, start);
+    }
 
-                while (scanner.hasNextLine()){
-                    String line = scanner.nextLine();
-                    String[] split = line.split("\t");
-                    String name = split[0].trim();
-                    String title = split[1].trim();
+    /**
+     * Installs a bipartite graph for `findBipartitePath` to search.
+     *
+     * @param graph The bipartite graph.
+     */
+    private void setBipartite(BipartiteGraph graph){
+        bipartite = graph;
+        bipartiteSearch = new BidirectionalSearch(graph.getOffsets(), graph.getTargets());
+    }
 
-                    baconator.addName(name);
-                    baconator.addTitle(title);
+    /**
+     * Builds the bipartite actor-title graph, with titles as vertices, instead of
+     * expanding every title into a clique over its cast.
+     */
+    public void bipartiteData(){
+        String[] actors = names.toArray(new String[0]);
+        String[] titleNames = titles.toArray(new String[0]);
+        Map<String, Integer> titleIds = new HashMap<>();
+        for (int i = 0; i < titleNames.length; i++) {
+            titleIds.put(titleNames[i], i);
+        }
 
-                    if (!baconator.getNameToTitle().containsKey(name)) {
-                        baconator.getNameToTitle().put(name, new ArrayList<>());
-                    }
-                    baconator.getNameToTitle().get(name).add(title);
-                
-                    if (!baconator.getTitleToName().containsKey(title)) {
-                        baconator.getTitleToName().put(title, new ArrayList<>());
+        int credits = 0;
+        for (List<String> movies : nameToTitle.values()) {
+            credits += movies.size();
+        }
+        int[] creditActor = new int[credits];
+        int[] creditTitle = new int[credits];
+        int next = 0;
+        for (int a = 0; a < actors.length; a++) {
+            List<String> movies = nameToTitle.get(actors[a]);
+            if (movies != null) {
+                for (String movie : movies) {
+                    Integer t = titleIds.get(movie);
+                    if (t != null) {
+                        creditActor[next] = a;
+                        creditTitle[next] = t;
+                        next++;
                     }
-                    baconator.getTitleToName().get(title).add(name);
                 }
+            }
+        }
+        setBipartite(BipartiteGraph.fromCredits(actors, titleNames, creditActor, creditTitle, next));
+    }
+
+    /**
+     * Finds the shortest path from a source actor to a destination actor in the
+     * bipartite graph built by `bipartiteData`, using a bidirectional BFS.
+     *
+     * @param center The name of the source actor.
+     * @param goal   The name of the destination actor.
+     * @return The names on the path, alternating actor, title, actor; empty if there is none.
+     */
+    public List<String> findBipartitePath(String center, String goal){
+        List<String> path = new ArrayList<>();
+        int centerId = bipartite.vertexId(center);
+        int goalId = bipartite.vertexId(goal);
+        if (centerId < 0 || goalId < 0) {
+            return path;  // No path found
+        }
+
+        long start = System.nanoTime();
+        int[] ids = bipartiteSearch.findPath(centerId, goalId);
+        metrics.time(Metrics.QUERY, start);
+        metrics.recordSearch(bipartiteSearch);
+        for (int id : ids) {
+            path.add(bipartite.nameOf(id));
+        }
+        return path;
+    }
+
+    /**
+     * Prints a path in the classic "actor -> title -> actor" format followed by the
+     * Bacon Number line.
+     *
+     * @param path  The actor names on the path.
+     * @param edges The title connecting each actor to the next one.
+     */
+    private static void printPath(List<String> path, List<String> edges){
+        if (path.size() == 0){
+            System.out.println("No path found.");
+            return;
+        }
+        for (int i = 0; i < path.size() - 2; i++){
+            String name = path.get(i);
+            String nextName = path.get(i+1);
+            System.out.print(i + ". " + name + " -> " + edges.get(i) + " -> " + nextName + " -> ");
+        }
+
+        if (path.size() > 1){
+            String name = path.get(path.size()-2);
+            String nextName = path.get(path.size()-1);
+            System.out.print(path.size() + ". " + name + " -> " + edges.get(path.size()-2) + " -> " + nextName);
+        }
+
+        System.out.println("");
+        System.out.println("");
+        System.out.println(path.get(path.size()-1)+"'s Bacon Number is "+ path.size());
+    }
+
+    /**
+     * Prints several paths between two actors, one per line, as --all-paths or
+     * --k-paths asks.
+     *
+     * @param center  The name of the source actor.
+     * @param goal    The name of the destination actor.
+     * @param options The parsed command line options.
+     */
+    private void printPaths(String center, String goal, Map<String, String> options){
+        CompactGraph compact = getCompactGraph();
+        Iterator<int[]> paths;
+        int limit;
+        if (options.containsKey("--all-paths")) {
+            ShortestPathDag dag = shortestPaths(center, goal);
+            System.out.println(dag.count() + " shortest paths of length " + dag.getDistance());
+            paths = dag.iterator();
+            limit = Integer.parseInt(options.get("--all-paths"));
+        }
+        else {
+            paths = alternativePaths(center, goal);
+            limit = Integer.parseInt(options.get("--k-paths"));
+        }
+        for (int i = 1; i <= limit && paths.hasNext(); i++) {
+            int[] ids = paths.next();
+            StringBuilder line = new StringBuilder();
+            line.append(i).append(". ").append(compact.nameOf(ids[0]));
+            for (int j = 1; j < ids.length; j++) {
+                line.append(" -> ").append(edgeLabel(ids[j - 1], ids[j])).append(" -> ").append(compact.nameOf(ids[j]));
+            }
+            System.out.println(line);
+        }
+    }
+
+    /**
+     * Prints the landmark bounds on a Bacon number, counted the way `printPath` counts it.
+     *
+     * @param goal   The name of the destination actor.
+     * @param bounds The lower and upper bound from `distanceBounds`.
+     */
+    private static void printBounds(String goal, int[] bounds){
+        if (bounds[0] < 0) {
+            System.out.println("No path found.");
+        }
+        else if (bounds[1] < 0) {
+            System.out.println(goal + "'s Bacon Number is at least " + (bounds[0] + 1));
+        }
+        else if (bounds[0] == bounds[1]) {
+            System.out.println(goal + "'s Bacon Number is " + (bounds[0] + 1));
+        }
+        else {
+            System.out.println(goal + "'s Bacon Number is between " + (bounds[0] + 1) + " and " + (bounds[1] + 1));
+        }
+    }
+
+    /**
+     * Computes the Bacon number of every actor with a single BFS from a center actor.
+     *
+     * @param center The name of the center actor.
+     * @return The table of distances and parents, or null if there is no such actor.
+     */
+    public BaconTable baconTable(String center){
+        CompactGraph compact = getCompactGraph();
+        int centerId = compact.vertexId(center);
+        if (centerId < 0) {
+            return null;
+        }
+        long start = System.nanoTime();
+        ParallelBfs parallel = parallelSearch();
+        BaconTable table = parallel != null
+                ? BaconTable.parallel(compact, centerId, parallel)
+                : new BaconTable(compact, centerId);
+        metrics.time(Metrics.QUERY, start);
+        metrics.count(Metrics.DEQUEUED, table.getReachable());
+        for (long level : table.getHistogram()) {
+            metrics.peak(Metrics.PEAK_FRONTIER, level);
+        }
+        return table;
+    }
+
+    /**
+     * Finds the actor a typed name most likely means, allowing for a different case,
+     * missing accents or a missing disambiguation such as " (I)". It looks in the
+     * bipartite graph if that is the one built, otherwise in the co-star graph.
+     *
+     * @param name The name as typed.
+     * @return The actor's name as stored, or null if no actor matches closely enough.
+     */
+    public String resolveActor(String name){
+        if (compact == null && bipartite != null) {
+            int id = bipartite.vertexId(name);
+            if (id < 0) {
+                id = bipartiteNameIndex().resolve(name, bipartite::degree);
+            }
+            return id < 0 ? null : bipartite.nameOf(id);
+        }
+        CompactGraph compact = getCompactGraph();
+        int id = compact.resolveVertex(name);
+        return id < 0 ? null : compact.nameOf(id);
+    }
+
+    /**
+     * Lists the actor names closest to a typed name, best first: exact and
+     * disambiguation matches, then names starting with it, then similar spellings,
+     * with better-connected actors first among equals.
+     *
+     * @param name  The name or part of a name as typed.
+     * @param limit The largest number of suggestions.
+     * @return The suggested names.
+     */
+    public List<String> suggestActors(String name, int limit){
+        NameIndex index;
+        int[] ids;
+        if (compact == null && bipartite != null) {
+            index = bipartiteNameIndex();
+            ids = index.suggest(name, limit, bipartite::degree);
+        }
+        else {
+            CompactGraph compact = getCompactGraph();
+            index = compact.getNameIndex();
+            ids = index.suggest(name, limit, compact::degree);
+        }
+        List<String> suggestions = new ArrayList<>();
+        for (int id : ids) {
+            suggestions.add(index.nameOf(id));
+        }
+        return suggestions;
+    }
+
+    private NameIndex bipartiteNameIndex(){
+        if (bipartiteNames == null) {
+            bipartiteNames = NameIndex.build(bipartite.getActorDictionary(), ForkJoinPool.commonPool());
+        }
+        return bipartiteNames;
+    }
 
-                baconator.baconData();
-
-                /*
-                Integer order = baconator.getGraph().getOrder();
-                Integer size = baconator.getGraph().getSize() / 2;
-                System.out.println("Order is: " + order);
-                System.out.println("Size is: " + size);
-                */
-
-                List<String> path;
-                path = new ArrayList<String>();
-                if (args.length == 2){
-                    Vertex goal = baconator.getGraph().findVertex(args[1]);
-                    Vertex center = baconator.getGraph().findVertex("Kevin Bacon (I)");
-
-                    if (goal != null && center != null) {
-                        path = baconator.findPath(center, goal);
-                    } 
-                    else {
-                        System.out.println("Invalid vertices provided.");
-                        System.exit(1);
+    /**
+     * Resolves typed actor names for the command line. A name resolved to a different
+     * stored name is reported on standard error; if any name cannot be resolved, the
+     * closest names are printed and the program exits.
+     *
+     * @param baconator The loaded program state.
+     * @param typed     The names as typed; null entries are passed through.
+     * @return The stored names, in the same order.
+     */
+    private static String[] resolveOrExit(BaconNumber baconator, String... typed){
+        String[] resolved = new String[typed.length];
+        boolean valid = true;
+        for (int i = 0; i < typed.length; i++) {
+            if (typed[i] == null) {
+                continue;
+            }
+            resolved[i] = baconator.resolveActor(typed[i]);
+            if (resolved[i] == null) {
+                valid = false;
+            }
+            else if (!resolved[i].equals(typed[i])) {
+                System.err.println("Using \"" + resolved[i] + "\" for \"" + typed[i] + "\".");
+            }
+        }
+        if (!valid) {
+            System.out.println("Invalid vertices provided.");
+            for (int i = 0; i < typed.length; i++) {
+                if (typed[i] != null && resolved[i] == null) {
+                    List<String> suggestions = baconator.suggestActors(typed[i], 5);
+                    if (!suggestions.isEmpty()) {
+                        System.out.println("Did you mean one of these instead of \"" + typed[i] + "\"? " + String.join("; ", suggestions));
                     }
                 }
-                else{
-                    Vertex goal = baconator.getGraph().findVertex(args[1]);
-                    Vertex center = baconator.getGraph().findVertex(args[2]);
-                    path = baconator.findPath(center, goal);
+            }
+            System.exit(1);
+        }
+        return resolved;
+    }
+
+    /**
+     * Runs table mode: prints the Bacon number histogram for the center and, if an
+     * actor is given, that actor's path read from the table's parent array.
+     *
+     * @param center The name of the center actor.
+     * @param goal   The name of an actor to print the path of, or null.
+     */
+    private void runTable(String center, String goal){
+        String[] resolved = resolveOrExit(this, center, goal);
+        center = resolved[0];
+        goal = resolved[1];
+        BaconTable table = baconTable(center);
+        CompactGraph compact = getCompactGraph();
+        if (table == null || (goal != null && compact.vertexId(goal) < 0)) {
+            System.out.println("Invalid vertices provided.");
+            System.exit(1);
+        }
+        System.out.print(table.report());
+        if (goal != null) {
+            System.out.println("");
+            int[] ids = table.pathTo(compact.vertexId(goal));
+            List<String> path = new ArrayList<>();
+            List<String> edges = new ArrayList<>();
+            for (int i = 0; i < ids.length; i++) {
+                path.add(compact.nameOf(ids[i]));
+                if (i > 0) {
+                    edges.add(edgeLabel(ids[i-1], ids[i]));
                 }
-                if (path.size() == 0){
-                    System.out.println("No path found.");
+            }
+            printPath(path, edges);
+        }
+    }
+
+    /**
+     * Computes the distance statistics of many candidate centers with multi-source BFS.
+     *
+     * @param candidates The number of highest-degree actors to evaluate, or 0 for every actor.
+     * @param pool       The pool to run the searches on.
+     * @return The statistics of every candidate.
+     */
+    public CenterReport centerReport(int candidates, ForkJoinPool pool){
+        CompactGraph compact = getCompactGraph();
+        int[] sources;
+        if (candidates > 0) {
+            sources = MultiSourceBfs.topDegree(compact, candidates);
+        }
+        else {
+            sources = new int[compact.getOrder()];
+            for (int v = 0; v < sources.length; v++) {
+                sources[v] = v;
+            }
+        }
+        long start = System.nanoTime();
+        CenterReport report = new MultiSourceBfs(compact).run(sources, pool);
+        metrics.time(Metrics.QUERY, start);
+        return report;
+    }
+
+    /**
+     * Loads a graph snapshot written by `saveSnapshot` in place of building the co-star
+     * graph, checking the source by its size and modification time.
+     *
+     * @param snapshot The snapshot file.
+     * @param source   The credits file the snapshot must have been built from, or null to skip that check.
+     * @throws IOException If the snapshot cannot be read, is corrupt, or does not match the source.
+     */
+    public void loadSnapshot(Path snapshot, Path source) throws IOException {
+        loadSnapshot(snapshot, source, false);
+    }
+
+    /**
+     * Loads a graph snapshot written by `saveSnapshot` in place of building the co-star graph.
+     *
+     * @param snapshot The snapshot file.
+     * @param source   The credits file the snapshot must have been built from, or null to skip that check.
+     * @param verify   True to compare the source's checksum instead of its modification time.
+     * @throws IOException If the snapshot cannot be read, is corrupt, or does not match the source.
+     */
+    public void loadSnapshot(Path snapshot, Path source, boolean verify) throws IOException {
+        long start = System.nanoTime();
+        compact = GraphSnapshot.load(snapshot, source, verify);
+        credits = null;
+        creditIndex = null;
+        metrics.time(Metrics.SNAPSHOT, start);
+    }
+
+    /**
+     * Maps a graph snapshot and answers one path query straight from the mapped file,
+     * without loading the graph onto the heap. Names must match exactly, since the
+     * fuzzy name index would live on the heap.
+     *
+     * @param snapshot The snapshot file.
+     * @param source   The credits file the snapshot must have been built from.
+     * @param verify   True to check the snapshot's checksum and compare the source's.
+     * @param center   The name of the source actor.
+     * @param goal     The name of the destination actor.
+     * @throws IOException If the snapshot cannot be read, is corrupt, or does not match the source.
+     */
+    private void runOffHeap(Path snapshot, Path source, boolean verify, String center, String goal) throws IOException {
+        long start = System.nanoTime();
+        OffHeapGraph mapped = GraphSnapshot.map(snapshot, source, verify);
+        metrics.time(Metrics.SNAPSHOT, start);
+        int centerId = mapped.vertexId(center);
+        int goalId = mapped.vertexId(goal);
+        if (centerId < 0 || goalId < 0) {
+            System.out.println("Invalid vertices provided.");
+            System.exit(1);
+        }
+
+        start = System.nanoTime();
+        int[] ids = mapped.findPath(centerId, goalId);
+        metrics.time(Metrics.QUERY, start);
+        List<String> path = new ArrayList<>();
+        List<String> edges = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            path.add(mapped.nameOf(ids[i]));
+            if (i > 0) {
+                edges.add(mapped.edgeLabel(ids[i - 1], ids[i]));
+            }
+        }
+        printPath(path, edges);
+    }
+
+    /**
+     * Saves the co-star graph to a binary snapshot for fast later runs.
+     *
+     * @param snapshot The snapshot file to write.
+     * @param source   The credits file the graph was built from.
+     * @throws IOException If either file cannot be read or written.
+     */
+    public void saveSnapshot(Path snapshot, Path source) throws IOException {
+        GraphSnapshot.save(getCompactGraph(), snapshot, source);
+    }
+
+    /**
+     * Prints the command line usage.
+     */
+    private static void usage(){
+        System.out.println("Please enter (1) source file (2) source actor (3) optional destination actor");
+        System.out.println("Note: If you dont input (3), Kevin Bacon will be the default destination actor.");
+        System.out.println("Options:");
+        System.out.println("  --bipartite            search the actor-title graph instead of the co-star graph");
+        System.out.println("  --save-snapshot FILE   save the built co-star graph to FILE");
+        System.out.println("  --load-snapshot FILE   load the co-star graph from FILE instead of parsing the source file");
+        System.out.println("                         if the source file's size and modification time still match");
+        System.out.println("  --verify               with --load-snapshot: compare the source file's checksum and,");
+        System.out.println("                         with --off-heap, the snapshot's checksum instead");
+        System.out.println("  --batch FILE           answer one query per line of FILE (- for stdin) instead of (2) and (3);");
+        System.out.println("                         a line is \"source<TAB>destination\" or just \"destination\"");
+        System.out.println("  --format tsv|json      batch output format (default tsv)");
+        System.out.println("  --threads N            batch worker threads (default: one per core)");
+        System.out.println("  --cache-mb N           batch: cache BFS trees of repeated sources in up to N MB");
+        System.out.println("  --center NAME          center actor used when no source actor is given (default Kevin Bacon (I))");
+        System.out.println("  --table                print the Bacon number histogram for the center; (2) is then optional");
+        System.out.println("  --parallel             run path queries and --table with the parallel direction-optimizing BFS");
+        System.out.println("  --centers N            rank actors by closeness with multi-source BFS and print the best N");
+        System.out.println("  --candidates M         with --centers, only evaluate the M highest-degree actors (default: all)");
+        System.out.println("  --stats                print phase timings, traversal counters and heap use on standard error");
+        System.out.println("  --metrics-out FILE     write the same metrics to FILE (- for standard error)");
+        System.out.println("  --metrics-format F     json or prometheus (default json)");
+        System.out.println("  --components           print the number and sizes of the connected components");
+        System.out.println("  --append FILE          add the credits in FILE to the graph built from (1)");
+        System.out.println("  --landmarks K          precompute distances from K landmark actors to bound and prune searches");
+        System.out.println("  --landmark-strategy S  degree or farthest (default degree)");
+        System.out.println("  --approx               print the Bacon number from --labels, or bounds from --landmarks, instead of a path");
+        System.out.println("  --labels               build exact distance labels; --save-snapshot keeps them");
+        System.out.println("  --all-paths N          count the shortest paths and print up to N of them");
+        System.out.println("  --k-paths K            print the K shortest loopless paths, including longer ones");
+        System.out.println("  --movies-only          path and batch queries: only connect actors through movies, not TV or games");
+        System.out.println("  --years FROM-TO        path and batch queries: only connect actors through titles from these years");
+        System.out.println("  --movie-titles FILE    treat titles missing from the credits FILE as TV, for titles without TV markers");
+        System.out.println("  --off-heap             with --load-snapshot: answer the path query from the mapped snapshot");
+        System.out.println("                         without copying the graph onto the heap (exact names only)");
+        System.out.println("  --reorder S            renumber actors by bfs, rcm or degree order for cache locality;");
+        System.out.println("                         --save-snapshot keeps the new order");
+        System.out.println("  --serve PORT           serve /path, /distance, /health and /metrics over HTTP on 127.0.0.1:PORT");
+        System.out.println("                         (0 picks a free port) instead of (2) and (3); honours --threads, --cache-mb, --center");
+    }
+
+    /**
+     * Builds or loads the co-star graph as the command line options ask.
+     *
+     * @param source  The credits file.
+     * @param options The parsed command line options.
+     * @throws IOException If a file cannot be read or written.
+     */
+    private void costarData(Path source, Map<String, String> options) throws IOException {
+        if (options.containsKey("--append") && (options.containsKey("--load-snapshot") || options.containsKey("--save-snapshot"))) {
+            throw new IllegalArgumentException("--append cannot be combined with snapshots, which are tied to one source file.");
+        }
+        if (options.containsKey("--parallel")) {
+            setParallel(ForkJoinPool.commonPool());
+        }
+        if (options.containsKey("--verify") && !options.containsKey("--load-snapshot")) {
+            throw new IllegalArgumentException("--verify checks a snapshot and needs --load-snapshot.");
+        }
+        if (options.containsKey("--load-snapshot")) {
+            loadSnapshot(Paths.get(options.get("--load-snapshot")), source, options.containsKey("--verify"));
+        }
+        else {
+            creditData(loadCredits(source));
+        }
+        if (options.containsKey("--append")) {
+            CreditIndex index = appendCredits(loadCredits(Paths.get(options.get("--append"))));
+            System.err.println(index.stats());
+        }
+        if (options.containsKey("--reorder")) {
+            System.err.println(reorder(VertexOrdering.Strategy.parse(options.get("--reorder"))).stats());
+        }
+        if (options.containsKey("--labels")) {
+            System.err.println(enableDistanceLabels().stats());
+        }
+        if (options.containsKey("--save-snapshot")) {
+            saveSnapshot(Paths.get(options.get("--save-snapshot")), source);
+        }
+        if (options.containsKey("--landmarks")) {
+            String strategy = options.getOrDefault("--landmark-strategy", "degree");
+            if (!strategy.equals("degree") && !strategy.equals("farthest")) {
+                throw new IllegalArgumentException("Unknown landmark strategy: " + strategy);
+            }
+            enableLandmarks(Integer.parseInt(options.get("--landmarks")), strategy.equals("farthest"));
+        }
+        if (options.containsKey("--movie-titles")) {
+            useMovieTitles(loadCredits(Paths.get(options.get("--movie-titles"))).getTitleDictionary());
+        }
+        if (options.containsKey("--movies-only") || options.containsKey("--years")) {
+            for (String other : List.of("--table", "--centers", "--approx", "--all-paths", "--k-paths")) {
+                if (options.containsKey(other)) {
+                    throw new IllegalArgumentException("--movies-only and --years only apply to path and batch queries, not " + other + ".");
                 }
-                else{
-                    for (int i = 0; i < path.size() - 2; i++){
-                        String name = path.get(i);
-                        String nextName = path.get(i+1);
-                        String edge = baconator.getGraph().findVertex(name).getEdge(nextName);
-                        System.out.print(i + ". " + name + " -> " + edge + " -> " + nextName + " -> ");
+            }
+            EdgeMask mask = setTitleFilter(TitleFilter.parse(options.containsKey("--movies-only"), options.get("--years")));
+            System.err.printf("Title filter (%s): %d of %d edges allowed%n", mask.getFilter(), mask.getAllowed(), getCompactGraph().getSize() * 2);
+        }
+        if (wantsMetrics(options)) {
+            metrics.recordHeap();
+        }
+    }
 
-                    }
+    /**
+     * Tells whether the command line asked for metrics.
+     *
+     * @param options The parsed command line options.
+     * @return True if --stats or --metrics-out was given.
+     */
+    private static boolean wantsMetrics(Map<String, String> options){
+        return options.containsKey("--stats") || options.containsKey("--metrics-out");
+    }
+
+    /**
+     * Prints and writes the metrics as the command line options ask.
+     *
+     * @param options The parsed command line options.
+     * @throws IOException If the metrics file cannot be written.
+     */
+    private void writeMetrics(Map<String, String> options) throws IOException {
+        if (options.containsKey("--stats")) {
+            System.err.print(metrics.report());
+        }
+        if (options.containsKey("--metrics-out")) {
+            String format = options.getOrDefault("--metrics-format", "json");
+            String text;
+            if (format.equals("json")) {
+                text = metrics.toJson() + System.lineSeparator();
+            }
+            else if (format.equals("prometheus")) {
+                text = metrics.toPrometheus();
+            }
+            else {
+                throw new IllegalArgumentException("Unknown metrics format: " + format);
+            }
+            String file = options.get("--metrics-out");
+            if (file.equals("-")) {
+                System.err.print(text);
+            }
+            else {
+                Files.write(Paths.get(file), text.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    /**
+     * Runs batch mode: answers every query in the batch file and reports throughput
+     * on standard error.
+     *
+     * @param options The parsed command line options.
+     * @throws IOException If the batch file cannot be read.
+     */
+    private void runBatch(Map<String, String> options) throws IOException {
+        String format = options.getOrDefault("--format", "tsv");
+        if (!format.equals("tsv") && !format.equals("json")) {
+            throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (options.containsKey("--threads")) {
+            threads = Integer.parseInt(options.get("--threads"));
+        }
+
+        String center = options.getOrDefault("--center", DEFAULT_CENTER);
+        BfsTreeCache cache = null;
+        if (options.containsKey("--cache-mb")) {
+            cache = enableTreeCache(Long.parseLong(options.get("--cache-mb")) << 20, 2);
+        }
+        BatchRunner runner = new BatchRunner(queryGraph(), center, threads, format.equals("json"), cache, metrics, edgeMask);
+        String batch = options.get("--batch");
+        try (BufferedReader in = batch.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(batch), StandardCharsets.UTF_8)) {
+            runner.run(in, System.out);
+        }
+        System.err.printf("Answered %d queries (%.1f queries/s)%n", runner.getAnswered(), runner.getQueriesPerSecond());
+        if (cache != null) {
+            System.err.println(cache.stats());
+        }
+    }
+
+    /**
+     * Runs server mode: serves path and distance queries over HTTP on the loopback
+     * interface until the process is stopped.
+     *
+     * @param options The parsed command line options.
+     * @return The running server.
+     * @throws IOException If the port cannot be bound.
+     */
+    private QueryServer runServer(Map<String, String> options) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (options.containsKey("--threads")) {
+            threads = Integer.parseInt(options.get("--threads"));
+        }
+        BfsTreeCache cache = null;
+        if (options.containsKey("--cache-mb")) {
+            cache = enableTreeCache(Long.parseLong(options.get("--cache-mb")) << 20, 2);
+        }
+        String center = options.getOrDefault("--center", DEFAULT_CENTER);
+        QueryServer server = new QueryServer(queryGraph(), center, threads, cache, metrics, edgeMask);
+        int port = server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(options.get("--serve"))));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+        System.err.printf("Serving queries on http://%s:%d/ (%s)%n", InetAddress.getLoopbackAddress().getHostAddress(), port,
+                server.usesVirtualThreads() ? "virtual threads" : threads + " worker threads");
+        return server;
+    }
 
-                    String name = path.get(path.size()-2);
-                    String nextName = path.get(path.size()-1);
-                    String edge = baconator.getGraph().findVertex(name).getEdge(nextName);
-                    System.out.print(path.size() + ". " + name + " -> " + edge + " -> " + nextName);
+    /**
+     * One command-line mode, run against a fresh `BaconNumber`.
+     */
+    private interface Mode {
+        void run(BaconNumber baconator) throws IOException;
+    }
 
-                    System.out.println("");
-                    System.out.println("");
-                    System.out.println(path.get(path.size()-1)+"'s Bacon Number is "+ path.size());
+    /**
+     * Runs one command-line mode and reports its failures, exiting with status 1 on
+     * a missing file, a read error or an invalid argument.
+     *
+     * @param mode The mode to run.
+     */
+    private static void runMode(Mode mode){
+        try {
+            mode.run(new BaconNumber());
+        }
+        catch (NoSuchFileException e) {
+            System.out.println("ERROR: File not found: " + e.getFile());
+            System.exit(1);
+        }
+        catch (IOException | IllegalArgumentException e) {
+            System.out.println("ERROR: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs the plain path mode: loads the credits, resolves both actor names and
+     * prints a path between them, or distance bounds or several paths when asked.
+     *
+     * @param source     The credits file.
+     * @param goalName   The destination actor, as typed.
+     * @param centerName The source actor, as typed.
+     * @param options    The parsed command line options.
+     * @throws IOException If the credits or a snapshot cannot be read.
+     */
+    private void runPath(Path source, String goalName, String centerName, Map<String, String> options) throws IOException {
+        List<String> path = new ArrayList<>();
+        List<String> edges = new ArrayList<>();
+        if (options.containsKey("--bipartite")) {
+            bipartiteData(loadCredits(source));
+            if (wantsMetrics(options)) {
+                getMetrics().recordHeap();
+            }
+            String[] resolved = resolveOrExit(this, goalName, centerName);
+            goalName = resolved[0];
+            centerName = resolved[1];
+
+            List<String> steps = findBipartitePath(centerName, goalName);
+            for (int i = 0; i < steps.size(); i++) {
+                if (i % 2 == 0) {
+                    path.add(steps.get(i));
+                }
+                else {
+                    edges.add(steps.get(i));
+                }
+            }
+        }
+        else {
+            costarData(source, options);
+
+            CompactGraph compact = queryGraph();
+            String[] resolved = resolveOrExit(this, goalName, centerName);
+            goalName = resolved[0];
+            centerName = resolved[1];
+
+            if (options.containsKey("--approx")) {
+                if (compact.getDistanceLabels() == null && compact.getLandmarks() == null) {
+                    throw new IllegalArgumentException("--approx needs --labels, --landmarks or a snapshot saved with labels.");
                 }
+                printBounds(goalName, distanceBounds(centerName, goalName));
+                writeMetrics(options);
+                return;
+            }
+            if (options.containsKey("--all-paths") || options.containsKey("--k-paths")) {
+                printPaths(centerName, goalName, options);
+                writeMetrics(options);
+                return;
+            }
+            path = findPath(centerName, goalName);
+            for (int i = 0; i < path.size() - 1; i++) {
+                edges.add(edgeLabel(compact.vertexId(path.get(i)), compact.vertexId(path.get(i+1))));
             }
-            catch (FileNotFoundException e) {
-                System.out.println("ERROR: File not found.");
+        }
+        printPath(path, edges);
+        writeMetrics(options);
+    }
+
+    /**
+     * The main method for the `BaconNumber` program, which reads IMDb data and calculates
+     * the Bacon Number for specified actors.
+     *
+     * @param args Command line arguments: (1) source file (2) source actor (3) optional destination actor,
+     *             plus the options listed by `usage`.
+     */
+    public static void main(String[] args) {
+        List<String> positional = new ArrayList<>();
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (FLAG_OPTIONS.contains(arg)) {
+                options.put(arg, "");
+            }
+            else if (VALUE_OPTIONS.contains(arg) && i + 1 < args.length) {
+                options.put(arg, args[++i]);
+            }
+            else if (arg.startsWith("--")) {
+                System.out.println("Unknown or incomplete option: " + arg);
+                usage();
                 System.exit(1);
             }
+            else {
+                positional.add(arg);
+            }
+        }
+
+        if (options.containsKey("--off-heap")) {
+            for (String option : options.keySet()) {
+                if (!OFF_HEAP_OPTIONS.contains(option)) {
+                    System.out.println("--off-heap only answers plain path queries and cannot be combined with " + option + ".");
+                    System.exit(1);
+                }
+            }
+            if (positional.size() != 2 && positional.size() != 3) {
+                usage();
+                System.exit(1);
+            }
+            if (!options.containsKey("--load-snapshot")) {
+                System.out.println("--off-heap maps a snapshot and needs --load-snapshot.");
+                System.exit(1);
+            }
+            String centerName = positional.size() == 3 ? positional.get(2) : options.getOrDefault("--center", DEFAULT_CENTER);
+            runMode(baconator -> {
+                baconator.runOffHeap(Paths.get(options.get("--load-snapshot")), Paths.get(positional.get(0)),
+                        options.containsKey("--verify"), centerName, positional.get(1));
+                baconator.writeMetrics(options);
+            });
+        }
+        else if (options.containsKey("--serve")) {
+            if (positional.size() != 1 || options.containsKey("--bipartite") || options.containsKey("--batch")) {
+                usage();
+                System.exit(1);
+            }
+            // Replies are small; without TCP_NODELAY a kept-alive connection waits out the
+            // client's delayed ACK, about 40 ms, before each one. The JDK server reads this
+            // property once, so it must be set before the server starts.
+            if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+                System.setProperty("sun.net.httpserver.nodelay", "true");
+            }
+            runMode(baconator -> {
+                baconator.costarData(Paths.get(positional.get(0)), options);
+                baconator.runServer(options);
+            });
+        }
+        else if (options.containsKey("--batch")) {
+            if (positional.size() != 1 || options.containsKey("--bipartite")) {
+                usage();
+                System.exit(1);
+            }
+            runMode(baconator -> {
+                baconator.costarData(Paths.get(positional.get(0)), options);
+                baconator.runBatch(options);
+                baconator.writeMetrics(options);
+            });
+        }
+        else if (options.containsKey("--centers")) {
+            if (positional.size() != 1 || options.containsKey("--bipartite")) {
+                usage();
+                System.exit(1);
+            }
+            runMode(baconator -> {
+                baconator.costarData(Paths.get(positional.get(0)), options);
+                int candidates = Integer.parseInt(options.getOrDefault("--candidates", "0"));
+                CenterReport report = baconator.centerReport(candidates, ForkJoinPool.commonPool());
+                System.out.print(report.report(Integer.parseInt(options.get("--centers"))));
+                baconator.writeMetrics(options);
+            });
+        }
+        else if (options.containsKey("--components")) {
+            if (positional.size() != 1 || options.containsKey("--bipartite")) {
+                usage();
+                System.exit(1);
+            }
+            runMode(baconator -> {
+                baconator.costarData(Paths.get(positional.get(0)), options);
+                System.out.print(baconator.getCompactGraph().getComponents().report(10));
+                baconator.writeMetrics(options);
+            });
+        }
+        else if (options.containsKey("--table")) {
+            if (positional.size() != 1 && positional.size() != 2 || options.containsKey("--bipartite")) {
+                usage();
+                System.exit(1);
+            }
+            runMode(baconator -> {
+                baconator.costarData(Paths.get(positional.get(0)), options);
+                String goal = positional.size() == 2 ? positional.get(1) : null;
+                baconator.runTable(options.getOrDefault("--center", DEFAULT_CENTER), goal);
+                baconator.writeMetrics(options);
+            });
+        }
+        else if (positional.size() != 2 && positional.size() != 3) {
+            usage();
+            System.exit(1);
+        }
+        else if (options.containsKey("--bipartite") && (options.containsKey("--save-snapshot") || options.containsKey("--load-snapshot"))) {
+            System.out.println("Snapshots hold the co-star graph and cannot be used with --bipartite.");
+            System.exit(1);
+        }
+        else {
+            String centerName = positional.size() == 3 ? positional.get(2) : options.getOrDefault("--center", DEFAULT_CENTER);
+            runMode(baconator -> baconator.runPath(Paths.get(positional.get(0)), positional.get(1), centerName, options));
         }
     }
 }
@@ -1,6 +1,8 @@
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -84,6 +86,44 @@ public class BaconNumberTest {
 
     }
 
+    @Test
+    void testFindPath() {
+        setUp();
+        baconNumber.addName("Actor1");
+        baconNumber.addName("Actor2");
+        baconNumber.addName("Actor3");
+        baconNumber.getNameToTitle().put("Actor1", List.of("Movie1"));
+        baconNumber.getNameToTitle().put("Actor2", List.of("Movie1", "Movie2"));
+        baconNumber.getNameToTitle().put("Actor3", List.of("Movie2"));
+        baconNumber.getTitleToName().put("Movie1", List.of("Actor1", "Actor2"));
+        baconNumber.getTitleToName().put("Movie2", List.of("Actor2", "Actor3"));
+        baconNumber.baconData();
+
+        Graph graph = baconNumber.getGraph();
+        List<String> path = baconNumber.findPath(graph.findVertex("Actor1"), graph.findVertex("Actor3"));
+        assertEquals(List.of("Actor1", "Actor2", "Actor3"), path);
+    }
+
+    @Test
+    void testAppendRebuildsLandmarksOnQuery() {
+        setUp();
+        StringDictionary names = new StringDictionary(new String[] {"A", "B", "C"});
+        StringDictionary titles = new StringDictionary(new String[] {"M1", "M2"});
+        baconNumber.creditData(new CreditTable(names, titles, new int[] {0, 1, 1, 2}, new int[] {0, 0, 1, 1}, 4));
+        baconNumber.enableLandmarks(2, false);
+        CompactGraph before = baconNumber.getCompactGraph();
+
+        StringDictionary newNames = new StringDictionary(new String[] {"D", "C"});
+        StringDictionary newTitles = new StringDictionary(new String[] {"M3"});
+        baconNumber.appendCredits(new CreditTable(newNames, newTitles, new int[] {0, 1}, new int[] {0, 0}, 2));
+        CompactGraph after = baconNumber.getCompactGraph();
+        assertEquals(3, before.getOrder());
+        assertNull(after.getLandmarks());
+
+        assertEquals(List.of("A", "B", "C", "D"), baconNumber.findPath("A", "D"));
+        assertNotNull(after.getLandmarks());
+    }
+
     @Test
     void testMain() {
         setUp();
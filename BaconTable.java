@@ -0,0 +1,215 @@
+import java.util.Arrays;
+
+public class BaconTable {
+
+    private final CompactGraph graph;
+    private final int center;
+    private final int[] distance;
+    private final int[] parent;
+    private final long[] histogram;
+    private final int reached;
+
+    /**
+     * The `BaconTable` class runs one BFS from a center actor and keeps the distance
+     * and BFS parent of every vertex. After that, any actor's Bacon number is an array
+     * read and its path back to the center is a walk up the parent array, so it costs
+     * O(path length).
+     *
+     * @param graph  The graph to search.
+     * @param center The ID of the center actor.
+     */
+    public BaconTable(CompactGraph graph, int center){
+        this(graph, center, bfs(graph, center));
+    }
+
+    /**
+     * Builds the table from a BFS that has already been run.
+     *
+     * @param graph  The graph that was searched.
+     * @param center The ID of the center actor.
+     * @param tree   The distance array followed by the parent array.
+     */
+    private BaconTable(CompactGraph graph, int center, int[][] tree){
+        this.graph = graph;
+        this.center = center;
+        this.distance = tree[0];
+        this.parent = tree[1];
+
+        int reachable = 0;
+        int eccentricity = 0;
+        for (int d : distance) {
+            if (d >= 0) {
+                reachable++;
+                eccentricity = Math.max(eccentricity, d);
+            }
+        }
+        this.reached = reachable;
+        this.histogram = new long[eccentricity + 1];
+        for (int d : distance) {
+            if (d >= 0) {
+                histogram[d]++;
+            }
+        }
+    }
+
+    /**
+     * Builds the table with a parallel direction-optimizing BFS.
+     *
+     * @param graph  The graph to search.
+     * @param center The ID of the center actor.
+     * @param engine The parallel BFS engine to run; it must have been created for graph.
+     * @return The table.
+     */
+    public static BaconTable parallel(CompactGraph graph, int center, ParallelBfs engine){
+        engine.run(center);
+        return new BaconTable(graph, center, new int[][] {engine.getDistance().clone(), engine.getParent().clone()});
+    }
+
+    /**
+     * Runs a sequential BFS over the CSR arrays.
+     *
+     * @return The distance array followed by the parent array.
+     */
+    private static int[][] bfs(CompactGraph graph, int center){
+        int order = graph.getOrder();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] distance = new int[order];
+        int[] parent = new int[order];
+        Arrays.fill(distance, -1);
+        Arrays.fill(parent, -1);
+
+        int[] queue = new int[order];
+        int head = 0;
+        int tail = 0;
+        distance[center] = 0;
+        parent[center] = center;
+        queue[tail++] = center;
+        while (head < tail) {
+            int v = queue[head++];
+            int next = distance[v] + 1;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int w = targets[i];
+                if (distance[w] < 0) {
+                    distance[w] = next;
+                    parent[w] = v;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return new int[][] {distance, parent};
+    }
+
+    /**
+     * Retrieves the ID of the center actor.
+     *
+     * @return The center's vertex ID.
+     */
+    public int getCenter(){
+        return center;
+    }
+
+    /**
+     * Retrieves the Bacon number of an actor.
+     *
+     * @param v The actor's vertex ID.
+     * @return The distance from the center, or -1 if the actor cannot be reached.
+     */
+    public int distance(int v){
+        return distance[v];
+    }
+
+    /**
+     * Retrieves the BFS parent of an actor, which is one step closer to the center.
+     *
+     * @param v The actor's vertex ID.
+     * @return The parent's vertex ID, the center itself for the center, or -1 if unreachable.
+     */
+    public int parent(int v){
+        return parent[v];
+    }
+
+    /**
+     * Retrieves the whole parent array without copying it. Callers must not modify it.
+     *
+     * @return The parent of each vertex.
+     */
+    int[] parents(){
+        return parent;
+    }
+
+    /**
+     * Builds the path from the center to an actor by walking the parent array.
+     *
+     * @param goal The actor's vertex ID.
+     * @return The vertex IDs from the center to goal, or an empty array if goal is unreachable.
+     */
+    public int[] pathTo(int goal){
+        if (distance[goal] < 0) {
+            return new int[0];
+        }
+        return CompactGraph.buildPath(parent, center, goal);
+    }
+
+    /**
+     * Retrieves the Bacon number histogram.
+     *
+     * @return Entry k is the number of actors whose Bacon number is k.
+     */
+    public long[] getHistogram(){
+        return histogram.clone();
+    }
+
+    /**
+     * Retrieves the number of actors reachable from the center, including the center.
+     *
+     * @return The number of reachable actors.
+     */
+    public int getReachable(){
+        return reached;
+    }
+
+    /**
+     * Retrieves the number of actors that cannot be reached from the center.
+     *
+     * @return The number of unreachable actors.
+     */
+    public int getUnreachable(){
+        return graph.getOrder() - reached;
+    }
+
+    /**
+     * Retrieves the average Bacon number over the reachable actors other than the center.
+     *
+     * @return The average Bacon number, or 0 if nothing else is reachable.
+     */
+    public double getAverage(){
+        long total = 0;
+        for (int k = 0; k < histogram.length; k++) {
+            total += k * histogram[k];
+        }
+        if (reached <= 1) {
+            return 0;
+        }
+        return (double) total / (reached - 1);
+    }
+
+    /**
+     * Formats the classic Bacon number report: one histogram row per Bacon number,
+     * then the unreachable count and the average.
+     *
+     * @return The report text.
+     */
+    public String report(){
+        StringBuilder text = new StringBuilder();
+        text.append("Bacon numbers from ").append(graph.nameOf(center)).append(System.lineSeparator());
+        text.append("Number\tActors").append(System.lineSeparator());
+        for (int k = 0; k < histogram.length; k++) {
+            text.append(k).append('\t').append(histogram[k]).append(System.lineSeparator());
+        }
+        text.append("Unreachable\t").append(getUnreachable()).append(System.lineSeparator());
+        text.append(String.format("Average Bacon number: %.3f over %d reachable actors", getAverage(), reached - 1));
+        text.append(System.lineSeparator());
+        return text.toString();
+    }
+}
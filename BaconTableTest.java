@@ -0,0 +1,48 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BaconTableTest {
+
+    private CompactGraph graph() {
+        String[] names = {"A", "B", "C", "D", "E"};
+        String[] titles = {"M1", "M2", "M3"};
+        int[] creditActor = {0, 1, 1, 2, 0, 3, 4};
+        int[] creditTitle = {0, 0, 1, 1, 2, 2, 2};
+        return CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, 7));
+    }
+
+    @Test
+    void testDistances() {
+        CompactGraph graph = graph();
+        BaconTable table = new BaconTable(graph, graph.vertexId("B"));
+        assertEquals(0, table.distance(graph.vertexId("B")));
+        assertEquals(1, table.distance(graph.vertexId("A")));
+        assertEquals(1, table.distance(graph.vertexId("C")));
+        assertEquals(2, table.distance(graph.vertexId("E")));
+        assertArrayEquals(new long[] {1, 2, 2}, table.getHistogram());
+        assertEquals(0, table.getUnreachable());
+        assertEquals(1.5, table.getAverage(), 1e-9);
+    }
+
+    @Test
+    void testPathTo() {
+        CompactGraph graph = graph();
+        BaconTable table = new BaconTable(graph, graph.vertexId("C"));
+        int[] expected = {graph.vertexId("C"), graph.vertexId("B"), graph.vertexId("A"), graph.vertexId("D")};
+        assertArrayEquals(expected, table.pathTo(graph.vertexId("D")));
+        assertArrayEquals(new int[] {graph.vertexId("C")}, table.pathTo(graph.vertexId("C")));
+    }
+
+    @Test
+    void testUnreachable() {
+        String[] names = {"A", "B", "C"};
+        String[] titles = {"M1", "M2"};
+        CompactGraph graph = CompactGraph.fromCredits(new CreditTable(names, titles, new int[] {0, 1, 2}, new int[] {0, 0, 1}, 3));
+        BaconTable table = new BaconTable(graph, 0);
+        assertEquals(1, table.getUnreachable());
+        assertEquals(-1, table.distance(2));
+        assertEquals(0, table.pathTo(2).length);
+    }
+}
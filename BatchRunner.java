@@ -0,0 +1,351 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class BatchRunner {
+
+    private static final int BLOCK = 4096;
+
+    private final CompactGraph graph;
+    private final String defaultCenter;
+    private final int threads;
+    private final boolean json;
+    private final ThreadLocal<BidirectionalSearch> searches;
+    private final BfsTreeCache cache;
+    private final Metrics metrics;
+    private final EdgeMask mask;
+    private long answered;
+    private long elapsedNanos;
+
+    /**
+     * The `BatchRunner` class answers many path queries against one shared, read-only
+     * graph. Queries are read one per line, either "source TAB destination" or just
+     * "destination" (searched from the default center), and answered in blocks across
+     * a fixed worker pool. Each worker thread keeps its own search scratch arrays.
+     * Names are resolved through the graph's name index, so a different case, missing
+     * accents or a missing disambiguation such as " (I)" still find the actor.
+     * Results are written in input order as TSV or JSON lines.
+     *
+     * @param graph         The graph to query.
+     * @param defaultCenter The source actor for lines that name only a destination.
+     * @param threads       The number of worker threads.
+     * @param json          True to write JSON lines, false to write TSV.
+     */
+    public BatchRunner(CompactGraph graph, String defaultCenter, int threads, boolean json){
+        this(graph, defaultCenter, threads, json, null);
+    }
+
+    /**
+     * Creates a batch runner that answers queries from a shared cache of BFS trees
+     * where it can.
+     *
+     * @param graph         The graph to query.
+     * @param defaultCenter The source actor for lines that name only a destination.
+     * @param threads       The number of worker threads.
+     * @param json          True to write JSON lines, false to write TSV.
+     * @param cache         The tree cache over graph, or null to always search.
+     */
+    public BatchRunner(CompactGraph graph, String defaultCenter, int threads, boolean json, BfsTreeCache cache){
+        this(graph, defaultCenter, threads, json, cache, null);
+    }
+
+    /**
+     * Creates a batch runner that records query timings and traversal counters.
+     *
+     * @param graph         The graph to query.
+     * @param defaultCenter The source actor for lines that name only a destination.
+     * @param threads       The number of worker threads.
+     * @param json          True to write JSON lines, false to write TSV.
+     * @param cache         The tree cache over graph, or null to always search.
+     * @param metrics       Where to record each query, or null.
+     */
+    public BatchRunner(CompactGraph graph, String defaultCenter, int threads, boolean json, BfsTreeCache cache, Metrics metrics){
+        this(graph, defaultCenter, threads, json, cache, metrics, null);
+    }
+
+    /**
+     * Creates a batch runner whose paths only use the edges a title filter allows.
+     * Cached trees span the whole graph, so the cache is bypassed while a mask is set.
+     *
+     * @param graph         The graph to query.
+     * @param defaultCenter The source actor for lines that name only a destination.
+     * @param threads       The number of worker threads.
+     * @param json          True to write JSON lines, false to write TSV.
+     * @param cache         The tree cache over graph, or null to always search.
+     * @param metrics       Where to record each query, or null.
+     * @param mask          The edge mask over graph, or null to use every edge.
+     */
+    public BatchRunner(CompactGraph graph, String defaultCenter, int threads, boolean json, BfsTreeCache cache, Metrics metrics, EdgeMask mask){
+        this.graph = graph;
+        this.mask = mask;
+        this.metrics = metrics;
+        this.cache = cache;
+        this.defaultCenter = defaultCenter;
+        this.threads = Math.max(1, threads);
+        this.json = json;
+        this.searches = ThreadLocal.withInitial(() -> new BidirectionalSearch(graph));
+    }
+
+    /**
+     * Reads every query from the input and writes one result line per query.
+     *
+     * @param in  The query lines.
+     * @param out Where to write the results.
+     * @throws IOException If the input cannot be read.
+     */
+    public void run(BufferedReader in, PrintStream out) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<String> block = new ArrayList<>(BLOCK);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                block.add(line);
+                if (block.size() == BLOCK) {
+                    runBlock(block, pool, out);
+                    block.clear();
+                }
+            }
+            runBlock(block, pool, out);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while answering queries", e);
+        }
+        catch (ExecutionException e) {
+            throw new IOException("Query failed", e.getCause());
+        }
+        finally {
+            pool.shutdown();
+            elapsedNanos += System.nanoTime() - start;
+        }
+        out.flush();
+    }
+
+    /**
+     * Answers one block of queries in parallel and writes the results in order.
+     */
+    private void runBlock(List<String> block, ExecutorService pool, PrintStream out) throws InterruptedException, ExecutionException {
+        int slice = Math.max(1, (block.size() + threads - 1) / threads);
+        String[] results = new String[block.size()];
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < block.size(); from += slice) {
+            int first = from;
+            int last = Math.min(block.size(), from + slice);
+            futures.add(pool.submit(() -> {
+                for (int i = first; i < last; i++) {
+                    results[i] = answer(block.get(i));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        for (String result : results) {
+            out.println(result);
+        }
+        answered += block.size();
+    }
+
+    /**
+     * Answers a single query line.
+     *
+     * @param line The query, "source TAB destination" or "destination".
+     * @return The formatted result line.
+     */
+    String answer(String line){
+        String[] split = line.split("\t");
+        String center = split.length > 1 ? split[0].trim() : defaultCenter;
+        String goal = split.length > 1 ? split[1].trim() : split[0].trim();
+        return answer(center, goal, searches.get());
+    }
+
+    /**
+     * Answers a single path query with the given search scratch, for callers that
+     * pool searches instead of keeping one per thread.
+     *
+     * @param center The name of the source actor.
+     * @param goal   The name of the destination actor.
+     * @param search The search to run, used by no other thread during the call.
+     * @return The formatted result line.
+     */
+    String answer(String center, String goal, BidirectionalSearch search){
+        int centerId = graph.resolveVertex(center);
+        int goalId = graph.resolveVertex(goal);
+        if (centerId < 0 || goalId < 0) {
+            return format(center, goal, "unknown_actor", null);
+        }
+        if (!graph.getComponents().connected(centerId, goalId)) {
+            return format(center, goal, "no_path", null);
+        }
+        long start = System.nanoTime();
+        long searched = search.getQueries();
+        int[] path;
+        if (mask != null) {
+            path = search.findPath(centerId, goalId, null, mask);
+        }
+        else if (cache != null) {
+            path = cache.findPath(centerId, goalId, search);
+        }
+        else {
+            path = search.findPath(centerId, goalId, graph.getLandmarks());
+        }
+        if (metrics != null) {
+            metrics.time(Metrics.QUERY, start);
+            if (search.getQueries() != searched) {
+                metrics.recordSearch(search);
+            }
+        }
+        if (path.length == 0) {
+            return format(center, goal, "no_path", null);
+        }
+        return format(center, goal, "ok", path);
+    }
+
+    /**
+     * Answers a single distance query. Exact distance labels answer it without a
+     * search when the graph has them and no mask is set.
+     *
+     * @param center The name of the source actor.
+     * @param goal   The name of the destination actor.
+     * @param search The search to run if needed, used by no other thread during the call.
+     * @return The formatted result line, without the path.
+     */
+    String distance(String center, String goal, BidirectionalSearch search){
+        int centerId = graph.resolveVertex(center);
+        int goalId = graph.resolveVertex(goal);
+        if (centerId < 0 || goalId < 0) {
+            return formatDistance(center, goal, "unknown_actor", -1);
+        }
+        if (!graph.getComponents().connected(centerId, goalId)) {
+            return formatDistance(center, goal, "no_path", -1);
+        }
+        long start = System.nanoTime();
+        PrunedLandmarkLabels labels = graph.getDistanceLabels();
+        int distance;
+        if (mask == null && labels != null) {
+            distance = labels.distance(centerId, goalId);
+        }
+        else {
+            distance = search.findPath(centerId, goalId, mask == null ? graph.getLandmarks() : null, mask).length - 1;
+            if (metrics != null) {
+                metrics.recordSearch(search);
+            }
+        }
+        if (metrics != null) {
+            metrics.time(Metrics.QUERY, start);
+        }
+        return formatDistance(center, goal, distance < 0 ? "no_path" : "ok", distance);
+    }
+
+    private String formatDistance(String center, String goal, String status, int distance){
+        if (json) {
+            return "{\"source\":" + quote(center) + ",\"destination\":" + quote(goal)
+                    + ",\"status\":\"" + status + "\",\"distance\":" + distance + "}";
+        }
+        return center + '\t' + goal + '\t' + status + '\t' + distance;
+    }
+
+    private String format(String center, String goal, String status, int[] path){
+        int distance = path == null ? -1 : path.length - 1;
+        StringBuilder line = new StringBuilder();
+        if (json) {
+            line.append("{\"source\":").append(quote(center));
+            line.append(",\"destination\":").append(quote(goal));
+            line.append(",\"status\":\"").append(status).append('"');
+            line.append(",\"distance\":").append(distance);
+            line.append(",\"path\":[");
+            if (path != null) {
+                for (int i = 0; i < path.length; i++) {
+                    if (i > 0) {
+                        line.append(',').append(quote(edgeLabel(path[i - 1], path[i]))).append(',');
+                    }
+                    line.append(quote(graph.nameOf(path[i])));
+                }
+            }
+            line.append("]}");
+        }
+        else {
+            line.append(center).append('\t').append(goal).append('\t').append(status).append('\t').append(distance).append('\t');
+            if (path != null) {
+                for (int i = 0; i < path.length; i++) {
+                    if (i > 0) {
+                        line.append(" -> ").append(edgeLabel(path[i - 1], path[i])).append(" -> ");
+                    }
+                    line.append(graph.nameOf(path[i]));
+                }
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * Retrieves the source actor for queries that name only a destination.
+     *
+     * @return The default center.
+     */
+    String getDefaultCenter(){
+        return defaultCenter;
+    }
+
+    /**
+     * Retrieves the number of queries answered so far.
+     *
+     * @return The number of queries answered.
+     */
+    public long getAnswered(){
+        return answered;
+    }
+
+    /**
+     * Retrieves the throughput of all calls to run so far.
+     *
+     * @return Queries answered per second.
+     */
+    public double getQueriesPerSecond(){
+        if (elapsedNanos == 0) {
+            return 0;
+        }
+        return answered * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Quotes a string as a JSON string literal.
+     *
+     * @param value The string, or null.
+     * @return The JSON literal, or null.
+     */
+    static String quote(String value){
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder(value.length() + 2);
+        quoted.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            }
+            else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private String edgeLabel(int v, int w){
+        return mask != null ? mask.sharedLabels(graph, v, w) : graph.sharedLabels(v, w);
+    }
+}
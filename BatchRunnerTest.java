@@ -0,0 +1,54 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+public class BatchRunnerTest {
+
+    private CompactGraph graph() {
+        String[] names = {"A", "B", "C", "D"};
+        String[] titles = {"M1", "M2", "M3"};
+        int[] creditActor = {0, 1, 1, 2, 3};
+        int[] creditTitle = {0, 0, 1, 1, 2};
+        return CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, 5));
+    }
+
+    private String run(BatchRunner runner, String input) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        runner.run(new BufferedReader(new StringReader(input)), out);
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testTsv() throws IOException {
+        BatchRunner runner = new BatchRunner(graph(), "A", 3, false);
+        String output = run(runner, "A\tC\n\nC\nA\tD\nA\tZ\n");
+        String expected = "A\tC\tok\t2\tA -> M1 -> B -> M2 -> C\n"
+                + "A\tC\tok\t2\tA -> M1 -> B -> M2 -> C\n"
+                + "A\tD\tno_path\t-1\t\n"
+                + "A\tZ\tunknown_actor\t-1\t\n";
+        assertEquals(expected, output.replace(System.lineSeparator(), "\n"));
+        assertEquals(4, runner.getAnswered());
+    }
+
+    @Test
+    void testJson() throws IOException {
+        BatchRunner runner = new BatchRunner(graph(), "A", 1, true);
+        String output = run(runner, "B\tA\n");
+        assertEquals("{\"source\":\"B\",\"destination\":\"A\",\"status\":\"ok\",\"distance\":1,\"path\":[\"B\",\"M1\",\"A\"]}",
+                output.trim());
+    }
+
+    @Test
+    void testQuote() {
+        assertEquals("\"a\\\"b\\\\c\\u0009\"", BatchRunner.quote("a\"b\\c\t"));
+        assertEquals("null", BatchRunner.quote(null));
+    }
+}
@@ -0,0 +1,209 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class Benchmarks {
+
+    private static final String[] DATASETS = {"imdb_small.txt", "imdb_movies_medium.txt", "imdb_withtv_medium.txt"};
+    private static final int QUERIES_PER_OP = 1000;
+
+    private final int warmup;
+    private final int iterations;
+    private final List<String> results;
+    private final com.sun.management.ThreadMXBean threads;
+
+    /**
+     * The `Benchmarks` class measures loading, graph construction, point queries and
+     * full-graph BFS on the bundled IMDb files, and the queries and BFS again after
+     * each vertex reordering. Each benchmark runs a number of warmup
+     * iterations and then timed iterations, and reports the mean, standard deviation
+     * and minimum time per operation. It also reports the bytes allocated per
+     * operation on the benchmark thread, the same figure as the gc.alloc.rate.norm
+     * column of a GC profiler, or -1 for benchmarks whose work runs on other threads.
+     * Results can be written as JSON lines for diffing between releases.
+     *
+     * @param warmup     The number of untimed iterations per benchmark.
+     * @param iterations The number of timed iterations per benchmark.
+     */
+    public Benchmarks(int warmup, int iterations){
+        this.warmup = warmup;
+        this.iterations = iterations;
+        this.results = new ArrayList<>();
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * One benchmark body. Each call is one operation.
+     */
+    private interface Body {
+        void run() throws IOException;
+    }
+
+    /**
+     * Runs one benchmark and records its result.
+     *
+     * @param name          The benchmark name.
+     * @param dataset       The dataset it ran on.
+     * @param opsPerCall    How many operations one call of body performs.
+     * @param countsAlloc   True if all of body's allocation happens on this thread.
+     * @param body          The benchmark body.
+     * @throws IOException If the body fails.
+     */
+    private void measure(String name, String dataset, int opsPerCall, boolean countsAlloc, Body body) throws IOException {
+        for (int i = 0; i < warmup; i++) {
+            body.run();
+        }
+        System.gc();
+
+        double[] nanos = new double[iterations];
+        long thread = Thread.currentThread().getId();
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            body.run();
+            nanos[i] = (double) (System.nanoTime() - start) / opsPerCall;
+        }
+        long allocPerOp = countsAlloc ? (threads.getThreadAllocatedBytes(thread) - allocated) / ((long) iterations * opsPerCall) : -1;
+
+        double mean = Arrays.stream(nanos).average().orElse(0);
+        double variance = 0;
+        for (double n : nanos) {
+            variance += (n - mean) * (n - mean);
+        }
+        double stdev = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+        double min = Arrays.stream(nanos).min().orElse(0);
+
+        System.out.printf("%-20s %-24s %14.1f %12.1f %14.1f %14d%n", name, dataset, mean, stdev, min, allocPerOp);
+        results.add(String.format("{\"benchmark\":%s,\"dataset\":%s,\"iterations\":%d,\"opsPerIteration\":%d,"
+                + "\"nsPerOp\":%.1f,\"stdevNs\":%.1f,\"minNs\":%.1f,\"allocBytesPerOp\":%d}",
+                BatchRunner.quote(name), BatchRunner.quote(dataset), iterations, opsPerCall, mean, stdev, min, allocPerOp));
+    }
+
+    /**
+     * Runs every benchmark on one dataset.
+     *
+     * @param file The dataset file.
+     * @throws IOException If the dataset cannot be read.
+     */
+    public void runDataset(Path file) throws IOException {
+        String dataset = file.getFileName().toString();
+        CreditTable credits = new CreditLoader().load(file);
+        CompactGraph graph = CompactGraph.fromCredits(credits);
+        BipartiteGraph bipartite = BipartiteGraph.fromCredits(credits);
+
+        Random random = new Random(42);
+        int[] sources = new int[QUERIES_PER_OP];
+        int[] goals = new int[QUERIES_PER_OP];
+        for (int i = 0; i < QUERIES_PER_OP; i++) {
+            sources[i] = random.nextInt(graph.getOrder());
+            goals[i] = random.nextInt(graph.getOrder());
+        }
+        int hub = MultiSourceBfs.topDegree(graph, 1)[0];
+        BidirectionalSearch search = new BidirectionalSearch(graph);
+        ParallelBfs parallel = new ParallelBfs(graph, ForkJoinPool.commonPool());
+
+        measure("parse", dataset, 1, false, () -> new CreditLoader().load(file));
+        measure("parse-serial", dataset, 1, true, () -> new CreditLoader(1).load(file));
+        measure("build-costar", dataset, 1, true, () -> CompactGraph.fromCredits(credits));
+        measure("build-bipartite", dataset, 1, true, () -> BipartiteGraph.fromCredits(credits));
+        measure("query-bidir", dataset, QUERIES_PER_OP, true, () -> {
+            for (int i = 0; i < QUERIES_PER_OP; i++) {
+                search.findPath(sources[i], goals[i]);
+            }
+        });
+        measure("query-bfs", dataset, QUERIES_PER_OP / 10, true, () -> {
+            for (int i = 0; i < QUERIES_PER_OP / 10; i++) {
+                graph.findPath(sources[i], goals[i]);
+            }
+        });
+        measure("full-bfs", dataset, 1, true, () -> new BaconTable(graph, hub));
+        measure("full-bfs-par", dataset, 1, false, () -> parallel.run(hub));
+        measure("full-bfs-bip", dataset, 1, true, () -> bipartite.findPath(hub, -1));
+
+        for (VertexOrdering.Strategy strategy : VertexOrdering.Strategy.values()) {
+            String suffix = "-" + strategy.name().toLowerCase();
+            measure("reorder" + suffix, dataset, 1, true, () -> VertexOrdering.reorder(graph, strategy));
+            VertexOrdering ordering = VertexOrdering.reorder(graph, strategy);
+            CompactGraph reordered = ordering.getGraph();
+            BidirectionalSearch reorderedSearch = new BidirectionalSearch(reordered);
+            int[] reorderedSources = new int[QUERIES_PER_OP];
+            int[] reorderedGoals = new int[QUERIES_PER_OP];
+            for (int i = 0; i < QUERIES_PER_OP; i++) {
+                reorderedSources[i] = ordering.newId(sources[i]);
+                reorderedGoals[i] = ordering.newId(goals[i]);
+            }
+            measure("query-bidir" + suffix, dataset, QUERIES_PER_OP, true, () -> {
+                for (int i = 0; i < QUERIES_PER_OP; i++) {
+                    reorderedSearch.findPath(reorderedSources[i], reorderedGoals[i]);
+                }
+            });
+            measure("full-bfs" + suffix, dataset, 1, true, () -> new BaconTable(reordered, ordering.newId(hub)));
+        }
+    }
+
+    /**
+     * Writes the recorded results as JSON lines.
+     *
+     * @param file The output file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeJson(Path file) throws IOException {
+        Files.write(file, results, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args Optional flags: --warmup N, --iterations N, --json FILE, then dataset files
+     *             (default: the three bundled IMDb files).
+     */
+    public static void main(String[] args) {
+        int warmup = 3;
+        int iterations = 5;
+        String json = null;
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--warmup") && i + 1 < args.length) {
+                warmup = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("--iterations") && i + 1 < args.length) {
+                iterations = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("--json") && i + 1 < args.length) {
+                json = args[++i];
+            }
+            else {
+                files.add(args[i]);
+            }
+        }
+        if (files.isEmpty()) {
+            files.addAll(Arrays.asList(DATASETS));
+        }
+
+        Benchmarks benchmarks = new Benchmarks(warmup, iterations);
+        PrintStream out = System.out;
+        out.printf("%-20s %-24s %14s %12s %14s %14s%n", "Benchmark", "Dataset", "ns/op", "stdev", "min ns/op", "alloc B/op");
+        try {
+            for (String file : files) {
+                benchmarks.runDataset(Paths.get(file));
+            }
+            if (json != null) {
+                benchmarks.writeJson(Paths.get(json));
+            }
+        }
+        catch (IOException e) {
+            System.out.println("ERROR: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class BfsTreeCache {
+
+    private final CompactGraph graph;
+    private final long maxBytes;
+    private final int admitAfter;
+    private final long treeBytes;
+    private final LinkedHashMap<Integer, int[]> trees;
+    private final int[] requests;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * The `BfsTreeCache` class keeps completed shortest-path trees, as BFS parent
+     * arrays, for the most recently used source actors. A query whose source (or,
+     * since the graph is undirected, whose destination) has a cached tree is answered
+     * by walking up the parent array. Trees are admitted once a source has been asked
+     * for admitAfter times, so one-off sources do not pay for a full BFS, and the
+     * least recently used tree is evicted whenever the cache would exceed its byte budget.
+     * All methods are safe to call from several threads.
+     *
+     * @param graph      The graph the trees are built over.
+     * @param maxBytes   The memory budget for cached parent arrays.
+     * @param admitAfter How many requests a source needs before its tree is built and cached.
+     */
+    public BfsTreeCache(CompactGraph graph, long maxBytes, int admitAfter){
+        this.graph = graph;
+        this.maxBytes = maxBytes;
+        this.admitAfter = Math.max(1, admitAfter);
+        this.treeBytes = 16L + 4L * graph.getOrder();
+        this.trees = new LinkedHashMap<Integer, int[]>(16, 0.75f, true);
+        this.requests = new int[graph.getOrder()];
+    }
+
+    /**
+     * Creates an empty cache with the same budget and admission threshold over
+     * another graph, for when the graph this cache was built over has changed.
+     *
+     * @param graph The new graph.
+     * @return The empty cache.
+     */
+    public BfsTreeCache forGraph(CompactGraph graph){
+        return new BfsTreeCache(graph, maxBytes, admitAfter);
+    }
+
+    /**
+     * Finds a shortest path, from the cache if either endpoint has a cached tree,
+     * otherwise with the fallback search, pruned by the graph's landmarks if it has any.
+     *
+     * @param center   The ID of the source vertex.
+     * @param goal     The ID of the destination vertex.
+     * @param fallback The search to use on a miss; it must belong to the calling thread.
+     * @return The vertex IDs on the path from center to goal, or an empty array if there is none.
+     */
+    public int[] findPath(int center, int goal, BidirectionalSearch fallback){
+        int[] tree = lookup(center, goal);
+        if (tree == null) {
+            return fallback.findPath(center, goal, graph.getLandmarks());
+        }
+        if (tree[center] == center) {
+            return walk(tree, center, goal);
+        }
+        int[] reversed = walk(tree, goal, center);
+        for (int i = 0, j = reversed.length - 1; i < j; i++, j--) {
+            int swap = reversed[i];
+            reversed[i] = reversed[j];
+            reversed[j] = swap;
+        }
+        return reversed;
+    }
+
+    /**
+     * Retrieves the cached tree rooted at either endpoint, counting a hit or a miss.
+     * On a miss the source's request count goes up, and once it reaches the admission
+     * threshold the tree is built and cached.
+     *
+     * @return A tree rooted at center or at goal, or null.
+     */
+    private int[] lookup(int center, int goal){
+        synchronized (this) {
+            int[] tree = trees.get(center);
+            if (tree == null) {
+                tree = trees.get(goal);
+            }
+            if (tree != null) {
+                hits++;
+                return tree;
+            }
+            misses++;
+            if (treeBytes > maxBytes || ++requests[center] < admitAfter) {
+                return null;
+            }
+            requests[center] = 0;
+        }
+
+        // Admitting a tree allocates a BaconTable, whose parent array is the tree kept
+        // in the cache; only its distance array and queue are garbage. This happens
+        // once per admitted source rather than once per miss, and is accepted.
+        int[] tree = new BaconTable(graph, center).parents();
+        synchronized (this) {
+            if (!trees.containsKey(center)) {
+                trees.put(center, tree);
+                long limit = maxBytes / treeBytes;
+                Iterator<Map.Entry<Integer, int[]>> eldest = trees.entrySet().iterator();
+                while (trees.size() > limit) {
+                    eldest.next();
+                    eldest.remove();
+                    evictions++;
+                }
+            }
+        }
+        return tree;
+    }
+
+    private static int[] walk(int[] tree, int root, int goal){
+        if (tree[goal] < 0) {
+            return new int[0];
+        }
+        return CompactGraph.buildPath(tree, root, goal);
+    }
+
+    /**
+     * Retrieves the number of queries answered from a cached tree.
+     *
+     * @return The hit count.
+     */
+    public synchronized long getHits(){
+        return hits;
+    }
+
+    /**
+     * Retrieves the number of queries neither of whose endpoints had a cached tree.
+     *
+     * @return The miss count.
+     */
+    public synchronized long getMisses(){
+        return misses;
+    }
+
+    /**
+     * Retrieves the number of trees evicted to stay within the byte budget.
+     *
+     * @return The eviction count.
+     */
+    public synchronized long getEvictions(){
+        return evictions;
+    }
+
+    /**
+     * Retrieves the number of cached trees.
+     *
+     * @return The number of trees.
+     */
+    public synchronized int size(){
+        return trees.size();
+    }
+
+    /**
+     * Retrieves the approximate memory held by cached trees.
+     *
+     * @return The number of bytes.
+     */
+    public synchronized long getBytes(){
+        return trees.size() * treeBytes;
+    }
+
+    /**
+     * Summarises the counters on one line.
+     *
+     * @return The counters as text.
+     */
+    public synchronized String stats(){
+        return String.format("Tree cache: %d hits, %d misses, %d evictions, %d trees (%d bytes)",
+                hits, misses, evictions, trees.size(), trees.size() * treeBytes);
+    }
+}
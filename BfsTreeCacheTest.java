@@ -0,0 +1,53 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BfsTreeCacheTest {
+
+    private CompactGraph graph() {
+        String[] names = {"A", "B", "C", "D", "E"};
+        String[] titles = {"M1", "M2", "M3", "M4"};
+        int[] creditActor = {0, 1, 1, 2, 2, 3, 4};
+        int[] creditTitle = {0, 0, 1, 1, 2, 2, 3};
+        return CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, 7));
+    }
+
+    @Test
+    void testAdmissionAndHits() {
+        CompactGraph graph = graph();
+        BidirectionalSearch search = new BidirectionalSearch(graph);
+        BfsTreeCache cache = new BfsTreeCache(graph, 1 << 20, 2);
+
+        assertArrayEquals(new int[] {0, 1, 2, 3}, cache.findPath(0, 3, search));
+        assertEquals(0, cache.size());
+        assertArrayEquals(new int[] {0, 1, 2}, cache.findPath(0, 2, search));
+        assertEquals(1, cache.size());
+        assertArrayEquals(new int[] {0, 1}, cache.findPath(0, 1, search));
+        assertArrayEquals(new int[] {3, 2, 1, 0}, cache.findPath(3, 0, search));
+        assertEquals(0, cache.findPath(0, 4, search).length);
+        assertEquals(3, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testEviction() {
+        CompactGraph graph = graph();
+        BidirectionalSearch search = new BidirectionalSearch(graph);
+        long oneTree = 16 + 4 * graph.getOrder();
+        BfsTreeCache cache = new BfsTreeCache(graph, 2 * oneTree, 1);
+
+        cache.findPath(0, 4, search);
+        cache.findPath(1, 4, search);
+        cache.findPath(0, 3, search);
+        cache.findPath(2, 4, search);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2 * oneTree, cache.getBytes());
+
+        cache.findPath(0, 4, search);
+        assertEquals(2, cache.getHits());
+        cache.findPath(1, 4, search);
+        assertEquals(2, cache.getHits());
+    }
+}
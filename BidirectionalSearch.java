@@ -0,0 +1,266 @@
+import java.util.Arrays;
+
+public class BidirectionalSearch {
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] forwardParent;
+    private final int[] backwardParent;
+    private final int[] forwardSeen;
+    private final int[] backwardSeen;
+    private int[] forwardFrontier;
+    private int[] backwardFrontier;
+    private int[] nextFrontier;
+    private int nextSize;
+    private long[] mask;
+    private int epoch;
+    private int scanned;
+    private int dequeued;
+    private int peakFrontier;
+    private long queries;
+
+    /**
+     * The `BidirectionalSearch` class finds shortest paths in a CSR graph by growing a
+     * BFS from both endpoints, always expanding the side whose frontier is smaller, and
+     * stopping as soon as the two searches meet. Its visited and parent arrays are
+     * stamped with a per-query epoch so they never need to be cleared between queries.
+     * An instance holds scratch state and must only be used by one thread at a time.
+     *
+     * @param offsets The start of each vertex's neighbour run; length is order + 1.
+     * @param targets The neighbour IDs of every vertex, back to back.
+     */
+    public BidirectionalSearch(int[] offsets, int[] targets){
+        int order = offsets.length - 1;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.forwardParent = new int[order];
+        this.backwardParent = new int[order];
+        this.forwardSeen = new int[order];
+        this.backwardSeen = new int[order];
+        this.forwardFrontier = new int[order];
+        this.backwardFrontier = new int[order];
+        this.nextFrontier = new int[order];
+        this.epoch = 0;
+    }
+
+    /**
+     * Creates a search over a compiled co-star graph.
+     *
+     * @param graph The graph to search.
+     */
+    public BidirectionalSearch(CompactGraph graph){
+        this(graph.getOffsets(), graph.getTargets());
+    }
+
+    /**
+     * Retrieves the number of adjacency entries scanned by the last query.
+     *
+     * @return The number of edges scanned.
+     */
+    public int getScanned(){
+        return scanned;
+    }
+
+    /**
+     * Retrieves the number of frontier vertices expanded by the last query.
+     *
+     * @return The number of vertices dequeued.
+     */
+    public int getDequeued(){
+        return dequeued;
+    }
+
+    /**
+     * Retrieves the largest frontier, on either side, of the last query.
+     *
+     * @return The peak frontier size.
+     */
+    public int getPeakFrontier(){
+        return peakFrontier;
+    }
+
+    /**
+     * Retrieves the number of queries this search has answered.
+     *
+     * @return The number of calls to findPath.
+     */
+    public long getQueries(){
+        return queries;
+    }
+
+    /**
+     * Finds a shortest path between two vertices.
+     *
+     * @param center The ID of the source vertex.
+     * @param goal   The ID of the destination vertex.
+     * @return The vertex IDs on the path from center to goal, or an empty array if there is none.
+     */
+    public int[] findPath(int center, int goal){
+        return findPath(center, goal, null);
+    }
+
+    /**
+     * Finds a shortest path between two vertices, using landmark distance bounds to
+     * skip the search entirely when the bounds agree, and otherwise to stop it one
+     * level before the upper bound: if the two sides have not met by then, the path
+     * through the landmark is a shortest one, and the largest level is never expanded.
+     *
+     * @param center The ID of the source vertex.
+     * @param goal   The ID of the destination vertex.
+     * @param oracle The landmark oracle for this graph, or null to search without bounds.
+     * @return The vertex IDs on the path from center to goal, or an empty array if there is none.
+     */
+    public int[] findPath(int center, int goal, LandmarkOracle oracle){
+        return findPath(center, goal, oracle, null);
+    }
+
+    /**
+     * Finds a shortest path between two vertices that only uses the edges an edge
+     * mask allows. Landmark bounds hold for the whole graph, not the masked one, so
+     * they are only used without a mask.
+     *
+     * @param center The ID of the source vertex.
+     * @param goal   The ID of the destination vertex.
+     * @param oracle The landmark oracle for this graph, or null to search without bounds.
+     * @param filter The edge mask to search within, or null to use every edge.
+     * @return The vertex IDs on the path from center to goal, or an empty array if there is none.
+     */
+    public int[] findPath(int center, int goal, LandmarkOracle oracle, EdgeMask filter){
+        nextEpoch();
+        queries++;
+        scanned = 0;
+        dequeued = 0;
+        peakFrontier = 1;
+        if (center == goal) {
+            return new int[] {center};
+        }
+        mask = filter != null ? filter.getBits() : null;
+        if (mask != null) {
+            oracle = null;
+        }
+        int bound = oracle != null ? oracle.upperBound(center, goal) : -1;
+        if (bound >= 0 && oracle.lowerBound(center, goal) == bound) {
+            return oracle.pathVia(center, goal);
+        }
+
+        forwardSeen[center] = epoch;
+        forwardParent[center] = center;
+        backwardSeen[goal] = epoch;
+        backwardParent[goal] = goal;
+        forwardFrontier[0] = center;
+        backwardFrontier[0] = goal;
+        int forwardSize = 1;
+        int backwardSize = 1;
+        int forwardDepth = 0;
+        int backwardDepth = 0;
+
+        while (forwardSize > 0 && backwardSize > 0) {
+            if (bound >= 0 && forwardDepth + backwardDepth + 1 >= bound) {
+                // Every path shorter than the bound would have met by now, so the landmark path is a shortest one.
+                return oracle.pathVia(center, goal);
+            }
+            int meet;
+            if (forwardSize <= backwardSize) {
+                meet = expand(forwardFrontier, forwardSize, forwardSeen, forwardParent, backwardSeen);
+                forwardDepth++;
+                int[] swap = forwardFrontier;
+                forwardFrontier = nextFrontier;
+                nextFrontier = swap;
+                forwardSize = nextSize;
+            }
+            else {
+                meet = expand(backwardFrontier, backwardSize, backwardSeen, backwardParent, forwardSeen);
+                backwardDepth++;
+                int[] swap = backwardFrontier;
+                backwardFrontier = nextFrontier;
+                nextFrontier = swap;
+                backwardSize = nextSize;
+            }
+            peakFrontier = Math.max(peakFrontier, nextSize);
+            if (meet >= 0) {
+                return joinPath(center, goal, meet);
+            }
+        }
+        return new int[0];
+    }
+
+    /**
+     * Expands one BFS level of one side into nextFrontier.
+     *
+     * @param frontier  The vertices of the current level.
+     * @param size      The number of vertices in the current level.
+     * @param seen      The epoch stamps of this side.
+     * @param parent    The parent array of this side.
+     * @param otherSeen The epoch stamps of the opposite side.
+     * @return The first vertex reached by both sides, or -1 if the sides did not meet.
+     */
+    private int expand(int[] frontier, int size, int[] seen, int[] parent, int[] otherSeen){
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            int v = frontier[i];
+            int end = offsets[v + 1];
+            dequeued++;
+            for (int e = offsets[v]; e < end; e++) {
+                int w = targets[e];
+                if (seen[w] != epoch && (mask == null || (mask[e >>> 6] & 1L << e) != 0)) {
+                    seen[w] = epoch;
+                    parent[w] = v;
+                    if (otherSeen[w] == epoch) {
+                        scanned += e - offsets[v] + 1;
+                        nextSize = next;
+                        return w;
+                    }
+                    nextFrontier[next++] = w;
+                }
+            }
+            scanned += end - offsets[v];
+        }
+        nextSize = next;
+        return -1;
+    }
+
+    /**
+     * Joins the forward half of the path, from center to the meeting vertex, with the
+     * backward half, from the meeting vertex to goal.
+     *
+     * @param center The ID of the source vertex.
+     * @param goal   The ID of the destination vertex.
+     * @param meet   The vertex reached by both sides.
+     * @return The vertex IDs on the path from center to goal.
+     */
+    private int[] joinPath(int center, int goal, int meet){
+        int front = 1;
+        for (int v = meet; v != center; v = forwardParent[v]) {
+            front++;
+        }
+        int back = 0;
+        for (int v = meet; v != goal; v = backwardParent[v]) {
+            back++;
+        }
+
+        int[] path = new int[front + back];
+        int v = meet;
+        for (int i = front - 1; i >= 0; i--) {
+            path[i] = v;
+            v = forwardParent[v];
+        }
+        v = meet;
+        for (int i = front; i < path.length; i++) {
+            v = backwardParent[v];
+            path[i] = v;
+        }
+        return path;
+    }
+
+    /**
+     * Advances the query epoch, clearing the stamp arrays only when the counter wraps.
+     */
+    private void nextEpoch(){
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(forwardSeen, 0);
+            Arrays.fill(backwardSeen, 0);
+            epoch = 1;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.Random;
+
+public class BidirectionalSearchTest {
+
+    private CompactGraph randomGraph(int order, int edges, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph();
+        for (int i = 0; i < order; i++) {
+            graph.addVertex(new Vertex("" + i));
+        }
+        for (int i = 0; i < edges; i++) {
+            graph.addEdge(graph.getVertex(random.nextInt(order)), graph.getVertex(random.nextInt(order)), "M" + i);
+        }
+        return graph.compile();
+    }
+
+    @Test
+    void testFindPath() {
+        Graph graph = new Graph();
+        for (String name : new String[] {"A", "B", "C", "D", "E"}) {
+            graph.addVertex(new Vertex(name));
+        }
+        graph.addEdge(graph.getVertex(0), graph.getVertex(1), "AB");
+        graph.addEdge(graph.getVertex(1), graph.getVertex(2), "BC");
+        graph.addEdge(graph.getVertex(2), graph.getVertex(3), "CD");
+        BidirectionalSearch search = new BidirectionalSearch(graph.compile());
+
+        assertArrayEquals(new int[] {0, 1, 2, 3}, search.findPath(0, 3));
+        assertArrayEquals(new int[] {3, 2, 1, 0}, search.findPath(3, 0));
+        assertArrayEquals(new int[] {0, 1}, search.findPath(0, 1));
+        assertArrayEquals(new int[] {2}, search.findPath(2, 2));
+        assertEquals(0, search.findPath(0, 4).length);
+    }
+
+    @Test
+    void testMatchesBfsLength() {
+        CompactGraph graph = randomGraph(300, 400, 7);
+        BidirectionalSearch search = new BidirectionalSearch(graph);
+        for (int s = 0; s < 300; s += 7) {
+            for (int t = 0; t < 300; t += 11) {
+                int[] expected = graph.findPath(s, t);
+                int[] path = search.findPath(s, t);
+                assertEquals(expected.length, path.length);
+                for (int i = 0; i + 1 < path.length; i++) {
+                    assertNotNull(graph.edgeLabel(path[i], path[i + 1]));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+import java.util.Arrays;
+
+public class BipartiteGraph {
+
+    private final StringDictionary actors;
+    private final StringDictionary titles;
+    private final int actorCount;
+    private final int[] offsets;
+    private final int[] targets;
+
+    /**
+     * The `BipartiteGraph` class stores the actor-title credit graph directly instead of
+     * expanding every title into a clique over its cast. Actors have IDs 0 to
+     * getActorCount() - 1 and titles follow them, so title t has ID getActorCount() + t.
+     * Adjacency is kept in CSR form: an actor's neighbours are its titles and a title's
+     * neighbours are its cast, which needs one entry per credit in each direction.
+     * Names and titles are kept in string dictionaries.
+     *
+     * @param actors  The name of each actor, indexed by actor ID.
+     * @param titles  The name of each title, indexed by title number.
+     * @param offsets The start of each vertex's neighbour run; length is actors + titles + 1.
+     * @param targets The neighbour IDs of every vertex, back to back.
+     */
+    public BipartiteGraph(String[] actors, String[] titles, int[] offsets, int[] targets){
+        this(new StringDictionary(actors), new StringDictionary(titles), offsets, targets);
+    }
+
+    /**
+     * Creates a bipartite graph whose actor and title names are dictionary handles.
+     *
+     * @param actors  The actor names; handles are actor IDs.
+     * @param titles  The title names; handles are title numbers.
+     * @param offsets The start of each vertex's neighbour run; length is actors + titles + 1.
+     * @param targets The neighbour IDs of every vertex, back to back.
+     */
+    public BipartiteGraph(StringDictionary actors, StringDictionary titles, int[] offsets, int[] targets){
+        if (offsets.length != actors.size() + titles.size() + 1) {
+            throw new IllegalArgumentException("CSR arrays do not match the vertex tables.");
+        }
+        this.actors = actors;
+        this.titles = titles;
+        this.actorCount = actors.size();
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Builds a bipartite graph from a list of credits. Credit i says that actor
+     * creditActor[i] appears in title creditTitle[i]; repeated credits are dropped.
+     *
+     * @param actors      The name of each actor, indexed by actor ID.
+     * @param titles      The name of each title, indexed by title number.
+     * @param creditActor The actor ID of each credit.
+     * @param creditTitle The title number of each credit.
+     * @param credits     The number of credits to read from the two credit arrays.
+     * @return The bipartite graph.
+     */
+    public static BipartiteGraph fromCredits(String[] actors, String[] titles, int[] creditActor, int[] creditTitle, int credits){
+        return fromCredits(new StringDictionary(actors), new StringDictionary(titles), creditActor, creditTitle, credits);
+    }
+
+    /**
+     * Builds a bipartite graph from a loaded credit table.
+     *
+     * @param credits The loaded credits.
+     * @return The bipartite graph.
+     */
+    public static BipartiteGraph fromCredits(CreditTable credits){
+        return fromCredits(credits.getNameDictionary(), credits.getTitleDictionary(),
+                credits.getCreditActor(), credits.getCreditTitle(), credits.size());
+    }
+
+    /**
+     * Builds a bipartite graph from a list of credits over name and title dictionaries.
+     *
+     * @param actors      The actor names; handles are actor IDs.
+     * @param titles      The title names; handles are title numbers.
+     * @param creditActor The actor ID of each credit.
+     * @param creditTitle The title number of each credit.
+     * @param credits     The number of credits to read from the two credit arrays.
+     * @return The bipartite graph.
+     */
+    public static BipartiteGraph fromCredits(StringDictionary actors, StringDictionary titles, int[] creditActor, int[] creditTitle, int credits){
+        int actorCount = actors.size();
+        int order = actorCount + titles.size();
+
+        // Group credits by actor so duplicates can be dropped with a stamp array.
+        int[] actorStart = new int[actorCount + 1];
+        for (int i = 0; i < credits; i++) {
+            actorStart[creditActor[i] + 1]++;
+        }
+        for (int a = 0; a < actorCount; a++) {
+            actorStart[a + 1] += actorStart[a];
+        }
+        int[] byActor = new int[credits];
+        int[] fill = Arrays.copyOf(actorStart, actorCount);
+        for (int i = 0; i < credits; i++) {
+            byActor[fill[creditActor[i]]++] = creditTitle[i];
+        }
+
+        int[] stamp = new int[titles.size()];
+        Arrays.fill(stamp, -1);
+        int[] degree = new int[order];
+        int unique = 0;
+        int begin = 0;
+        for (int a = 0; a < actorCount; a++) {
+            int end = actorStart[a + 1];
+            for (int i = begin; i < end; i++) {
+                int t = byActor[i];
+                if (stamp[t] != a) {
+                    stamp[t] = a;
+                    byActor[unique++] = t;
+                    degree[a]++;
+                    degree[actorCount + t]++;
+                }
+            }
+            begin = end;
+            actorStart[a + 1] = unique;
+        }
+
+        int[] offsets = new int[order + 1];
+        for (int v = 0; v < order; v++) {
+            offsets[v + 1] = offsets[v] + degree[v];
+        }
+        int[] targets = new int[offsets[order]];
+        int[] next = Arrays.copyOf(offsets, order);
+        int i = 0;
+        for (int a = 0; a < actorCount; a++) {
+            for (; i < actorStart[a + 1]; i++) {
+                int title = actorCount + byActor[i];
+                targets[next[a]++] = title;
+                targets[next[title]++] = a;
+            }
+        }
+        return new BipartiteGraph(actors, titles, offsets, targets);
+    }
+
+    /**
+     * Retrieves the actor names, whose handles are the actor vertex IDs.
+     *
+     * @return The actor dictionary.
+     */
+    public StringDictionary getActorDictionary(){
+        return actors;
+    }
+
+    /**
+     * Retrieves the number of actor vertices.
+     *
+     * @return The number of actors.
+     */
+    public int getActorCount(){
+        return actorCount;
+    }
+
+    /**
+     * Retrieves the number of title vertices.
+     *
+     * @return The number of titles.
+     */
+    public int getTitleCount(){
+        return titles.size();
+    }
+
+    /**
+     * Retrieves the number of vertices in the graph, actors and titles together.
+     *
+     * @return The order of the graph.
+     */
+    public int getOrder(){
+        return actorCount + titles.size();
+    }
+
+    /**
+     * Retrieves the number of distinct credits, which is the number of edges.
+     *
+     * @return The size of the graph.
+     */
+    public int getSize(){
+        return targets.length / 2;
+    }
+
+    /**
+     * Looks up the ID of the actor with a given name.
+     *
+     * @param name The name of the actor.
+     * @return The ID of the actor, or -1 if there is no such actor.
+     */
+    public int vertexId(String name){
+        return actors.find(name);
+    }
+
+    /**
+     * Looks up the vertex ID of the title with a given name.
+     *
+     * @param title The name of the title.
+     * @return The vertex ID of the title, or -1 if there is no such title.
+     */
+    public int titleId(String title){
+        int id = titles.find(title);
+        return id < 0 ? -1 : actorCount + id;
+    }
+
+    /**
+     * Checks whether a vertex ID belongs to a title.
+     *
+     * @param id The vertex ID.
+     * @return True if the vertex is a title, false if it is an actor.
+     */
+    public boolean isTitle(int id){
+        return id >= actorCount;
+    }
+
+    /**
+     * Retrieves the name of the actor or title with a given vertex ID.
+     *
+     * @param id The vertex ID.
+     * @return The name of the actor or title.
+     */
+    public String nameOf(int id){
+        if (id < actorCount) {
+            return actors.get(id);
+        }
+        return titles.get(id - actorCount);
+    }
+
+    /**
+     * Retrieves the number of neighbours of a vertex.
+     *
+     * @param v The vertex ID.
+     * @return The number of titles of an actor, or the cast size of a title.
+     */
+    public int degree(int v){
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * Retrieves the offsets array. Callers must not modify it.
+     *
+     * @return The start of each vertex's neighbour run.
+     */
+    public int[] getOffsets(){
+        return offsets;
+    }
+
+    /**
+     * Retrieves the targets array. Callers must not modify it.
+     *
+     * @return The neighbour IDs of every vertex.
+     */
+    public int[] getTargets(){
+        return targets;
+    }
+
+    /**
+     * Finds a shortest path between two actors. Every actor hop goes through one title,
+     * so the result alternates actor, title, actor and has 2 * hops + 1 entries.
+     *
+     * @param center The ID of the source actor.
+     * @param goal   The ID of the destination actor.
+     * @return The vertex IDs on the path from center to goal, or an empty array if there is none.
+     */
+    public int[] findPath(int center, int goal){
+        int order = getOrder();
+        int[] parent = new int[order];
+        Arrays.fill(parent, -1);
+        int[] queue = new int[order];
+        int head = 0;
+        int tail = 0;
+
+        parent[center] = center;
+        queue[tail++] = center;
+        while (head < tail) {
+            int v = queue[head++];
+            if (v == goal) {
+                return CompactGraph.buildPath(parent, center, goal);
+            }
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int w = targets[i];
+                if (parent[w] == -1) {
+                    parent[w] = v;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return new int[0];
+    }
+}
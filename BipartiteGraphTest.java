@@ -0,0 +1,40 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BipartiteGraphTest {
+
+    private BipartiteGraph graph() {
+        String[] actors = {"A", "B", "C", "D"};
+        String[] titles = {"M1", "M2", "M3"};
+        int[] creditActor = {0, 1, 1, 2, 0, 3};
+        int[] creditTitle = {0, 0, 1, 1, 0, 2};
+        return BipartiteGraph.fromCredits(actors, titles, creditActor, creditTitle, creditActor.length);
+    }
+
+    @Test
+    void testFromCredits() {
+        BipartiteGraph graph = graph();
+        assertEquals(4, graph.getActorCount());
+        assertEquals(3, graph.getTitleCount());
+        assertEquals(7, graph.getOrder());
+        assertEquals(5, graph.getSize());
+        assertEquals(1, graph.degree(graph.vertexId("A")));
+        assertEquals(2, graph.degree(graph.titleId("M1")));
+        assertTrue(graph.isTitle(graph.titleId("M3")));
+        assertFalse(graph.isTitle(graph.vertexId("D")));
+        assertEquals("M2", graph.nameOf(graph.titleId("M2")));
+    }
+
+    @Test
+    void testFindPath() {
+        BipartiteGraph graph = graph();
+        int[] path = graph.findPath(graph.vertexId("A"), graph.vertexId("C"));
+        int[] expected = {graph.vertexId("A"), graph.titleId("M1"), graph.vertexId("B"), graph.titleId("M2"), graph.vertexId("C")};
+        assertArrayEquals(expected, path);
+        assertEquals(0, graph.findPath(graph.vertexId("A"), graph.vertexId("D")).length);
+    }
+}
@@ -0,0 +1,138 @@
+import java.util.Arrays;
+
+public class CenterReport {
+
+    private final CompactGraph graph;
+    private final int[] sources;
+    private final long[] distanceSums;
+    private final int[] reached;
+    private final int[] eccentricity;
+
+    /**
+     * The `CenterReport` class holds the all-distances statistics of a set of source
+     * actors, as gathered by `MultiSourceBfs`, and ranks them as candidate centers.
+     * Sources are ranked by Wasserman-Faust closeness, ((r - 1) / (n - 1)) * ((r - 1) / d),
+     * where r is the number of actors the source reaches (itself included), n is the
+     * order of the graph and d is the sum of distances. This is the reciprocal of the
+     * average distance, scaled down for sources outside the giant component.
+     *
+     * @param graph        The graph that was searched.
+     * @param sources      The vertex ID of each source.
+     * @param distanceSums The sum of distances from each source to every actor it reaches.
+     * @param reached      The number of actors each source reaches, itself included.
+     * @param eccentricity The largest distance from each source to an actor it reaches.
+     */
+    public CenterReport(CompactGraph graph, int[] sources, long[] distanceSums, int[] reached, int[] eccentricity){
+        this.graph = graph;
+        this.sources = sources;
+        this.distanceSums = distanceSums;
+        this.reached = reached;
+        this.eccentricity = eccentricity;
+    }
+
+    /**
+     * Retrieves the number of sources in the report.
+     *
+     * @return The number of sources.
+     */
+    public int size(){
+        return sources.length;
+    }
+
+    /**
+     * Retrieves the vertex ID of a source.
+     *
+     * @param i The index of the source.
+     * @return The vertex ID.
+     */
+    public int source(int i){
+        return sources[i];
+    }
+
+    /**
+     * Retrieves the number of actors a source reaches, itself included.
+     *
+     * @param i The index of the source.
+     * @return The number of reachable actors.
+     */
+    public int reached(int i){
+        return reached[i];
+    }
+
+    /**
+     * Retrieves the largest distance from a source to an actor it reaches.
+     *
+     * @param i The index of the source.
+     * @return The eccentricity within the source's component.
+     */
+    public int eccentricity(int i){
+        return eccentricity[i];
+    }
+
+    /**
+     * Retrieves the average distance from a source to the other actors it reaches.
+     *
+     * @param i The index of the source.
+     * @return The average distance, or 0 if the source reaches nobody else.
+     */
+    public double averageDistance(int i){
+        if (reached[i] <= 1) {
+            return 0;
+        }
+        return (double) distanceSums[i] / (reached[i] - 1);
+    }
+
+    /**
+     * Retrieves the Wasserman-Faust closeness of a source.
+     *
+     * @param i The index of the source.
+     * @return The closeness, between 0 and 1.
+     */
+    public double closeness(int i){
+        int order = graph.getOrder();
+        if (reached[i] <= 1 || order <= 1) {
+            return 0;
+        }
+        double others = reached[i] - 1;
+        return (others / (order - 1)) * (others / distanceSums[i]);
+    }
+
+    /**
+     * Ranks the sources from best to worst center.
+     *
+     * @return Source indexes, highest closeness first.
+     */
+    public int[] ranked(){
+        Integer[] order = new Integer[sources.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> closeness(a) != closeness(b)
+                ? Double.compare(closeness(b), closeness(a))
+                : Integer.compare(sources[a], sources[b]));
+        int[] ranked = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ranked[i] = order[i];
+        }
+        return ranked;
+    }
+
+    /**
+     * Formats the best centers as a table.
+     *
+     * @param limit The number of centers to list.
+     * @return The report text.
+     */
+    public String report(int limit){
+        StringBuilder text = new StringBuilder();
+        text.append("Rank\tActor\tReached\tAverage\tEccentricity\tCloseness").append(System.lineSeparator());
+        int[] ranked = ranked();
+        for (int r = 0; r < Math.min(limit, ranked.length); r++) {
+            int i = ranked[r];
+            text.append(r + 1).append('\t').append(graph.nameOf(sources[i])).append('\t').append(reached[i]).append('\t');
+            text.append(String.format("%.4f\t%d\t%.6f", averageDistance(i), eccentricity[i], closeness(i)));
+            text.append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+}
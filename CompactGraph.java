@@ -0,0 +1,760 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class CompactGraph implements CostarGraph {
+
+    private final StringDictionary names;
+    private final StringDictionary labels;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] edgeLabelIds;
+    private final int[] edgeTitleOffsets;
+    private final int[] edgeTitleIds;
+    private volatile ComponentIndex components;
+    private volatile LandmarkOracle landmarks;
+    private volatile PrunedLandmarkLabels distanceLabels;
+    private volatile NameIndex nameIndex;
+    private volatile TitleAttributes titleAttributes;
+
+    /**
+     * The `CompactGraph` class is a frozen, compressed sparse row (CSR) copy of an
+     * undirected graph. The neighbours of vertex v are targets[offsets[v]] up to
+     * targets[offsets[v + 1] - 1], and edgeLabelIds holds the label of each of those
+     * entries as an index into the label table (or -1 for an unlabelled edge).
+     * Names and labels are kept in string dictionaries, so the graph holds int
+     * handles rather than `String` objects.
+     *
+     * A pair of actors is adjacent once however many titles they share. The label of
+     * an entry is one of those titles; a graph may also carry a side table with all of
+     * them, as a sorted run of label IDs per entry, stored back to back like the
+     * neighbour runs. With the side table the label of an entry is the first of its
+     * run, so edgeLabelIds is not kept at all.
+     *
+     * @param names        The name of each vertex, indexed by vertex ID.
+     * @param labels       The table of distinct edge labels.
+     * @param offsets      The start of each vertex's neighbour run; length is order + 1.
+     * @param targets      The neighbour IDs of every vertex, back to back.
+     * @param edgeLabelIds The label ID of every entry in targets.
+     */
+    public CompactGraph(String[] names, String[] labels, int[] offsets, int[] targets, int[] edgeLabelIds){
+        this(new StringDictionary(names), new StringDictionary(labels), offsets, targets, edgeLabelIds);
+    }
+
+    /**
+     * Creates a graph whose vertex names and edge labels are dictionary handles.
+     *
+     * @param names        The vertex names; handles are vertex IDs.
+     * @param labels       The distinct edge labels; handles are label IDs.
+     * @param offsets      The start of each vertex's neighbour run; length is order + 1.
+     * @param targets      The neighbour IDs of every vertex, back to back.
+     * @param edgeLabelIds The label ID of every entry in targets.
+     */
+    public CompactGraph(StringDictionary names, StringDictionary labels, int[] offsets, int[] targets, int[] edgeLabelIds){
+        this(names, labels, offsets, targets, edgeLabelIds, null, null);
+    }
+
+    /**
+     * Creates a graph that also knows every label shared by each adjacent pair.
+     * Exactly one of edgeLabelIds and the side table is given.
+     *
+     * @param names            The vertex names; handles are vertex IDs.
+     * @param labels           The distinct edge labels; handles are label IDs.
+     * @param offsets          The start of each vertex's neighbour run; length is order + 1.
+     * @param targets          The neighbour IDs of every vertex, back to back.
+     * @param edgeLabelIds     The label ID of every entry in targets, or null with the side table.
+     * @param edgeTitleOffsets The start of each entry's label run; length is entries + 1, or null.
+     * @param edgeTitleIds     The sorted label IDs of every entry, back to back, or null.
+     */
+    public CompactGraph(StringDictionary names, StringDictionary labels, int[] offsets, int[] targets, int[] edgeLabelIds,
+            int[] edgeTitleOffsets, int[] edgeTitleIds){
+        if (offsets.length != names.size() + 1 || edgeLabelIds != null && targets.length != edgeLabelIds.length) {
+            throw new IllegalArgumentException("CSR arrays do not match the vertex table.");
+        }
+        if ((edgeTitleOffsets == null) != (edgeTitleIds == null) || (edgeTitleOffsets == null) == (edgeLabelIds == null)
+                || edgeTitleOffsets != null && (edgeTitleOffsets.length != targets.length + 1 || edgeTitleOffsets[targets.length] != edgeTitleIds.length)) {
+            throw new IllegalArgumentException("Edge title runs do not match the CSR arrays.");
+        }
+        this.names = names;
+        this.labels = labels;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.edgeLabelIds = edgeLabelIds;
+        this.edgeTitleOffsets = edgeTitleOffsets;
+        this.edgeTitleIds = edgeTitleIds;
+    }
+
+    /**
+     * Compiles a `Graph` into CSR form. Vertex IDs are kept as they are in the graph,
+     * repeated adjacency entries are dropped, and the side table holds every label of
+     * `Vertex.getEdges`; the first of them in label ID order is the edge's label.
+     *
+     * @param graph The graph to compile.
+     * @return The compiled graph.
+     */
+    public static CompactGraph compile(Graph graph){
+        int order = graph.getOrder();
+        String[] names = new String[order];
+        int[] offsets = new int[order + 1];
+        int[] stamp = new int[order];
+        Arrays.fill(stamp, -1);
+
+        int entries = 0;
+        for (int v = 0; v < order; v++) {
+            Vertex vertex = graph.getVertex(v);
+            names[v] = vertex.getName();
+            for (Vertex neighbor : vertex.getAdjacents()) {
+                int w = graph.vertexId(neighbor.getName());
+                if (w >= 0 && w != v && stamp[w] != v) {
+                    stamp[w] = v;
+                    entries++;
+                }
+            }
+            offsets[v + 1] = entries;
+        }
+
+        int[] targets = new int[entries];
+        int[] edgeTitleOffsets = new int[entries + 1];
+        int[] edgeTitleIds = new int[Math.max(16, entries)];
+        StringDictionary labels = new StringDictionary();
+        Arrays.fill(stamp, -1);
+
+        int next = 0;
+        int titleCount = 0;
+        for (int v = 0; v < order; v++) {
+            Vertex vertex = graph.getVertex(v);
+            for (Vertex neighbor : vertex.getAdjacents()) {
+                int w = graph.vertexId(neighbor.getName());
+                if (w >= 0 && w != v && stamp[w] != v) {
+                    stamp[w] = v;
+                    targets[next] = w;
+                    int start = titleCount;
+                    for (String title : vertex.getEdges(neighbor.getName())) {
+                        if (title != null) {
+                            if (titleCount == edgeTitleIds.length) {
+                                edgeTitleIds = Arrays.copyOf(edgeTitleIds, titleCount * 2);
+                            }
+                            edgeTitleIds[titleCount++] = labels.intern(title);
+                        }
+                    }
+                    Arrays.sort(edgeTitleIds, start, titleCount);
+                    next++;
+                    edgeTitleOffsets[next] = titleCount;
+                }
+            }
+        }
+
+        labels.trim();
+        return new CompactGraph(new StringDictionary(names), labels, offsets, targets, null,
+                edgeTitleOffsets, Arrays.copyOf(edgeTitleIds, titleCount));
+    }
+
+    /**
+     * Builds the co-star graph for a credit table directly in CSR form, without going
+     * through `Graph` and `Vertex`. Two actors are adjacent if they share a title, and
+     * the edge is labelled with the shared title of lowest ID, which is the one listed
+     * first in the credits. Label IDs are the title IDs of the credit table.
+     *
+     * @param credits The credits to build from.
+     * @return The compiled graph.
+     */
+    public static CompactGraph fromCredits(CreditTable credits){
+        return fromCredits(credits, null);
+    }
+
+    /**
+     * Builds the co-star graph for a credit table, timing the index phase (grouping
+     * credits by title and by actor) and the edge build phase.
+     *
+     * @param credits The credits to build from.
+     * @param metrics Where to record the phase timings, or null.
+     * @return The compiled graph.
+     */
+    public static CompactGraph fromCredits(CreditTable credits, Metrics metrics){
+        long start = System.nanoTime();
+        StringDictionary names = credits.getNameDictionary();
+        StringDictionary titles = credits.getTitleDictionary();
+        int[] creditActor = credits.getCreditActor();
+        int[] creditTitle = credits.getCreditTitle();
+        int size = credits.size();
+        int order = names.size();
+
+        int[] castStart = groupStarts(creditTitle, size, titles.size());
+        int[] cast = groupValues(creditTitle, creditActor, size, castStart);
+        int[] filmStart = groupStarts(creditActor, size, order);
+        int[] films = groupValues(creditActor, creditTitle, size, filmStart);
+        if (metrics != null) {
+            metrics.time(Metrics.INDEX, start);
+            start = System.nanoTime();
+        }
+
+        int[] stamp = new int[order];
+        Arrays.fill(stamp, -1);
+        int[] slot = new int[order];
+        int[] offsets = new int[order + 1];
+        // A first guess at the entry count; the arrays grow if it is short.
+        int[] targets = new int[(int) Math.min(Integer.MAX_VALUE - 8L, Math.max(16, size * 4L))];
+        int[] edgeTitleOffsets = new int[targets.length + 1];
+        int[] edgeTitleIds = new int[targets.length];
+        int next = 0;
+        int titleCount = 0;
+        for (int a = 0; a < order; a++) {
+            int first = next;
+            // First pass: one entry per new co-star, counting the shared titles of each entry.
+            for (int f = filmStart[a]; f < filmStart[a + 1]; f++) {
+                int title = films[f];
+                for (int c = castStart[title]; c < castStart[title + 1]; c++) {
+                    int coActor = cast[c];
+                    if (coActor == a) {
+                        continue;
+                    }
+                    if (stamp[coActor] != a) {
+                        stamp[coActor] = a;
+                        if (next == targets.length) {
+                            int grown = (int) Math.min(Integer.MAX_VALUE - 8L, targets.length * 2L);
+                            if (grown == targets.length) {
+                                throw new IllegalStateException("Co-star graph has too many edges; use the bipartite mode.");
+                            }
+                            targets = Arrays.copyOf(targets, grown);
+                            edgeTitleOffsets = Arrays.copyOf(edgeTitleOffsets, grown + 1);
+                        }
+                        slot[coActor] = next;
+                        targets[next] = coActor;
+                        edgeTitleOffsets[next + 1] = 0;
+                        next++;
+                    }
+                    edgeTitleOffsets[slot[coActor] + 1]++;
+                }
+            }
+            // Second pass: scatter the titles into each entry's run, then sort the runs and drop repeats.
+            int runStart = titleCount;
+            long runEnd = titleCount;
+            for (int e = first; e < next; e++) {
+                int count = edgeTitleOffsets[e + 1];
+                edgeTitleOffsets[e + 1] = (int) runEnd;
+                runEnd += count;
+            }
+            if (runEnd > Integer.MAX_VALUE - 8L) {
+                throw new IllegalStateException("Co-star graph shares too many titles; use the bipartite mode.");
+            }
+            titleCount = (int) runEnd;
+            if (titleCount > edgeTitleIds.length) {
+                edgeTitleIds = Arrays.copyOf(edgeTitleIds, (int) Math.min(Integer.MAX_VALUE - 8L, Math.max(titleCount, edgeTitleIds.length * 2L)));
+            }
+            for (int f = filmStart[a]; f < filmStart[a + 1]; f++) {
+                int title = films[f];
+                for (int c = castStart[title]; c < castStart[title + 1]; c++) {
+                    int coActor = cast[c];
+                    if (coActor != a) {
+                        edgeTitleIds[edgeTitleOffsets[slot[coActor] + 1]++] = title;
+                    }
+                }
+            }
+            int write = runStart;
+            for (int e = first; e < next; e++) {
+                int from = edgeTitleOffsets[e];
+                int to = edgeTitleOffsets[e + 1];
+                Arrays.sort(edgeTitleIds, from, to);
+                edgeTitleOffsets[e] = write;
+                for (int i = from; i < to; i++) {
+                    if (i == from || edgeTitleIds[i] != edgeTitleIds[i - 1]) {
+                        edgeTitleIds[write++] = edgeTitleIds[i];
+                    }
+                }
+            }
+            titleCount = write;
+            edgeTitleOffsets[next] = titleCount;
+            offsets[a + 1] = next;
+        }
+        CompactGraph graph = new CompactGraph(names, titles, offsets, Arrays.copyOf(targets, next), null,
+                Arrays.copyOf(edgeTitleOffsets, next + 1), Arrays.copyOf(edgeTitleIds, titleCount));
+        if (metrics != null) {
+            metrics.time(Metrics.EDGES, start);
+            start = System.nanoTime();
+        }
+        graph.setComponents(ComponentIndex.fromCredits(credits));
+        if (metrics != null) {
+            metrics.time(Metrics.COMPONENTS, start);
+        }
+        return graph;
+    }
+
+    /**
+     * Counts the entries of each group and turns the counts into start offsets.
+     *
+     * @param keys   The group of each entry.
+     * @param size   The number of entries.
+     * @param groups The number of groups.
+     * @return The start of each group; length is groups + 1.
+     */
+    static int[] groupStarts(int[] keys, int size, int groups){
+        int[] starts = new int[groups + 1];
+        for (int i = 0; i < size; i++) {
+            starts[keys[i] + 1]++;
+        }
+        for (int g = 0; g < groups; g++) {
+            starts[g + 1] += starts[g];
+        }
+        return starts;
+    }
+
+    /**
+     * Scatters values into their groups, keeping the original order within each group.
+     *
+     * @param keys   The group of each entry.
+     * @param values The value of each entry.
+     * @param size   The number of entries.
+     * @param starts The start of each group, from groupStarts.
+     * @return The values ordered by group.
+     */
+    static int[] groupValues(int[] keys, int[] values, int size, int[] starts){
+        int[] grouped = new int[size];
+        int[] next = Arrays.copyOf(starts, starts.length - 1);
+        for (int i = 0; i < size; i++) {
+            grouped[next[keys[i]]++] = values[i];
+        }
+        return grouped;
+    }
+
+    /**
+     * Retrieves the number of vertices in the graph.
+     *
+     * @return The order of the graph.
+     */
+    public int getOrder(){
+        return offsets.length - 1;
+    }
+
+    /**
+     * Retrieves the number of undirected edges in the graph.
+     *
+     * @return The size of the graph.
+     */
+    public int getSize(){
+        return targets.length / 2;
+    }
+
+    /**
+     * Looks up the ID of the vertex with a given name.
+     *
+     * @param name The name of the vertex.
+     * @return The ID of the vertex, or -1 if no vertex has that name.
+     */
+    public int vertexId(String name){
+        return names.find(name);
+    }
+
+    /**
+     * Retrieves the name of the vertex with a given ID.
+     *
+     * @param id The ID of the vertex.
+     * @return The name of the vertex.
+     */
+    public String nameOf(int id){
+        return names.get(id);
+    }
+
+    /**
+     * Retrieves the number of neighbours of a vertex.
+     *
+     * @param v The ID of the vertex.
+     * @return The degree of the vertex.
+     */
+    public int degree(int v){
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * Retrieves one neighbour of a vertex.
+     *
+     * @param v The ID of the vertex.
+     * @param i The position of the neighbour, from 0 to degree(v) - 1.
+     * @return The ID of the neighbour.
+     */
+    public int neighbor(int v, int i){
+        return targets[offsets[v] + i];
+    }
+
+    /**
+     * Retrieves the label with a given label ID.
+     *
+     * @param labelId The ID of the label.
+     * @return The label, or null for -1.
+     */
+    public String labelOf(int labelId){
+        if (labelId < 0) {
+            return null;
+        }
+        return labels.get(labelId);
+    }
+
+    /**
+     * Retrieves the label of the edge between two vertices.
+     *
+     * @param v The ID of the first vertex.
+     * @param w The ID of the second vertex.
+     * @return The label of the edge, or null if there is no such edge.
+     */
+    public String edgeLabel(int v, int w){
+        int e = edgeIndex(v, w);
+        return e < 0 ? null : labelOf(edgeLabelId(e));
+    }
+
+    /**
+     * Retrieves the label of an adjacency entry: the first of its run when the graph
+     * has the side table, otherwise the one stored for it.
+     *
+     * @param e The index of the entry in targets.
+     * @return The label ID, or -1 for an unlabelled entry.
+     */
+    public int edgeLabelId(int e){
+        if (edgeTitleOffsets == null) {
+            return edgeLabelIds[e];
+        }
+        return edgeTitleOffsets[e] < edgeTitleOffsets[e + 1] ? edgeTitleIds[edgeTitleOffsets[e]] : -1;
+    }
+
+    /**
+     * Finds the adjacency entry from one vertex to another.
+     *
+     * @param v The ID of the first vertex.
+     * @param w The ID of the second vertex.
+     * @return The index of the entry in targets, or -1 if the vertices are not adjacent.
+     */
+    public int edgeIndex(int v, int w){
+        for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+            if (targets[i] == w) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves every label shared by two adjacent vertices, in label ID order. A graph
+     * without the side table only knows the one label of each edge.
+     *
+     * @param v The ID of the first vertex.
+     * @param w The ID of the second vertex.
+     * @return The labels, or an empty list if the vertices are not adjacent.
+     */
+    public List<String> edgeLabels(int v, int w){
+        int e = edgeIndex(v, w);
+        List<String> shared = new ArrayList<>();
+        if (e < 0) {
+            return shared;
+        }
+        if (edgeTitleOffsets == null) {
+            if (edgeLabelIds[e] >= 0) {
+                shared.add(labelOf(edgeLabelIds[e]));
+            }
+            return shared;
+        }
+        for (int i = edgeTitleOffsets[e]; i < edgeTitleOffsets[e + 1]; i++) {
+            shared.add(labelOf(edgeTitleIds[i]));
+        }
+        return shared;
+    }
+
+    /**
+     * Describes every label shared by two adjacent vertices on one line.
+     *
+     * @param v The ID of the first vertex.
+     * @param w The ID of the second vertex.
+     * @return The labels joined by " / ", or null if the vertices share none.
+     */
+    public String sharedLabels(int v, int w){
+        List<String> shared = edgeLabels(v, w);
+        return shared.isEmpty() ? null : String.join(" / ", shared);
+    }
+
+    /**
+     * Tells whether the graph has the side table of every shared label.
+     *
+     * @return True if each entry's full label run is known.
+     */
+    public boolean hasEdgeTitles(){
+        return edgeTitleOffsets != null;
+    }
+
+    /**
+     * Retrieves the start of each entry's label run. Callers must not modify it.
+     *
+     * @return The run offsets, length entries + 1, or null without the side table.
+     */
+    public int[] getEdgeTitleOffsets(){
+        return edgeTitleOffsets;
+    }
+
+    /**
+     * Retrieves the label runs of every entry. Callers must not modify it.
+     *
+     * @return The sorted label IDs, back to back, or null without the side table.
+     */
+    public int[] getEdgeTitleIds(){
+        return edgeTitleIds;
+    }
+
+    /**
+     * Retrieves the connected components of the graph, finding them on first use if
+     * they were not found while the graph was built.
+     *
+     * @return The component index.
+     */
+    public ComponentIndex getComponents(){
+        ComponentIndex index = components;
+        if (index == null) {
+            index = ComponentIndex.of(this);
+            components = index;
+        }
+        return index;
+    }
+
+    /**
+     * Installs a component index that was computed alongside the graph.
+     *
+     * @param index The component index of this graph.
+     */
+    void setComponents(ComponentIndex index){
+        components = index;
+    }
+
+    /**
+     * Takes over the derived indexes of an earlier version of this graph that an
+     * update left valid, so they are not built again.
+     *
+     * @param previous  The graph before the update.
+     * @param distances True if no vertex or edge was added, so landmarks and distance labels still hold.
+     * @param names     True if no vertex was added, so the name index still holds.
+     * @param titles    True if no title was added, so the title attributes still hold.
+     */
+    void inheritIndexes(CompactGraph previous, boolean distances, boolean names, boolean titles){
+        if (distances) {
+            landmarks = previous.landmarks;
+            distanceLabels = previous.distanceLabels;
+        }
+        if (names) {
+            nameIndex = previous.nameIndex;
+        }
+        if (titles) {
+            titleAttributes = previous.titleAttributes;
+        }
+    }
+
+    /**
+     * Retrieves the landmark oracle installed on this graph, which searches use to
+     * bound and prune their work.
+     *
+     * @return The oracle, or null if none was built.
+     */
+    public LandmarkOracle getLandmarks(){
+        return landmarks;
+    }
+
+    /**
+     * Installs a landmark oracle built over this graph.
+     *
+     * @param oracle The oracle, or null to search without landmark bounds.
+     */
+    public void setLandmarks(LandmarkOracle oracle){
+        landmarks = oracle;
+    }
+
+    /**
+     * Retrieves the exact distance labels installed on this graph, which path queries
+     * use instead of searching.
+     *
+     * @return The labels, or null if none were built or loaded.
+     */
+    public PrunedLandmarkLabels getDistanceLabels(){
+        return distanceLabels;
+    }
+
+    /**
+     * Installs distance labels built over this graph.
+     *
+     * @param labels The labels, or null to search without them.
+     */
+    public void setDistanceLabels(PrunedLandmarkLabels labels){
+        distanceLabels = labels;
+    }
+
+    /**
+     * Retrieves the fuzzy name index of the graph's actors, building it on the common
+     * pool on first use if it was not built while the graph was loaded.
+     *
+     * @return The name index.
+     */
+    public NameIndex getNameIndex(){
+        NameIndex index = nameIndex;
+        if (index == null) {
+            index = NameIndex.build(names, ForkJoinPool.commonPool());
+            nameIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Installs a name index that was built alongside the graph.
+     *
+     * @param index The name index over this graph's names.
+     */
+    void setNameIndex(NameIndex index){
+        nameIndex = index;
+    }
+
+    /**
+     * Finds the actor a typed name most likely means, allowing for a different case,
+     * missing accents or a missing disambiguation such as " (I)".
+     *
+     * @param name The name as typed.
+     * @return The vertex ID, or -1 if the name does not match any actor closely enough.
+     */
+    public int resolveVertex(String name){
+        int id = vertexId(name);
+        return id >= 0 ? id : getNameIndex().resolve(name, this::degree);
+    }
+
+    /**
+     * Retrieves the year and TV attributes of the edge labels, parsing them from the
+     * titles on first use.
+     *
+     * @return The title attributes, by label ID.
+     */
+    public TitleAttributes getTitleAttributes(){
+        TitleAttributes attributes = titleAttributes;
+        if (attributes == null) {
+            attributes = TitleAttributes.parse(labels);
+            titleAttributes = attributes;
+        }
+        return attributes;
+    }
+
+    /**
+     * Replaces the title attributes, such as with TV flags taken from a movie list.
+     *
+     * @param attributes The attributes, by label ID.
+     */
+    public void setTitleAttributes(TitleAttributes attributes){
+        titleAttributes = attributes;
+    }
+
+    /**
+     * Retrieves the offsets array. Callers must not modify it.
+     *
+     * @return The start of each vertex's neighbour run.
+     */
+    public int[] getOffsets(){
+        return offsets;
+    }
+
+    /**
+     * Retrieves the targets array. Callers must not modify it.
+     *
+     * @return The neighbour IDs of every vertex.
+     */
+    public int[] getTargets(){
+        return targets;
+    }
+
+    /**
+     * Retrieves the edge label ID array of a graph without the side table. Callers
+     * must not modify it.
+     *
+     * @return The label ID of every entry in targets, or null if the side table holds the labels.
+     */
+    public int[] getEdgeLabelIds(){
+        return edgeLabelIds;
+    }
+
+    /**
+     * Decodes the table of vertex names.
+     *
+     * @return The name of each vertex, indexed by vertex ID.
+     */
+    public String[] getNames(){
+        return names.toArray();
+    }
+
+    /**
+     * Decodes the table of edge labels.
+     *
+     * @return The distinct edge labels, indexed by label ID.
+     */
+    public String[] getLabels(){
+        return labels.toArray();
+    }
+
+    /**
+     * Retrieves the vertex name dictionary.
+     *
+     * @return The vertex names; handles are vertex IDs.
+     */
+    public StringDictionary getNameDictionary(){
+        return names;
+    }
+
+    /**
+     * Retrieves the edge label dictionary.
+     *
+     * @return The edge labels; handles are label IDs.
+     */
+    public StringDictionary getLabelDictionary(){
+        return labels;
+    }
+
+    /**
+     * Finds a shortest path between two vertices using BFS over the CSR arrays.
+     *
+     * @param center The ID of the source vertex.
+     * @param goal   The ID of the destination vertex.
+     * @return The vertex IDs on the path from center to goal, or an empty array if there is none.
+     */
+    public int[] findPath(int center, int goal){
+        int[] parent = new int[getOrder()];
+        Arrays.fill(parent, -1);
+        int[] queue = new int[getOrder()];
+        int head = 0;
+        int tail = 0;
+
+        parent[center] = center;
+        queue[tail++] = center;
+        while (head < tail) {
+            int v = queue[head++];
+            if (v == goal) {
+                return buildPath(parent, center, goal);
+            }
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int w = targets[i];
+                if (parent[w] == -1) {
+                    parent[w] = v;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return new int[0];
+    }
+
+    /**
+     * Constructs a path from the source to the destination by walking a parent array.
+     *
+     * @param parent The parent of each reached vertex; the source is its own parent.
+     * @param center The ID of the source vertex.
+     * @param goal   The ID of the destination vertex.
+     * @return The vertex IDs on the path from center to goal.
+     */
+    static int[] buildPath(int[] parent, int center, int goal){
+        int length = 1;
+        for (int v = goal; v != center; v = parent[v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int v = goal;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = v;
+            v = parent[v];
+        }
+        return path;
+    }
+}
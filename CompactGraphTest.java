@@ -0,0 +1,83 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+public class CompactGraphTest {
+
+    private Graph line() {
+        Graph graph = new Graph();
+        Vertex a = new Vertex("A");
+        Vertex b = new Vertex("B");
+        Vertex c = new Vertex("C");
+        Vertex d = new Vertex("D");
+        graph.addVertex(a);
+        graph.addVertex(b);
+        graph.addVertex(c);
+        graph.addVertex(d);
+        graph.addEdge(a, b, "AB");
+        graph.addEdge(a, b, "AB2");
+        graph.addEdge(b, c, "BC");
+        return graph;
+    }
+
+    @Test
+    void testCompile() {
+        CompactGraph compact = line().compile();
+        assertEquals(4, compact.getOrder());
+        assertEquals(2, compact.getSize());
+        assertEquals(1, compact.degree(0));
+        assertEquals(2, compact.degree(1));
+        assertEquals(0, compact.degree(3));
+        assertEquals("AB", compact.edgeLabel(0, 1));
+        assertEquals("AB", compact.edgeLabel(1, 0));
+        assertEquals("BC", compact.edgeLabel(2, 1));
+        assertNull(compact.edgeLabel(0, 2));
+        assertEquals("C", compact.nameOf(compact.vertexId("C")));
+    }
+
+    @Test
+    void testSharedTitles() {
+        CompactGraph compact = line().compile();
+        assertEquals(List.of("AB", "AB2"), compact.edgeLabels(0, 1));
+        assertEquals("AB / AB2", compact.sharedLabels(1, 0));
+        assertEquals("BC", compact.sharedLabels(1, 2));
+        assertNull(compact.sharedLabels(0, 3));
+
+        String[] names = {"A", "B", "C"};
+        String[] titles = {"M1", "M2", "M3"};
+        // A and B share M2 and M1, with A credited twice for M1.
+        int[] creditActor = {0, 1, 0, 1, 0, 2};
+        int[] creditTitle = {1, 1, 0, 0, 0, 2};
+        CompactGraph built = CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, 6));
+        assertEquals(1, built.getSize());
+        // The label of an edge is the first of its run, the title listed first in the credits.
+        assertEquals("M1", built.edgeLabel(0, 1));
+        assertEquals("M1", built.edgeLabel(1, 0));
+        assertEquals(List.of("M1", "M2"), built.edgeLabels(0, 1));
+        assertEquals(List.of("M1", "M2"), built.edgeLabels(1, 0));
+        assertEquals(List.of(), built.edgeLabels(0, 2));
+        assertArrayEquals(new int[] {0, 2, 4}, built.getEdgeTitleOffsets());
+    }
+
+    @Test
+    void testCompileIsCached() {
+        Graph graph = line();
+        CompactGraph compact = graph.compile();
+        assertEquals(compact, graph.compile());
+        graph.addVertex(new Vertex("E"));
+        assertEquals(5, graph.compile().getOrder());
+    }
+
+    @Test
+    void testFindPath() {
+        CompactGraph compact = line().compile();
+        assertArrayEquals(new int[] {0, 1, 2}, compact.findPath(0, 2));
+        assertArrayEquals(new int[] {2, 1, 0}, compact.findPath(2, 0));
+        assertArrayEquals(new int[] {1}, compact.findPath(1, 1));
+        assertEquals(0, compact.findPath(0, 3).length);
+    }
+}
@@ -0,0 +1,233 @@
+import java.util.Arrays;
+
+public class ComponentIndex {
+
+    private final int[] component;
+    private final int[] sizes;
+
+    /**
+     * The `ComponentIndex` class stores the connected component of every vertex, so
+     * a query between two actors in different components can be answered "no path"
+     * straight away instead of after searching the whole reachable component.
+     * Components are numbered by decreasing size, so component 0 is the largest.
+     *
+     * @param roots The union-find root of each vertex.
+     */
+    private ComponentIndex(int[] roots){
+        int order = roots.length;
+        int[] rootSize = new int[order];
+        for (int v = 0; v < order; v++) {
+            rootSize[roots[v]]++;
+        }
+        int count = 0;
+        for (int v = 0; v < order; v++) {
+            if (rootSize[v] > 0) {
+                count++;
+            }
+        }
+        Integer[] byRoot = new Integer[count];
+        count = 0;
+        for (int v = 0; v < order; v++) {
+            if (rootSize[v] > 0) {
+                byRoot[count++] = v;
+            }
+        }
+        Arrays.sort(byRoot, (a, b) -> rootSize[a] != rootSize[b] ? Integer.compare(rootSize[b], rootSize[a]) : Integer.compare(a, b));
+
+        int[] label = new int[order];
+        this.sizes = new int[count];
+        for (int c = 0; c < count; c++) {
+            label[byRoot[c]] = c;
+            sizes[c] = rootSize[byRoot[c]];
+        }
+        this.component = new int[order];
+        for (int v = 0; v < order; v++) {
+            component[v] = label[roots[v]];
+        }
+    }
+
+    /**
+     * Finds the components of a co-star graph from its credits: every actor is joined
+     * with the first actor listed for each of their titles, which takes one union per
+     * credit instead of one per edge.
+     *
+     * @param credits The credits the graph is built from.
+     * @return The component index.
+     */
+    public static ComponentIndex fromCredits(CreditTable credits){
+        int[] parent = identity(credits.getNameDictionary().size());
+        int[] first = new int[credits.getTitleDictionary().size()];
+        Arrays.fill(first, -1);
+        int[] creditActor = credits.getCreditActor();
+        int[] creditTitle = credits.getCreditTitle();
+        for (int i = 0; i < credits.size(); i++) {
+            int title = creditTitle[i];
+            if (first[title] < 0) {
+                first[title] = creditActor[i];
+            }
+            else {
+                union(parent, first[title], creditActor[i]);
+            }
+        }
+        return new ComponentIndex(roots(parent));
+    }
+
+    /**
+     * Finds the components of a graph from its adjacency arrays.
+     *
+     * @param graph The graph.
+     * @return The component index.
+     */
+    public static ComponentIndex of(CompactGraph graph){
+        int order = graph.getOrder();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] parent = identity(order);
+        for (int v = 0; v < order; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                if (targets[e] > v) {
+                    union(parent, v, targets[e]);
+                }
+            }
+        }
+        return new ComponentIndex(roots(parent));
+    }
+
+    /**
+     * Extends an index with new vertices and edges, merging the components the new
+     * edges join. It costs one pass over the vertices plus one union per new edge.
+     *
+     * @param order The new number of vertices, at least the old one.
+     * @param from  One endpoint of each new edge.
+     * @param to    The other endpoint of each new edge.
+     * @param count The number of new edges.
+     * @return The extended index.
+     */
+    public ComponentIndex extend(int order, int[] from, int[] to, int count){
+        int[] parent = new int[order];
+        int[] representative = new int[sizes.length];
+        Arrays.fill(representative, -1);
+        for (int v = 0; v < order; v++) {
+            if (v < component.length) {
+                int c = component[v];
+                if (representative[c] < 0) {
+                    representative[c] = v;
+                }
+                parent[v] = representative[c];
+            }
+            else {
+                parent[v] = v;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            union(parent, from[i], to[i]);
+        }
+        return new ComponentIndex(roots(parent));
+    }
+
+    private static int[] identity(int order){
+        int[] parent = new int[order];
+        for (int v = 0; v < order; v++) {
+            parent[v] = v;
+        }
+        return parent;
+    }
+
+    private static int find(int[] parent, int v){
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    private static void union(int[] parent, int a, int b){
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            // Hang the higher-numbered root under the lower one so results do not depend on the edge order.
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    private static int[] roots(int[] parent){
+        for (int v = 0; v < parent.length; v++) {
+            parent[v] = find(parent, v);
+        }
+        return parent;
+    }
+
+    /**
+     * Retrieves the component of a vertex.
+     *
+     * @param v The vertex ID.
+     * @return The component number; 0 is the largest component.
+     */
+    public int component(int v){
+        return component[v];
+    }
+
+    /**
+     * Checks whether two vertices are in the same component, that is, whether any
+     * path joins them.
+     *
+     * @param a The first vertex ID.
+     * @param b The second vertex ID.
+     * @return True if a path exists.
+     */
+    public boolean connected(int a, int b){
+        return component[a] == component[b];
+    }
+
+    /**
+     * Retrieves the number of components, counting every isolated vertex as one.
+     *
+     * @return The number of components.
+     */
+    public int getCount(){
+        return sizes.length;
+    }
+
+    /**
+     * Retrieves the number of vertices in a component.
+     *
+     * @param c The component number.
+     * @return The component's size.
+     */
+    public int size(int c){
+        return sizes[c];
+    }
+
+    /**
+     * Retrieves the number of vertices with no neighbours.
+     *
+     * @return The number of isolated vertices.
+     */
+    public int getIsolated(){
+        int isolated = 0;
+        for (int c = sizes.length - 1; c >= 0 && sizes[c] == 1; c--) {
+            isolated++;
+        }
+        return isolated;
+    }
+
+    /**
+     * Formats the component statistics: the number of components, the largest ones
+     * and how much of the graph they cover.
+     *
+     * @param top The number of largest components to list.
+     * @return The report text.
+     */
+    public String report(int top){
+        StringBuilder text = new StringBuilder();
+        int order = component.length;
+        text.append(String.format("%d components over %d actors, %d of them isolated", sizes.length, order, getIsolated()));
+        text.append(System.lineSeparator());
+        text.append("Rank\tActors\tShare").append(System.lineSeparator());
+        for (int c = 0; c < Math.min(top, sizes.length); c++) {
+            text.append(c + 1).append('\t').append(sizes[c]).append('\t');
+            text.append(String.format("%.2f%%", 100.0 * sizes[c] / order)).append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+}
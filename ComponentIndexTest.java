@@ -0,0 +1,86 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+public class ComponentIndexTest {
+
+    private CreditTable credits() {
+        // Component {A, B, C} through M1 and M2, component {D, E} through M3, and F alone.
+        String[] names = {"A", "B", "C", "D", "E", "F"};
+        String[] titles = {"M1", "M2", "M3", "M4"};
+        int[] creditActor = {0, 1, 1, 2, 3, 4, 5};
+        int[] creditTitle = {0, 0, 1, 1, 2, 2, 3};
+        return new CreditTable(names, titles, creditActor, creditTitle, 7);
+    }
+
+    @Test
+    void testFromCredits() {
+        ComponentIndex index = ComponentIndex.fromCredits(credits());
+        assertEquals(3, index.getCount());
+        assertEquals(3, index.size(0));
+        assertEquals(2, index.size(1));
+        assertEquals(1, index.size(2));
+        assertEquals(1, index.getIsolated());
+        assertEquals(0, index.component(2));
+        assertEquals(1, index.component(4));
+        assertTrue(index.connected(0, 2));
+        assertFalse(index.connected(0, 3));
+        assertTrue(index.report(2).startsWith("3 components over 6 actors, 1 of them isolated"));
+    }
+
+    @Test
+    void testGraphShortcut() {
+        CompactGraph graph = CompactGraph.fromCredits(credits());
+        assertFalse(graph.getComponents().connected(0, 5));
+        BatchRunner runner = new BatchRunner(graph, "A", 1, false);
+        assertEquals("A\tE\tno_path\t-1\t", runner.answer("A\tE"));
+    }
+
+    @Test
+    void testMatchesAdjacency() {
+        Random random = new Random(16);
+        int actors = 300;
+        int[] creditActor = new int[200];
+        int[] creditTitle = new int[200];
+        String[] names = new String[actors];
+        String[] titles = new String[150];
+        for (int i = 0; i < actors; i++) {
+            names[i] = "A" + i;
+        }
+        for (int i = 0; i < titles.length; i++) {
+            titles[i] = "T" + i;
+        }
+        for (int i = 0; i < creditActor.length; i++) {
+            creditActor[i] = random.nextInt(actors);
+            creditTitle[i] = random.nextInt(titles.length);
+        }
+        CreditTable table = new CreditTable(names, titles, creditActor, creditTitle, creditActor.length);
+        CompactGraph graph = CompactGraph.fromCredits(table);
+        ComponentIndex fromCredits = graph.getComponents();
+        ComponentIndex fromGraph = ComponentIndex.of(graph);
+        assertEquals(fromGraph.getCount(), fromCredits.getCount());
+        for (int v = 0; v < actors; v++) {
+            assertEquals(fromGraph.component(v), fromCredits.component(v));
+        }
+
+        int[] from = {0, 5, 300, 301};
+        int[] to = {1, 300, 301, 7};
+        ComponentIndex extended = fromGraph.extend(302, from, to, 4);
+        assertTrue(extended.connected(0, 1));
+        assertTrue(extended.connected(5, 7));
+        assertTrue(extended.connected(300, 301));
+        assertEquals(300 + 2, sum(extended));
+    }
+
+    private int sum(ComponentIndex index) {
+        int total = 0;
+        for (int c = 0; c < index.getCount(); c++) {
+            total += index.size(c);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * The `CostarGraph` interface is the lookup and traversal API shared by the frozen
+ * forms of the co-star graph: `CompactGraph`, whose arrays live on the heap, and
+ * `OffHeapGraph`, whose arrays live in direct or file-mapped buffers. Vertices are
+ * dense int IDs from 0 to getOrder() - 1, and the neighbours of each vertex are
+ * numbered from 0 to degree(v) - 1.
+ */
+public interface CostarGraph {
+
+    /**
+     * Retrieves the number of vertices in the graph.
+     *
+     * @return The order of the graph.
+     */
+    int getOrder();
+
+    /**
+     * Retrieves the number of undirected edges in the graph.
+     *
+     * @return The size of the graph.
+     */
+    int getSize();
+
+    /**
+     * Looks up the ID of the vertex with a given name.
+     *
+     * @param name The name of the vertex.
+     * @return The ID of the vertex, or -1 if no vertex has that name.
+     */
+    int vertexId(String name);
+
+    /**
+     * Retrieves the name of the vertex with a given ID.
+     *
+     * @param id The ID of the vertex.
+     * @return The name of the vertex.
+     */
+    String nameOf(int id);
+
+    /**
+     * Retrieves the number of neighbours of a vertex.
+     *
+     * @param v The ID of the vertex.
+     * @return The degree of the vertex.
+     */
+    int degree(int v);
+
+    /**
+     * Retrieves one neighbour of a vertex.
+     *
+     * @param v The ID of the vertex.
+     * @param i The position of the neighbour, from 0 to degree(v) - 1.
+     * @return The ID of the neighbour.
+     */
+    int neighbor(int v, int i);
+
+    /**
+     * Retrieves the label of the edge between two vertices.
+     *
+     * @param v The ID of the first vertex.
+     * @param w The ID of the second vertex.
+     * @return The label of the edge, or null if there is no such edge.
+     */
+    String edgeLabel(int v, int w);
+
+    /**
+     * Finds a shortest path between two vertices.
+     *
+     * @param center The ID of the source vertex.
+     * @param goal   The ID of the destination vertex.
+     * @return The vertex IDs on the path from center to goal, or an empty array if there is none.
+     */
+    int[] findPath(int center, int goal);
+}
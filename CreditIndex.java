@@ -0,0 +1,499 @@
+import java.util.Arrays;
+
+public class CreditIndex {
+
+    private StringDictionary names;
+    private StringDictionary titles;
+    private int[][] casts;
+    private int[] castSizes;
+    private CompactGraph graph;
+    private int addedActors;
+    private int addedTitles;
+    private int addedCredits;
+    private int addedEdges;
+    private int[] touched;
+
+    /**
+     * The `CreditIndex` class keeps a co-star graph up to date as new credits arrive,
+     * without rebuilding it from the full credits file. It remembers the cast of every
+     * title, so a new credit "actor in title" only has to be checked against that
+     * title's cast: each cast-mate the actor is not yet adjacent to gets one new edge,
+     * labelled with the title. The new edges are then spliced into a copy of the CSR
+     * arrays, moving the untouched neighbour runs with bulk array copies, and the
+     * component index is extended by merging the components the new edges join. If
+     * the graph keeps every shared title per edge, each cast-mate pair also gets the
+     * title added to its run, whether or not the pair was adjacent before.
+     *
+     * A batch that brings new names or titles adds them to copies of the dictionaries,
+     * so a graph already handed out never sees its dictionaries change and can still
+     * be queried while later batches are applied. The new graph takes over the
+     * indexes of the old one that the batch leaves valid: the landmarks and distance
+     * labels if no actor or edge was added, the name index if no actor was, and the
+     * title attributes if no title was.
+     *
+     * Only finding the new edges is proportional to the batch, at one cast scan per
+     * new credit. Everything else in a batch that changes the graph costs O(V + E):
+     * the neighbour marks are sized to the whole graph, the CSR arrays and the title
+     * runs are copied in full, the dictionaries are copied when new strings arrive,
+     * and the component index is rebuilt over every vertex. Landmarks, distance labels
+     * and the tree cache are then rebuilt from scratch on the next query. Appending
+     * beats reparsing the credits file, but it is not a small-delta update.
+     *
+     * @param credits The credits the graph was built from.
+     * @param graph   The co-star graph built from credits by `CompactGraph.fromCredits`.
+     */
+    public CreditIndex(CreditTable credits, CompactGraph graph){
+        this.names = credits.getNameDictionary();
+        this.titles = credits.getTitleDictionary();
+        this.graph = graph;
+        this.touched = new int[0];
+
+        int titleCount = titles.size();
+        int[] creditActor = credits.getCreditActor();
+        int[] creditTitle = credits.getCreditTitle();
+        int[] castStart = CompactGraph.groupStarts(creditTitle, credits.size(), titleCount);
+        int[] cast = CompactGraph.groupValues(creditTitle, creditActor, credits.size(), castStart);
+        casts = new int[Math.max(16, titleCount)][];
+        castSizes = new int[casts.length];
+        for (int t = 0; t < titleCount; t++) {
+            casts[t] = Arrays.copyOfRange(cast, castStart[t], castStart[t + 1]);
+            castSizes[t] = casts[t].length;
+        }
+    }
+
+    /**
+     * Adds a batch of credits. Credits already in the index are ignored. A batch that
+     * adds anything costs O(V + E), as described on the class.
+     *
+     * @param delta The new credits, with their own name and title dictionaries.
+     * @return The updated graph, which is the previous graph itself if no actor, edge or shared title was added.
+     */
+    public CompactGraph apply(CreditTable delta){
+        int order = graph.getOrder();
+        int titleCount = titles.size();
+        names = writable(names, delta.getNameDictionary());
+        titles = writable(titles, delta.getTitleDictionary());
+        int[] nameMap = remap(delta.getNameDictionary(), names);
+        int[] titleMap = remap(delta.getTitleDictionary(), titles);
+        int newOrder = names.size();
+        addedActors = newOrder - order;
+        addedTitles = titles.size() - titleCount;
+        addedCredits = 0;
+        addedEdges = 0;
+        if (titles.size() > casts.length) {
+            int grown = Math.max(titles.size(), casts.length * 2);
+            casts = Arrays.copyOf(casts, grown);
+            castSizes = Arrays.copyOf(castSizes, grown);
+        }
+
+        int[] extra = new int[newOrder];
+        int[] mark = new int[newOrder];
+        EdgeList added = new EdgeList();
+        PairTitles shared = new PairTitles();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] creditActor = delta.getCreditActor();
+        int[] creditTitle = delta.getCreditTitle();
+        for (int i = 0; i < delta.size(); i++) {
+            int actor = nameMap[creditActor[i]];
+            int title = titleMap[creditTitle[i]];
+            if (inCast(title, actor)) {
+                continue;
+            }
+            // Mark the actor's current neighbours so each cast-mate is checked in constant time.
+            if (actor < order) {
+                for (int e = offsets[actor]; e < offsets[actor + 1]; e++) {
+                    mark[targets[e]] = i + 1;
+                }
+            }
+            for (int c = 0; c < castSizes[title]; c++) {
+                int coActor = casts[title][c];
+                if (coActor == actor) {
+                    continue;
+                }
+                if (mark[coActor] != i + 1 && !added.contains(actor, coActor)) {
+                    added.add(actor, coActor, title);
+                    added.add(coActor, actor, title);
+                    extra[actor]++;
+                    extra[coActor]++;
+                    addedEdges++;
+                }
+                shared.add(actor, coActor, title);
+                shared.add(coActor, actor, title);
+            }
+            addToCast(title, actor);
+            addedCredits++;
+        }
+
+        touched = touched(extra);
+        boolean titlesChanged = graph.hasEdgeTitles() && shared.size > 0;
+        if (addedActors == 0 && addedEdges == 0 && !titlesChanged) {
+            return graph;
+        }
+        CompactGraph previous = graph;
+        ComponentIndex components = graph.getComponents().extend(newOrder, added.from, added.to, added.size);
+        graph = splice(newOrder, extra, added, graph.hasEdgeTitles() ? shared : null);
+        graph.setComponents(components);
+        graph.inheritIndexes(previous, addedActors == 0 && addedEdges == 0, addedActors == 0, addedTitles == 0);
+        return graph;
+    }
+
+    /**
+     * Lists the vertices that gained neighbours.
+     */
+    private static int[] touched(int[] extra){
+        int count = 0;
+        for (int added : extra) {
+            if (added > 0) {
+                count++;
+            }
+        }
+        int[] touched = new int[count];
+        count = 0;
+        for (int v = 0; v < extra.length; v++) {
+            if (extra[v] > 0) {
+                touched[count++] = v;
+            }
+        }
+        return touched;
+    }
+
+    /**
+     * Builds the new CSR arrays: every old neighbour run followed by the vertex's new
+     * neighbours. Runs between two touched vertices only move by a fixed amount, so
+     * each such stretch is moved with a single array copy.
+     */
+    private CompactGraph splice(int newOrder, int[] extra, EdgeList added, PairTitles shared){
+        int order = graph.getOrder();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        // With the side table the labels come from the title runs, so only the runs are spliced.
+        int[] labels = graph.getEdgeLabelIds();
+
+        int[] newOffsets = new int[newOrder + 1];
+        for (int v = 0; v < newOrder; v++) {
+            int degree = v < order ? offsets[v + 1] - offsets[v] : 0;
+            newOffsets[v + 1] = newOffsets[v] + degree + extra[v];
+        }
+        int[] newTargets = new int[newOffsets[newOrder]];
+        int[] newLabels = labels == null ? null : new int[newTargets.length];
+
+        int copied = 0;
+        for (int v : touched) {
+            if (v >= order) {
+                break;
+            }
+            int end = offsets[v + 1];
+            System.arraycopy(targets, copied, newTargets, copied + newOffsets[v] - offsets[v], end - copied);
+            if (labels != null) {
+                System.arraycopy(labels, copied, newLabels, copied + newOffsets[v] - offsets[v], end - copied);
+            }
+            copied = end;
+        }
+        int shift = newOffsets[order] - offsets[order];
+        System.arraycopy(targets, copied, newTargets, copied + shift, targets.length - copied);
+        if (labels != null) {
+            System.arraycopy(labels, copied, newLabels, copied + shift, labels.length - copied);
+        }
+
+        // Each vertex's new neighbours go after its old run, in the order they were found.
+        for (int i = 0; i < added.size; i++) {
+            int v = added.from[i];
+            int at = newOffsets[v + 1] - extra[v]--;
+            newTargets[at] = added.to[i];
+            if (newLabels != null) {
+                newLabels[at] = added.label[i];
+            }
+        }
+        if (shared == null) {
+            return new CompactGraph(names, titles, newOffsets, newTargets, newLabels);
+        }
+        int[][] runs = spliceTitles(newOrder, newOffsets, newTargets, shared);
+        return new CompactGraph(names, titles, newOffsets, newTargets, null, runs[0], runs[1]);
+    }
+
+    /**
+     * Builds the new title runs: each entry's old run merged with the titles its pair
+     * gained in this batch. Vertices that gained nothing keep their runs as they are,
+     * only moved.
+     *
+     * @return The run offsets and the title IDs.
+     */
+    private int[][] spliceTitles(int newOrder, int[] newOffsets, int[] newTargets, PairTitles shared){
+        int order = graph.getOrder();
+        int[] offsets = graph.getOffsets();
+        int[] titleOffsets = graph.getEdgeTitleOffsets();
+        int[] titleIds = graph.getEdgeTitleIds();
+
+        // Group the batch's (neighbour, title) pairs by vertex, sorted, so each entry's new titles are one range.
+        int[] pairStart = new int[newOrder + 1];
+        for (int i = 0; i < shared.size; i++) {
+            pairStart[shared.from[i] + 1]++;
+        }
+        for (int v = 0; v < newOrder; v++) {
+            pairStart[v + 1] += pairStart[v];
+        }
+        long[] pairs = new long[shared.size];
+        int[] next = Arrays.copyOf(pairStart, newOrder);
+        for (int i = 0; i < shared.size; i++) {
+            pairs[next[shared.from[i]]++] = (long) shared.to[i] << 32 | shared.title[i];
+        }
+
+        int[] newTitleOffsets = new int[newTargets.length + 1];
+        int[] newTitleIds = new int[titleIds.length + shared.size];
+        int count = 0;
+        for (int v = 0; v < newOrder; v++) {
+            int oldStart = v < order ? offsets[v] : 0;
+            int oldDegree = v < order ? offsets[v + 1] - offsets[v] : 0;
+            if (pairStart[v] == pairStart[v + 1]) {
+                int from = oldDegree == 0 ? 0 : titleOffsets[oldStart];
+                int to = oldDegree == 0 ? 0 : titleOffsets[oldStart + oldDegree];
+                System.arraycopy(titleIds, from, newTitleIds, count, to - from);
+                for (int k = 0; k < oldDegree; k++) {
+                    newTitleOffsets[newOffsets[v] + k] = count + titleOffsets[oldStart + k] - from;
+                }
+                count += to - from;
+                continue;
+            }
+            Arrays.sort(pairs, pairStart[v], pairStart[v + 1]);
+            for (int e = newOffsets[v]; e < newOffsets[v + 1]; e++) {
+                newTitleOffsets[e] = count;
+                int k = e - newOffsets[v];
+                int i = k < oldDegree ? titleOffsets[oldStart + k] : 0;
+                int iEnd = k < oldDegree ? titleOffsets[oldStart + k + 1] : 0;
+                int j = firstPair(pairs, pairStart[v], pairStart[v + 1], newTargets[e]);
+                int jEnd = pairStart[v + 1];
+                long w = newTargets[e];
+                while (i < iEnd || j < jEnd && pairs[j] >>> 32 == w) {
+                    int title;
+                    if (j >= jEnd || pairs[j] >>> 32 != w || i < iEnd && titleIds[i] <= (int) pairs[j]) {
+                        title = titleIds[i++];
+                    }
+                    else {
+                        title = (int) pairs[j++];
+                    }
+                    if (count == newTitleOffsets[e] || newTitleIds[count - 1] != title) {
+                        newTitleIds[count++] = title;
+                    }
+                }
+            }
+        }
+        newTitleOffsets[newTargets.length] = count;
+        return new int[][] {newTitleOffsets, Arrays.copyOf(newTitleIds, count)};
+    }
+
+    /**
+     * Finds the first of a vertex's sorted (neighbour, title) pairs for a neighbour.
+     */
+    private static int firstPair(long[] pairs, int from, int to, int w){
+        long key = (long) w << 32;
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (pairs[mid] < key) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean inCast(int title, int actor){
+        for (int c = 0; c < castSizes[title]; c++) {
+            if (casts[title][c] == actor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addToCast(int title, int actor){
+        int[] cast = casts[title];
+        if (cast == null) {
+            cast = new int[4];
+        }
+        else if (castSizes[title] == cast.length) {
+            cast = Arrays.copyOf(cast, Math.max(4, cast.length * 2));
+        }
+        cast[castSizes[title]++] = actor;
+        casts[title] = cast;
+    }
+
+    /**
+     * Returns a dictionary the strings of a batch can be added to: the dictionary
+     * itself if it already holds all of them, otherwise a copy, since graphs built
+     * earlier share the dictionary and may still be read.
+     */
+    private static StringDictionary writable(StringDictionary global, StringDictionary local){
+        for (int id = 0; id < local.size(); id++) {
+            if (global.find(local, id) < 0) {
+                return global.copy();
+            }
+        }
+        return global;
+    }
+
+    private static int[] remap(StringDictionary local, StringDictionary global){
+        int[] map = new int[local.size()];
+        for (int id = 0; id < map.length; id++) {
+            map[id] = global.intern(local, id);
+        }
+        return map;
+    }
+
+    /**
+     * Retrieves the current graph.
+     *
+     * @return The graph with every credit applied so far.
+     */
+    public CompactGraph getGraph(){
+        return graph;
+    }
+
+    /**
+     * Retrieves the number of actors the last batch added.
+     *
+     * @return The number of new actors.
+     */
+    public int getAddedActors(){
+        return addedActors;
+    }
+
+    /**
+     * Retrieves the number of titles the last batch added.
+     *
+     * @return The number of new titles.
+     */
+    public int getAddedTitles(){
+        return addedTitles;
+    }
+
+    /**
+     * Retrieves the number of credits the last batch added, not counting ones already known.
+     *
+     * @return The number of new credits.
+     */
+    public int getAddedCredits(){
+        return addedCredits;
+    }
+
+    /**
+     * Retrieves the number of undirected co-star edges the last batch added.
+     *
+     * @return The number of new edges.
+     */
+    public int getAddedEdges(){
+        return addedEdges;
+    }
+
+    /**
+     * Retrieves the vertices that gained a neighbour in the last batch.
+     *
+     * @return The touched vertex IDs, in increasing order.
+     */
+    public int[] getTouched(){
+        return touched.clone();
+    }
+
+    /**
+     * Summarises the last batch on one line.
+     *
+     * @return The counters as text.
+     */
+    public String stats(){
+        return String.format("Appended %d credits: %d new actors, %d new titles, %d new edges, %d actors touched",
+                addedCredits, addedActors, addedTitles, addedEdges, touched.length);
+    }
+
+    /**
+     * Every (vertex, co-star, title) triple a batch adds, in both directions, whether
+     * or not the pair was adjacent before.
+     */
+    private static class PairTitles {
+        int[] from = new int[16];
+        int[] to = new int[16];
+        int[] title = new int[16];
+        int size;
+
+        void add(int v, int w, int t){
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+                title = Arrays.copyOf(title, size * 2);
+            }
+            from[size] = v;
+            to[size] = w;
+            title[size] = t;
+            size++;
+        }
+    }
+
+    /**
+     * The directed adjacency entries added by one batch, with a small hash index so
+     * adjacency checks within the batch stay constant time.
+     */
+    private static class EdgeList {
+        int[] from = new int[16];
+        int[] to = new int[16];
+        int[] label = new int[16];
+        int size;
+        long[] keys = new long[64];
+        int keyCount;
+
+        void add(int v, int w, int title){
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+                label = Arrays.copyOf(label, size * 2);
+            }
+            from[size] = v;
+            to[size] = w;
+            label[size] = title;
+            size++;
+            insert(key(v, w));
+        }
+
+        boolean contains(int v, int w){
+            long key = key(v, w);
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void insert(long key){
+            if ((keyCount + 1) * 2 > keys.length) {
+                long[] old = keys;
+                keys = new long[old.length * 2];
+                keyCount = 0;
+                for (long k : old) {
+                    if (k != 0) {
+                        insert(k);
+                    }
+                }
+            }
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            keyCount++;
+        }
+
+        private static long key(int v, int w){
+            return ((long) v << 32 | (w & 0xffffffffL)) + 1;
+        }
+
+        private static int slot(long key, int mask){
+            long mixed = key * 0x9e3779b97f4a7c15L;
+            return (int) (mixed ^ (mixed >>> 32)) & mask;
+        }
+    }
+}
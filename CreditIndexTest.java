@@ -0,0 +1,140 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class CreditIndexTest {
+
+    private CreditTable table(List<String[]> credits) {
+        StringDictionary names = new StringDictionary();
+        StringDictionary titles = new StringDictionary();
+        int[] creditActor = new int[credits.size()];
+        int[] creditTitle = new int[credits.size()];
+        for (int i = 0; i < credits.size(); i++) {
+            creditActor[i] = names.intern(credits.get(i)[0]);
+            creditTitle[i] = titles.intern(credits.get(i)[1]);
+        }
+        return new CreditTable(names, titles, creditActor, creditTitle, credits.size());
+    }
+
+    private List<String[]> credits(String... pairs) {
+        List<String[]> credits = new ArrayList<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            credits.add(new String[] {pairs[i], pairs[i + 1]});
+        }
+        return credits;
+    }
+
+    private int[] neighbours(CompactGraph graph, int v) {
+        int[] run = Arrays.copyOfRange(graph.getTargets(), graph.getOffsets()[v], graph.getOffsets()[v + 1]);
+        Arrays.sort(run);
+        return run;
+    }
+
+    @Test
+    void testApply() {
+        CreditTable base = table(credits("A", "M1", "B", "M1", "C", "M2"));
+        CompactGraph graph = CompactGraph.fromCredits(base);
+        CreditIndex index = new CreditIndex(base, graph);
+
+        CompactGraph updated = index.apply(table(credits("C", "M1", "D", "M2", "A", "M1")));
+        assertEquals(4, updated.getOrder());
+        assertEquals(1, index.getAddedActors());
+        assertEquals(0, index.getAddedTitles());
+        assertEquals(2, index.getAddedCredits());
+        assertEquals(3, index.getAddedEdges());
+        assertArrayEquals(new int[] {0, 1, 2, 3}, index.getTouched());
+        assertArrayEquals(new int[] {1, 2}, neighbours(updated, 0));
+        assertArrayEquals(new int[] {0, 1, 3}, neighbours(updated, 2));
+        assertEquals("M1", updated.edgeLabel(0, 2));
+        assertEquals("M2", updated.edgeLabel(3, 2));
+        assertEquals(2, new BidirectionalSearch(updated).findPath(0, 3).length - 1);
+
+        assertSame(updated, index.apply(table(credits("D", "M2"))));
+        assertEquals(0, index.getAddedEdges());
+    }
+
+    @Test
+    void testOldGraphUnchanged() {
+        CreditTable base = table(credits("A", "M1", "B", "M1", "C", "M2"));
+        CompactGraph graph = CompactGraph.fromCredits(base);
+        CreditIndex index = new CreditIndex(base, graph);
+
+        CompactGraph updated = index.apply(table(credits("E", "M3", "E", "M1")));
+        assertEquals(4, updated.getOrder());
+        assertEquals(3, updated.vertexId("E"));
+        // The graph handed out before the batch keeps its own dictionaries.
+        assertEquals(3, graph.getOrder());
+        assertEquals(-1, graph.vertexId("E"));
+        assertEquals(3, graph.getNameDictionary().size());
+        assertEquals(-1, graph.getLabelDictionary().find("M3"));
+        assertEquals(3, base.getNameDictionary().size());
+    }
+
+    @Test
+    void testKeepsValidIndexes() {
+        CreditTable base = table(credits("A", "M1", "B", "M1", "A", "M2", "C", "M3", "B", "M3"));
+        CompactGraph graph = CompactGraph.fromCredits(base);
+        LandmarkOracle oracle = LandmarkOracle.build(graph, 2, false);
+        graph.setLandmarks(oracle);
+        NameIndex names = graph.getNameIndex();
+        TitleAttributes attributes = graph.getTitleAttributes();
+        CreditIndex index = new CreditIndex(base, graph);
+
+        // A title two co-stars already share changes no distance.
+        CompactGraph retitled = index.apply(table(credits("B", "M2")));
+        assertNotSame(graph, retitled);
+        assertEquals(0, index.getAddedEdges());
+        assertSame(oracle, retitled.getLandmarks());
+        assertSame(names, retitled.getNameIndex());
+        assertSame(attributes, retitled.getTitleAttributes());
+
+        // A new actor on a new title drops what depends on distances, names and titles.
+        CompactGraph grown = index.apply(table(credits("D", "M4", "D", "M1")));
+        assertNull(grown.getLandmarks());
+        assertNotSame(names, grown.getNameIndex());
+        assertNotSame(attributes, grown.getTitleAttributes());
+        assertEquals(3, grown.getNameIndex().resolve("D", grown::degree));
+    }
+
+    @Test
+    void testMatchesRebuild() {
+        Random random = new Random(15);
+        List<String[]> all = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            all.add(new String[] {"A" + random.nextInt(150), "T" + random.nextInt(120)});
+        }
+        CreditTable base = table(all.subList(0, 400));
+        CreditIndex index = new CreditIndex(base, CompactGraph.fromCredits(base));
+        index.apply(table(all.subList(400, 500)));
+        CompactGraph updated = index.apply(table(all.subList(500, 600)));
+        CompactGraph rebuilt = CompactGraph.fromCredits(table(all));
+
+        assertEquals(rebuilt.getOrder(), updated.getOrder());
+        assertEquals(rebuilt.getSize(), updated.getSize());
+        for (int v = 0; v < rebuilt.getOrder(); v++) {
+            assertEquals(rebuilt.nameOf(v), updated.nameOf(v));
+            assertArrayEquals(neighbours(rebuilt, v), neighbours(updated, v));
+            for (int e = updated.getOffsets()[v]; e < updated.getOffsets()[v + 1]; e++) {
+                String title = updated.labelOf(updated.edgeLabelId(e));
+                assertTrue(all.stream().anyMatch(c -> c[1].equals(title)));
+                int w = updated.getTargets()[e];
+                List<String> shared = new ArrayList<>(updated.edgeLabels(v, w));
+                List<String> expected = new ArrayList<>(rebuilt.edgeLabels(v, w));
+                Collections.sort(shared);
+                Collections.sort(expected);
+                assertEquals(expected, shared);
+            }
+        }
+    }
+}
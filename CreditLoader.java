@@ -0,0 +1,302 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class CreditLoader {
+
+    private static final long MIN_CHUNK = 1 << 20;
+    private static final long MAX_CHUNK = 1 << 30;
+
+    private final int threads;
+    private final long chunkSize;
+
+    /**
+     * The `CreditLoader` class reads a tab-separated "actor, title" credits file by
+     * memory-mapping it, cutting it into chunks on line boundaries and parsing the
+     * chunks in parallel straight from UTF-8 bytes into per-chunk interned IDs. The
+     * chunk results are then merged, in file order, into one `CreditTable`.
+     *
+     * @param threads The number of parser threads to use.
+     */
+    public CreditLoader(int threads){
+        this(threads, 0);
+    }
+
+    /**
+     * Creates a loader with a fixed chunk size instead of one derived from the file size.
+     *
+     * @param threads   The number of parser threads to use.
+     * @param chunkSize The approximate chunk size in bytes, or 0 to pick one per file.
+     */
+    CreditLoader(int threads, long chunkSize){
+        this.threads = Math.max(1, threads);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates a loader that uses one parser thread per available core.
+     */
+    public CreditLoader(){
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Loads a credits file.
+     *
+     * @param file The file to load.
+     * @return The parsed credits.
+     * @throws IOException If the file cannot be read.
+     */
+    public CreditTable load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            // With one thread, parse on the calling thread so its allocation counters see all the work.
+            ExecutorService pool = threads == 1 ? null : Executors.newFixedThreadPool(Math.min(threads, bounds.length - 1));
+            try {
+                List<Future<Chunk>> futures = new ArrayList<>();
+                List<Chunk> chunks = new ArrayList<>();
+                for (int i = 0; i + 1 < bounds.length; i++) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]);
+                    if (pool == null) {
+                        chunks.add(new Parser(buffer).call());
+                    }
+                    else {
+                        futures.add(pool.submit(new Parser(buffer)));
+                    }
+                }
+                for (Future<Chunk> future : futures) {
+                    chunks.add(future.get());
+                }
+                return merge(chunks, pool);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while loading " + file, e);
+            }
+            catch (ExecutionException e) {
+                throw new IOException("Could not parse " + file, e.getCause());
+            }
+            finally {
+                if (pool != null) {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits the file into chunks that each end just after a newline (or at the end
+     * of the file).
+     *
+     * @param channel The open file.
+     * @return The chunk boundaries; chunk i covers bounds[i] up to bounds[i + 1].
+     * @throws IOException If the file cannot be read.
+     */
+    private long[] chunkBounds(FileChannel channel) throws IOException {
+        long length = channel.size();
+        long target = chunkSize;
+        if (target <= 0) {
+            target = Math.max(MIN_CHUNK, Math.min(MAX_CHUNK, length / (threads * 4L) + 1));
+        }
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(1 << 16);
+        long position = 0;
+        while (length - position > target) {
+            long cut = position + target;
+            long found = -1;
+            while (found < 0 && cut < length) {
+                probe.clear();
+                int read = channel.read(probe, cut);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        found = cut + i + 1;
+                        break;
+                    }
+                }
+                cut += read;
+            }
+            if (found < 0 || found >= length) {
+                break;
+            }
+            if (found - position > Integer.MAX_VALUE) {
+                throw new IOException("Line too long near byte " + position);
+            }
+            bounds.add(found);
+            position = found;
+        }
+        bounds.add(length);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Merges the per-chunk dictionaries into global ones and rewrites every chunk's
+     * credits with global IDs. IDs are handed out in order of first appearance in the file.
+     *
+     * @param chunks The parsed chunks, in file order.
+     * @param pool   The pool used to rewrite the chunks in parallel, or null to rewrite them on this thread.
+     * @return The merged credits.
+     */
+    private CreditTable merge(List<Chunk> chunks, ExecutorService pool) throws InterruptedException, ExecutionException {
+        StringDictionary names = new StringDictionary();
+        StringDictionary titles = new StringDictionary();
+        int total = 0;
+        int[] starts = new int[chunks.size()];
+        List<int[]> nameMaps = new ArrayList<>();
+        List<int[]> titleMaps = new ArrayList<>();
+        for (int c = 0; c < chunks.size(); c++) {
+            Chunk chunk = chunks.get(c);
+            nameMaps.add(remap(chunk.nameDict, names));
+            titleMaps.add(remap(chunk.titleDict, titles));
+            starts[c] = total;
+            total += chunk.size;
+        }
+
+        int[] creditActor = new int[total];
+        int[] creditTitle = new int[total];
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < chunks.size(); c++) {
+            Chunk chunk = chunks.get(c);
+            int start = starts[c];
+            int[] nameMap = nameMaps.get(c);
+            int[] titleMap = titleMaps.get(c);
+            Runnable rewrite = () -> {
+                for (int i = 0; i < chunk.size; i++) {
+                    creditActor[start + i] = nameMap[chunk.actors[i]];
+                    creditTitle[start + i] = titleMap[chunk.titles[i]];
+                }
+            };
+            if (pool == null) {
+                rewrite.run();
+            }
+            else {
+                futures.add(pool.submit(rewrite));
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        names.trim();
+        titles.trim();
+        return new CreditTable(names, titles, creditActor, creditTitle, total);
+    }
+
+    /**
+     * Maps every string of a chunk dictionary to its global handle, adding strings
+     * that have not been seen before. The bytes are copied, never decoded.
+     *
+     * @return The global handle of each local handle.
+     */
+    private static int[] remap(StringDictionary local, StringDictionary global){
+        int[] map = new int[local.size()];
+        for (int id = 0; id < map.length; id++) {
+            map[id] = global.intern(local, id);
+        }
+        return map;
+    }
+
+    /**
+     * The credits parsed from one chunk, with chunk-local name and title IDs.
+     */
+    private static class Chunk {
+        StringDictionary nameDict = new StringDictionary();
+        StringDictionary titleDict = new StringDictionary();
+        int[] actors = new int[1024];
+        int[] titles = new int[1024];
+        int size;
+
+        void add(int actor, int title){
+            if (size == actors.length) {
+                actors = Arrays.copyOf(actors, size * 2);
+                titles = Arrays.copyOf(titles, size * 2);
+            }
+            actors[size] = actor;
+            titles[size] = title;
+            size++;
+        }
+    }
+
+    /**
+     * Parses one mapped chunk line by line. Each line is "name TAB title", where the
+     * title ends at the next tab or at the end of the line; both fields are trimmed
+     * and lines without a tab are skipped.
+     */
+    private static class Parser implements Callable<Chunk> {
+        private final ByteBuffer buffer;
+
+        Parser(ByteBuffer buffer){
+            this.buffer = buffer;
+        }
+
+        @Override
+        public Chunk call(){
+            Chunk chunk = new Chunk();
+            int limit = buffer.limit();
+            int line = 0;
+            while (line < limit) {
+                int tab = -1;
+                int end = line;
+                while (end < limit && buffer.get(end) != '\n') {
+                    if (tab < 0 && buffer.get(end) == '\t') {
+                        tab = end;
+                    }
+                    end++;
+                }
+                if (tab >= 0) {
+                    int titleEnd = tab + 1;
+                    while (titleEnd < end && buffer.get(titleEnd) != '\t') {
+                        titleEnd++;
+                    }
+                    int name = intern(chunk.nameDict, buffer, line, tab);
+                    int title = intern(chunk.titleDict, buffer, tab + 1, titleEnd);
+                    if (name >= 0 && title >= 0) {
+                        chunk.add(name, title);
+                    }
+                }
+                line = end + 1;
+            }
+            return chunk;
+        }
+    }
+
+    /**
+     * Interns the trimmed bytes from start (inclusive) to end (exclusive).
+     *
+     * @return The local ID, or -1 if the trimmed field is empty.
+     */
+    private static int intern(StringDictionary dictionary, ByteBuffer buffer, int start, int end){
+        while (start < end && isSpace(buffer.get(start))) {
+            start++;
+        }
+        while (end > start && isSpace(buffer.get(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return -1;
+        }
+        return dictionary.intern(buffer, start, end);
+    }
+
+    private static boolean isSpace(byte b){
+        return b >= 0 && b <= ' ';
+    }
+}
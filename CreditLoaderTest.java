@@ -0,0 +1,58 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class CreditLoaderTest {
+
+    private Path write(String text) throws IOException {
+        Path file = Files.createTempFile("credits", ".txt");
+        file.toFile().deleteOnExit();
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    void testLoad() throws IOException {
+        Path file = write("Actor1\tMovie1 (1999)\r\n Actor2 \tMovie1 (1999)\n\nbroken line\nAct\u00f6r3\tMovie2\textra\nActor1\tMovie2");
+        CreditTable credits = new CreditLoader(2).load(file);
+
+        assertArrayEquals(new String[] {"Actor1", "Actor2", "Act\u00f6r3"}, credits.getNames());
+        assertArrayEquals(new String[] {"Movie1 (1999)", "Movie2"}, credits.getTitles());
+        assertEquals(4, credits.size());
+        assertArrayEquals(new int[] {0, 1, 2, 0}, credits.getCreditActor());
+        assertArrayEquals(new int[] {0, 0, 1, 1}, credits.getCreditTitle());
+    }
+
+    @Test
+    void testChunksMatchSingleChunk() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            text.append("Actor").append(i % 37).append('\t').append("Movie").append(i % 53).append('\n');
+        }
+        Path file = write(text.toString());
+        CreditTable single = new CreditLoader(1).load(file);
+        CreditTable chunked = new CreditLoader(4, 100).load(file);
+
+        assertArrayEquals(single.getNames(), chunked.getNames());
+        assertArrayEquals(single.getTitles(), chunked.getTitles());
+        assertArrayEquals(single.getCreditActor(), chunked.getCreditActor());
+        assertArrayEquals(single.getCreditTitle(), chunked.getCreditTitle());
+    }
+
+    @Test
+    void testFromCredits() throws IOException {
+        CreditTable credits = new CreditLoader().load(write("A\tM1\nB\tM1\nB\tM2\nC\tM2\nA\tM1\n"));
+        CompactGraph graph = CompactGraph.fromCredits(credits);
+
+        assertEquals(3, graph.getOrder());
+        assertEquals(2, graph.getSize());
+        assertEquals("M1", graph.edgeLabel(graph.vertexId("A"), graph.vertexId("B")));
+        assertEquals("M2", graph.edgeLabel(graph.vertexId("C"), graph.vertexId("B")));
+    }
+}
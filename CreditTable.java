@@ -0,0 +1,103 @@
+public class CreditTable {
+
+    private final StringDictionary names;
+    private final StringDictionary titles;
+    private final int[] creditActor;
+    private final int[] creditTitle;
+    private final int size;
+
+    /**
+     * The `CreditTable` class holds a parsed credits file as interned integer IDs:
+     * credit i says that actor names[creditActor[i]] appears in titles[creditTitle[i]].
+     * Names and titles are kept in string dictionaries, so each is stored once as UTF-8.
+     *
+     * @param names       The distinct actor names, indexed by actor ID.
+     * @param titles      The distinct titles, indexed by title ID.
+     * @param creditActor The actor ID of each credit.
+     * @param creditTitle The title ID of each credit.
+     * @param size        The number of credits stored in the two credit arrays.
+     */
+    public CreditTable(String[] names, String[] titles, int[] creditActor, int[] creditTitle, int size){
+        this(new StringDictionary(names), new StringDictionary(titles), creditActor, creditTitle, size);
+    }
+
+    /**
+     * Creates a credit table over existing name and title dictionaries.
+     *
+     * @param names       The distinct actor names; handles are actor IDs.
+     * @param titles      The distinct titles; handles are title IDs.
+     * @param creditActor The actor ID of each credit.
+     * @param creditTitle The title ID of each credit.
+     * @param size        The number of credits stored in the two credit arrays.
+     */
+    public CreditTable(StringDictionary names, StringDictionary titles, int[] creditActor, int[] creditTitle, int size){
+        this.names = names;
+        this.titles = titles;
+        this.creditActor = creditActor;
+        this.creditTitle = creditTitle;
+        this.size = size;
+    }
+
+    /**
+     * Decodes the distinct actor names.
+     *
+     * @return The actor names, indexed by actor ID.
+     */
+    public String[] getNames(){
+        return names.toArray();
+    }
+
+    /**
+     * Retrieves the actor name dictionary.
+     *
+     * @return The actor names; handles are actor IDs.
+     */
+    public StringDictionary getNameDictionary(){
+        return names;
+    }
+
+    /**
+     * Decodes the distinct titles.
+     *
+     * @return The titles, indexed by title ID.
+     */
+    public String[] getTitles(){
+        return titles.toArray();
+    }
+
+    /**
+     * Retrieves the title dictionary.
+     *
+     * @return The titles; handles are title IDs.
+     */
+    public StringDictionary getTitleDictionary(){
+        return titles;
+    }
+
+    /**
+     * Retrieves the actor ID of every credit.
+     *
+     * @return The actor ID of each credit.
+     */
+    public int[] getCreditActor(){
+        return creditActor;
+    }
+
+    /**
+     * Retrieves the title ID of every credit.
+     *
+     * @return The title ID of each credit.
+     */
+    public int[] getCreditTitle(){
+        return creditTitle;
+    }
+
+    /**
+     * Retrieves the number of credits.
+     *
+     * @return The number of credits.
+     */
+    public int size(){
+        return size;
+    }
+}
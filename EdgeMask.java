@@ -0,0 +1,146 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public class EdgeMask {
+
+    private final TitleFilter filter;
+    private final long[] titles;
+    private final long[] bits;
+    private final int allowed;
+
+    /**
+     * The `EdgeMask` class applies a title filter to a co-star graph without
+     * rebuilding it: one bit per CSR edge tells a search whether the two actors share
+     * an allowed title. The title bitset is kept too, so a path only lists the
+     * allowed titles of each edge.
+     *
+     * @param filter  The filter the mask was built for.
+     * @param titles  One bit per title, set for allowed titles.
+     * @param bits    One bit per edge, set for allowed edges.
+     * @param allowed The number of allowed edges.
+     */
+    EdgeMask(TitleFilter filter, long[] titles, long[] bits, int allowed){
+        this.filter = filter;
+        this.titles = titles;
+        this.bits = bits;
+        this.allowed = allowed;
+    }
+
+    /**
+     * Builds the mask of a filter. An edge is allowed if any title its actors share is
+     * allowed; a graph without the side table of shared titles, such as one loaded
+     * from an old snapshot, only knows the edge's own label.
+     *
+     * @param graph  The graph.
+     * @param filter The filter.
+     * @return The mask.
+     */
+    public static EdgeMask build(CompactGraph graph, TitleFilter filter){
+        long[] titles = graph.getTitleAttributes().mask(filter);
+        int[] labels = graph.getEdgeLabelIds();
+        int[] titleOffsets = graph.getEdgeTitleOffsets();
+        int[] titleIds = graph.getEdgeTitleIds();
+        int entries = graph.getTargets().length;
+
+        long[] bits = new long[(entries + 63) >>> 6];
+        int allowed = 0;
+        for (int e = 0; e < entries; e++) {
+            boolean allows = false;
+            if (titleOffsets == null) {
+                allows = allows(titles, labels[e]);
+            }
+            else {
+                for (int i = titleOffsets[e]; i < titleOffsets[e + 1] && !allows; i++) {
+                    allows = allows(titles, titleIds[i]);
+                }
+            }
+            if (allows) {
+                bits[e >>> 6] |= 1L << e;
+                allowed++;
+            }
+        }
+        return new EdgeMask(filter, titles, bits, allowed);
+    }
+
+    private static boolean allows(long[] titles, int title){
+        return title >= 0 && title < titles.length << 6 && (titles[title >>> 6] & 1L << title) != 0;
+    }
+
+    /**
+     * Retrieves the filter the mask was built for.
+     *
+     * @return The filter.
+     */
+    public TitleFilter getFilter(){
+        return filter;
+    }
+
+    /**
+     * Retrieves the edge bits, for searches that test them inline.
+     *
+     * @return One bit per edge, set for allowed edges. Callers must not modify it.
+     */
+    long[] getBits(){
+        return bits;
+    }
+
+    /**
+     * Tells whether an edge may be traversed.
+     *
+     * @param edge The edge index in the CSR target array.
+     * @return True if the edge's actors share an allowed title.
+     */
+    public boolean allows(int edge){
+        return (bits[edge >>> 6] & 1L << edge) != 0;
+    }
+
+    /**
+     * Retrieves the number of edges the mask allows.
+     *
+     * @return The number of allowed edges.
+     */
+    public int getAllowed(){
+        return allowed;
+    }
+
+    /**
+     * Retrieves the memory used by the mask.
+     *
+     * @return The number of bytes.
+     */
+    public long getBytes(){
+        return 8L * bits.length + 8L * titles.length;
+    }
+
+    /**
+     * Describes the allowed titles linking two adjacent actors on one line.
+     *
+     * @param graph The graph the mask was built for.
+     * @param v     The ID of the first vertex.
+     * @param w     The ID of the second vertex.
+     * @return The titles joined by " / ", or null if there is no allowed edge between them.
+     */
+    public String sharedLabels(CompactGraph graph, int v, int w){
+        // Without the side table the two directions of an edge may carry different
+        // labels, and the backward half of a search walks the reverse direction.
+        int e = graph.edgeIndex(v, w);
+        if (e < 0 || !allows(e)) {
+            e = graph.edgeIndex(w, v);
+            if (e < 0 || !allows(e)) {
+                return null;
+            }
+        }
+        int[] titleOffsets = graph.getEdgeTitleOffsets();
+        if (titleOffsets == null) {
+            return graph.labelOf(graph.edgeLabelId(e));
+        }
+        int[] titleIds = graph.getEdgeTitleIds();
+        List<String> shared = new ArrayList<>();
+        for (int i = titleOffsets[e]; i < titleOffsets[e + 1]; i++) {
+            if (allows(titles, titleIds[i])) {
+                shared.add(graph.labelOf(titleIds[i]));
+            }
+        }
+        return String.join(" / ", shared);
+    }
+}
@@ -0,0 +1,73 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EdgeMaskTest {
+
+    // A, B and C share a TV show, which labels the A-B edge; A and B also share a
+    // movie, and B reaches C through D with two more movies, one of them from 2005.
+    private final String[] names = {"A", "B", "C", "D"};
+    private final String[] titles = {"Show (2000) (TV)", "Alpha (1990)", "Beta (1995)", "Gamma (2005)"};
+    private final CreditTable credits = new CreditTable(names, titles,
+            new int[] {0, 1, 2, 0, 1, 1, 3, 3, 2},
+            new int[] {0, 0, 0, 1, 1, 2, 2, 3, 3}, 9);
+    private final CompactGraph graph = CompactGraph.fromCredits(credits);
+
+    @Test
+    void testMoviesOnly() {
+        assertEquals("Show (2000) (TV)", graph.edgeLabel(0, 1));
+        assertEquals("Show (2000) (TV) / Alpha (1990)", graph.sharedLabels(0, 1));
+        EdgeMask mask = EdgeMask.build(graph, TitleFilter.parse(true, null));
+        BidirectionalSearch search = new BidirectionalSearch(graph);
+        assertArrayEquals(new int[] {0, 2}, search.findPath(0, 2));
+        assertArrayEquals(new int[] {0, 1, 3, 2}, search.findPath(0, 2, null, mask));
+        assertEquals("Alpha (1990)", mask.sharedLabels(graph, 0, 1));
+        assertEquals("Alpha (1990)", mask.sharedLabels(graph, 1, 0));
+        assertEquals(null, mask.sharedLabels(graph, 0, 2));
+        // Every edge but A-C and B-C, in both directions.
+        assertEquals(graph.getSize() * 2 - 4, mask.getAllowed());
+    }
+
+    @Test
+    void testYearsAndLabelsOnly() {
+        BidirectionalSearch search = new BidirectionalSearch(graph);
+        EdgeMask nineties = EdgeMask.build(graph, TitleFilter.parse(false, "1990-1999"));
+        assertArrayEquals(new int[] {0, 1, 3}, search.findPath(0, 3, null, nineties));
+        assertEquals(0, search.findPath(0, 2, null, nineties).length);
+
+        // Without the side table only each edge's own label is known.
+        int[] labels = new int[graph.getTargets().length];
+        for (int e = 0; e < labels.length; e++) {
+            labels[e] = graph.edgeLabelId(e);
+        }
+        CompactGraph plain = new CompactGraph(graph.getNameDictionary(), graph.getLabelDictionary(), graph.getOffsets(),
+                graph.getTargets(), labels);
+        EdgeMask labelsOnly = EdgeMask.build(plain, TitleFilter.parse(true, null));
+        assertEquals(0, search.findPath(0, 2, null, labelsOnly).length);
+        assertTrue(labelsOnly.getAllowed() < graph.getSize() * 2);
+        assertEquals("Show (2000) (TV)", plain.sharedLabels(0, 1));
+    }
+
+    @Test
+    void testBatchUsesMask() {
+        EdgeMask mask = EdgeMask.build(graph, TitleFilter.parse(true, null));
+        BatchRunner runner = new BatchRunner(graph, "A", 1, false, null, null, mask);
+        assertEquals("A\tC\tok\t3\tA -> Alpha (1990) -> B -> Beta (1995) -> D -> Gamma (2005) -> C", runner.answer("A\tC"));
+    }
+
+    @Test
+    void testAllowAllMatchesPlainSearch() {
+        CompactGraph random = ShortestPathDagTest.randomGraph(11, 200, 120, 360);
+        EdgeMask mask = EdgeMask.build(random, new TitleFilter(false, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(random.getTargets().length, mask.getAllowed());
+        BidirectionalSearch plain = new BidirectionalSearch(random);
+        BidirectionalSearch masked = new BidirectionalSearch(random);
+        for (int a = 0; a < random.getOrder(); a += 5) {
+            for (int b = 2; b < random.getOrder(); b += 9) {
+                assertEquals(plain.findPath(a, b).length, masked.findPath(a, b, null, mask).length);
+            }
+        }
+    }
+}
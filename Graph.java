@@ -1,10 +1,13 @@
 import java.util.ArrayList;
+import java.util.HashMap;
 
 public class Graph {
 
     private int order;
     private int size;
     private ArrayList<Vertex> vertices;
+    private HashMap<String, Integer> ids;
+    private CompactGraph compiled;
 
     /**
     * The `Graph` class represents an undirected graph that stores vertices and edges.
@@ -13,43 +16,49 @@ public class Graph {
         order = 0;
         size = 0;
         vertices = new ArrayList<Vertex>();
+        ids = new HashMap<String, Integer>();
     }
 
     /**
-     * Adds a vertex to the graph if it does not already exist.
+     * Adds a vertex to the graph if it does not already exist. Each new vertex is
+     * given the next dense integer ID, so IDs run from 0 to getOrder() - 1.
      *
      * @param vertex The vertex to be added to the graph.
      */
     public void addVertex(Vertex vertex){
-        for (Vertex v : vertices) {
-            if (v.getName().equals(vertex.getName())) {
-                System.out.println("Duplicate vertex found: " + vertex.getName());
-                return;
-            }
+        if (ids.containsKey(vertex.getName())) {
+            System.out.println("Duplicate vertex found: " + vertex.getName());
+            return;
         }
-    
+
+        ids.put(vertex.getName(), vertices.size());
         vertices.add(vertex);
         order++;
+        compiled = null;
     }
 
     /**
-     * Adds an edge between two vertices in the graph.
+     * Adds an edge between two vertices in the graph. If the vertices are already
+     * adjacent, the label is added to the edge's labels instead, so each pair is
+     * listed once in the adjacency lists and counted once by getSize. Self-loops are
+     * ignored.
      *
      * @param source      The source vertex of the edge.
      * @param destination The destination vertex of the edge.
      * @param label       The label associated with the edge.
      */
     public void addEdge(Vertex source, Vertex destination, String label){
-        ArrayList<Vertex> sourceAdjList = source.getAdjacents();
-        ArrayList<Vertex> destinationAdjList = destination.getAdjacents();
-
-      //  if (!sourceAdjList.contains(destination) && !destinationAdjList.contains(source) && !source.getName().equals(destination.getName())){
-            sourceAdjList.add(destination);
-            destinationAdjList.add(source);
-            source.makeEdge(destination.getName(), label);
-            destination.makeEdge(source.getName(), label);
+        if (source.getName().equals(destination.getName())) {
+            return;
+        }
+        if (!source.hasEdge(destination.getName())) {
+            source.getAdjacents().add(destination);
+            destination.getAdjacents().add(source);
             this.size++;
-      //  }
+        }
+        source.makeEdge(destination.getName(), label);
+        destination.makeEdge(source.getName(), label);
+        compiled = null;
     }
 
     /**
@@ -94,12 +103,45 @@ public class Graph {
      * @return The vertex with the specified name, or null if not found.
      */
     public Vertex findVertex(String name){
-        for (Vertex v : vertices){
-            if (v.getName().equals(name)){
-                return v;
-            }
+        Integer id = ids.get(name);
+        if (id == null){
+            return null;
         }
-        return null;
+        return vertices.get(id);
+    }
+
+    /**
+     * Looks up the dense integer ID of the vertex with a given name.
+     *
+     * @param name The name of the vertex.
+     * @return The ID of the vertex, or -1 if no vertex has that name.
+     */
+    public int vertexId(String name){
+        Integer id = ids.get(name);
+        if (id == null){
+            return -1;
+        }
+        return id;
+    }
+
+    /**
+     * Retrieves the name of the vertex with a given ID.
+     *
+     * @param id The ID of the vertex.
+     * @return The name of the vertex.
+     */
+    public String nameOf(int id){
+        return vertices.get(id).getName();
+    }
+
+    /**
+     * Retrieves the vertex with a given ID.
+     *
+     * @param id The ID of the vertex.
+     * @return The vertex with the specified ID.
+     */
+    public Vertex getVertex(int id){
+        return vertices.get(id);
     }
 
     /**
@@ -109,12 +151,23 @@ public class Graph {
      * @return True if the vertex exists, false otherwise.
      */
     public boolean contains(String name){
-        if (findVertex(name) != null){
+        if (ids.containsKey(name)){
             return true;
         } else{
             return false;
         }
     }
 
-    
-}
\ No newline at end of file
+    /**
+     * Compiles the graph into a frozen CSR copy for fast traversal. The copy is cached
+     * until the next call to addVertex or addEdge.
+     *
+     * @return The compiled graph.
+     */
+    public CompactGraph compile(){
+        if (compiled == null){
+            compiled = CompactGraph.compile(this);
+        }
+        return compiled;
+    }
+}
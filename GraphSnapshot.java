@@ -0,0 +1,418 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+public class GraphSnapshot {
+
+    private static final long MAGIC = 0x4241434f4e534e50L; // "BACONSNP"
+    private static final int VERSION = 6;
+    private static final int KIND_COSTAR = 0;
+    private static final int HEADER_BYTES = 56;
+    private static final int OLD_HEADER_BYTES = 48;
+
+    /**
+     * The `GraphSnapshot` class writes a built `CompactGraph` to a versioned binary file
+     * and maps it back read-only, so later runs skip parsing and graph construction.
+     * `load` copies the arrays onto the heap; `map` queries them in place as an
+     * `OffHeapGraph`.
+     *
+     * The file starts with a fixed header: magic, format version, graph kind, the size,
+     * CRC32C and modification time of the source file the graph was built from, and
+     * the length and CRC32C of the payload. Before version 4 the header has no
+     * modification time and is 8 bytes shorter.
+     *
+     * The payload holds the vertex count, label count and adjacency entry count, the
+     * name and label string tables (an offset table, the UTF-8 bytes and the hash
+     * table `OffHeapStrings` looks names up in), and the offsets and targets arrays. Then comes a flag telling whether the side table of every
+     * shared title follows, and if so its run offsets and title IDs, which also give
+     * each entry's label; otherwise the edge label array follows. The payload ends
+     * with a flag telling whether distance labels follow, and if so their offsets,
+     * hub ranks and hub distances. Before version 5 the edge label array always came
+     * right after targets and the side table, from version 3 on, came last; version 1
+     * has neither distance labels nor the side table. Before version 6 the string
+     * tables have no hash table, so mapping one rebuilds it. Older files still load.
+     * All values are big-endian.
+     *
+     * Loading checks the source by its size and modification time only, so a warm
+     * start never reads the credits file; the source checksum is computed when saving
+     * and compared only when a caller asks to verify.
+     */
+    private GraphSnapshot(){
+    }
+
+    /**
+     * Writes a snapshot of a graph. The file is written next to its final location and
+     * moved into place once complete, so a crash never leaves a half-written snapshot.
+     *
+     * @param graph    The graph to save.
+     * @param snapshot The snapshot file to write.
+     * @param source   The credits file the graph was built from.
+     * @throws IOException If either file cannot be read or written.
+     */
+    public static void save(CompactGraph graph, Path snapshot, Path source) throws IOException {
+        long sourceSize = Files.size(source);
+        long sourceModified = Files.getLastModifiedTime(source).toMillis();
+        long sourceChecksum = checksum(source);
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_BYTES);
+            CRC32C crc = new CRC32C();
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), crc);
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(graph.getOrder());
+            out.writeInt(graph.getLabelDictionary().size());
+            out.writeInt(graph.getTargets().length);
+            writeStrings(out, graph.getNameDictionary());
+            writeStrings(out, graph.getLabelDictionary());
+            writeInts(out, graph.getOffsets());
+            writeInts(out, graph.getTargets());
+            out.writeInt(graph.hasEdgeTitles() ? 1 : 0);
+            if (graph.hasEdgeTitles()) {
+                out.writeInt(graph.getEdgeTitleIds().length);
+                writeInts(out, graph.getEdgeTitleOffsets());
+                writeInts(out, graph.getEdgeTitleIds());
+            }
+            else {
+                writeInts(out, graph.getEdgeLabelIds());
+            }
+            PrunedLandmarkLabels labels = graph.getDistanceLabels();
+            out.writeInt(labels == null ? 0 : 1);
+            if (labels != null) {
+                out.writeInt(labels.getEntries());
+                writeInts(out, labels.getLabelOffsets());
+                writeInts(out, labels.getHubs());
+                out.write(labels.getDistances());
+            }
+            out.flush();
+            long payloadLength = channel.position() - HEADER_BYTES;
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putLong(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(KIND_COSTAR);
+            header.putLong(sourceSize);
+            header.putLong(sourceChecksum);
+            header.putLong(sourceModified);
+            header.putLong(payloadLength);
+            header.putLong(crc.getValue());
+            header.flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps a snapshot read-only and rebuilds the graph from it, checking the source
+     * by its size and modification time.
+     *
+     * @param snapshot The snapshot file to read.
+     * @param source   The credits file the caller expects the snapshot to match, or null to skip that check.
+     * @return The graph stored in the snapshot.
+     * @throws IOException If the file cannot be read, is corrupt, has the wrong version,
+     *                     or was built from a different source file.
+     */
+    public static CompactGraph load(Path snapshot, Path source) throws IOException {
+        return load(snapshot, source, false);
+    }
+
+    /**
+     * Maps a snapshot read-only and rebuilds the graph from it. The payload checksum
+     * is always checked, since the whole payload is read anyway.
+     *
+     * @param snapshot The snapshot file to read.
+     * @param source   The credits file the caller expects the snapshot to match, or null to skip that check.
+     * @param verify   True to compare the source's checksum instead of its modification time.
+     * @return The graph stored in the snapshot.
+     * @throws IOException If the file cannot be read, is corrupt, has the wrong version,
+     *                     or was built from a different source file.
+     */
+    public static CompactGraph load(Path snapshot, Path source, boolean verify) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is too large to load onto the heap: " + snapshot);
+            }
+            int version = checkHeader(channel, snapshot, source, true, verify);
+            int headerBytes = headerBytes(version);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, headerBytes, channel.size() - headerBytes);
+
+            int order = buffer.getInt();
+            int labelCount = buffer.getInt();
+            int entries = buffer.getInt();
+            StringDictionary names = readStrings(buffer, order, version);
+            StringDictionary labels = readStrings(buffer, labelCount, version);
+            int[] offsets = readInts(buffer, order + 1);
+            int[] targets = readInts(buffer, entries);
+            int[] edgeLabelIds = null;
+            int[] edgeTitleOffsets = null;
+            int[] edgeTitleIds = null;
+            if (version >= 5 && buffer.getInt() != 0) {
+                int titleCount = buffer.getInt();
+                edgeTitleOffsets = readInts(buffer, entries + 1);
+                edgeTitleIds = readInts(buffer, titleCount);
+            }
+            else {
+                edgeLabelIds = readInts(buffer, entries);
+            }
+            PrunedLandmarkLabels distanceLabels = null;
+            if (version >= 2 && buffer.getInt() != 0) {
+                int labelEntries = buffer.getInt();
+                int[] labelOffsets = readInts(buffer, order + 1);
+                int[] hubs = readInts(buffer, labelEntries);
+                byte[] hubDistances = new byte[labelEntries];
+                buffer.get(hubDistances);
+                distanceLabels = new PrunedLandmarkLabels(labelOffsets, hubs, hubDistances);
+            }
+            if (version >= 3 && version < 5 && buffer.getInt() != 0) {
+                int titleCount = buffer.getInt();
+                edgeTitleOffsets = readInts(buffer, entries + 1);
+                edgeTitleIds = readInts(buffer, titleCount);
+                // The runs give each entry's label, so the stored array is dropped.
+                edgeLabelIds = null;
+            }
+            CompactGraph graph = new CompactGraph(names, labels, offsets, targets, edgeLabelIds, edgeTitleOffsets, edgeTitleIds);
+            graph.setDistanceLabels(distanceLabels);
+            return graph;
+        }
+    }
+
+    /**
+     * Maps a snapshot read-only without copying it onto the heap, checking the source
+     * by its size and modification time.
+     *
+     * @param snapshot The snapshot file to map.
+     * @param source   The credits file the caller expects the snapshot to match, or null to skip that check.
+     * @return The graph, backed by the mapped file.
+     * @throws IOException If the file cannot be read, is corrupt, has the wrong version,
+     *                     or was built from a different source file.
+     */
+    public static OffHeapGraph map(Path snapshot, Path source) throws IOException {
+        return map(snapshot, source, false);
+    }
+
+    /**
+     * Maps a snapshot read-only without copying it onto the heap. Each array is
+     * mapped as its own region, so the file may exceed 2 GB as long as no single
+     * array does. Only the vertex and label tables, the CSR arrays and the edge labels
+     * are used, the labels coming from the side table of shared titles when the file
+     * has one; distance labels are left on disk. The hash tables of the string tables
+     * are mapped too, so pages are only read as queries touch them and the payload
+     * checksum, which reads every page, is only checked when verifying. A file older
+     * than version 6 has no hash tables, and mapping it reads every string once to
+     * build them.
+     *
+     * @param snapshot The snapshot file to map.
+     * @param source   The credits file the caller expects the snapshot to match, or null to skip that check.
+     * @param verify   True to check the payload checksum and compare the source's
+     *                 checksum instead of its modification time.
+     * @return The graph, backed by the mapped file.
+     * @throws IOException If the file cannot be read, is corrupt, has the wrong version,
+     *                     or was built from a different source file.
+     */
+    public static OffHeapGraph map(Path snapshot, Path source, boolean verify) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            int version = checkHeader(channel, snapshot, source, verify, verify);
+            Regions regions = new Regions(channel, headerBytes(version));
+            IntBuffer counts = regions.ints(3);
+            int order = counts.get(0);
+            int labelCount = counts.get(1);
+            int entries = counts.get(2);
+            OffHeapStrings names = regions.strings(order, version >= 6);
+            OffHeapStrings labels = regions.strings(labelCount, version >= 6);
+            IntBuffer offsets = regions.ints(order + 1);
+            IntBuffer targets = regions.ints(entries);
+            if (version >= 5 && regions.ints(1).get(0) != 0) {
+                int titleCount = regions.ints(1).get(0);
+                IntBuffer edgeTitleOffsets = regions.ints(entries + 1);
+                IntBuffer edgeTitleIds = regions.ints(titleCount);
+                return new OffHeapGraph(names, labels, offsets, targets, null, edgeTitleOffsets, edgeTitleIds);
+            }
+            IntBuffer edgeLabelIds = regions.ints(entries);
+            return new OffHeapGraph(names, labels, offsets, targets, edgeLabelIds);
+        }
+    }
+
+    /**
+     * Maps consecutive regions of a snapshot payload. Mappings stay valid after the
+     * channel is closed.
+     */
+    private static final class Regions {
+        private final FileChannel channel;
+        private long position;
+
+        Regions(FileChannel channel, long position){
+            this.channel = channel;
+            this.position = position;
+        }
+
+        IntBuffer ints(int count) throws IOException {
+            return bytes(4L * count).asIntBuffer();
+        }
+
+        OffHeapStrings strings(int count, boolean hashed) throws IOException {
+            IntBuffer starts = ints(count + 1);
+            ByteBuffer values = bytes(starts.get(count));
+            if (!hashed) {
+                return new OffHeapStrings(values, starts);
+            }
+            return new OffHeapStrings(values, starts, ints(OffHeapStrings.tableSize(count)));
+        }
+
+        ByteBuffer bytes(long length) throws IOException {
+            if (length > Integer.MAX_VALUE || position + length > channel.size()) {
+                throw new IOException("Snapshot section does not fit in the file.");
+            }
+            ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            position += length;
+            return region;
+        }
+    }
+
+    /**
+     * Validates the header of a snapshot, and optionally the checksum of its payload,
+     * against the source file. The source matches if its size and modification time
+     * are the ones saved; when verifying, or for a snapshot older than version 4,
+     * which has no modification time, its checksum is compared instead.
+     *
+     * @param channel      The open snapshot file.
+     * @param snapshot     The snapshot file, for error messages.
+     * @param source       The credits file the snapshot must match, or null to skip that check.
+     * @param checkPayload True to check the payload checksum.
+     * @param verify       True to compare the source's checksum instead of its modification time.
+     * @return The format version of the snapshot.
+     * @throws IOException If the file is not a snapshot, is corrupt, has the wrong
+     *                     version, or was built from a different source file.
+     */
+    private static int checkHeader(FileChannel channel, Path snapshot, Path source, boolean checkPayload, boolean verify) throws IOException {
+        long length = channel.size();
+        if (length < OLD_HEADER_BYTES) {
+            throw new IOException("Not a graph snapshot: " + snapshot);
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(length, HEADER_BYTES));
+        if (header.getLong() != MAGIC) {
+            throw new IOException("Not a graph snapshot: " + snapshot);
+        }
+        int version = header.getInt();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + " in " + snapshot);
+        }
+        if (header.getInt() != KIND_COSTAR) {
+            throw new IOException("Unsupported graph kind in " + snapshot);
+        }
+        int headerBytes = headerBytes(version);
+        if (length < headerBytes) {
+            throw new IOException("Snapshot is truncated: " + snapshot);
+        }
+        long sourceSize = header.getLong();
+        long sourceChecksum = header.getLong();
+        long sourceModified = version >= 4 ? header.getLong() : 0;
+        long payloadLength = header.getLong();
+        long payloadChecksum = header.getLong();
+        if (payloadLength != length - headerBytes) {
+            throw new IOException("Snapshot is truncated: " + snapshot);
+        }
+        if (checkPayload && checksum(channel, headerBytes, length) != payloadChecksum) {
+            throw new IOException("Snapshot checksum mismatch: " + snapshot);
+        }
+        if (source == null) {
+            return version;
+        }
+        if (Files.size(source) != sourceSize) {
+            throw new IOException("Snapshot " + snapshot + " was not built from " + source);
+        }
+        if (verify || version < 4) {
+            if (checksum(source) != sourceChecksum) {
+                throw new IOException("Snapshot " + snapshot + " was not built from " + source);
+            }
+        }
+        else if (Files.getLastModifiedTime(source).toMillis() != sourceModified) {
+            throw new IOException("Source " + source + " changed since snapshot " + snapshot + " was saved.");
+        }
+        return version;
+    }
+
+    /**
+     * Retrieves the header length of a snapshot format version.
+     *
+     * @param version The format version.
+     * @return The number of bytes before the payload.
+     */
+    private static int headerBytes(int version){
+        return version >= 4 ? HEADER_BYTES : OLD_HEADER_BYTES;
+    }
+
+    /**
+     * Computes the CRC32C of a whole file by mapping it in pieces.
+     *
+     * @param file The file to checksum.
+     * @return The checksum.
+     * @throws IOException If the file cannot be read.
+     */
+    static long checksum(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return checksum(channel, 0, channel.size());
+        }
+    }
+
+    private static long checksum(FileChannel channel, long from, long to) throws IOException {
+        CRC32C crc = new CRC32C();
+        for (long position = from; position < to; position += Integer.MAX_VALUE) {
+            long piece = Math.min(Integer.MAX_VALUE, to - position);
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, piece));
+        }
+        return crc.getValue();
+    }
+
+    private static void writeStrings(DataOutputStream out, StringDictionary values) throws IOException {
+        int[] starts = Arrays.copyOf(values.starts(), values.size() + 1);
+        writeInts(out, starts);
+        out.write(values.arena(), 0, values.getArenaSize());
+        IntBuffer table = IntBuffer.allocate(OffHeapStrings.tableSize(values.size()));
+        OffHeapStrings.fillTable(ByteBuffer.wrap(values.arena()), IntBuffer.wrap(starts), table);
+        writeInts(out, table.array());
+    }
+
+    private static StringDictionary readStrings(ByteBuffer buffer, int count, int version){
+        int[] offsets = readInts(buffer, count + 1);
+        byte[] bytes = new byte[offsets[count]];
+        buffer.get(bytes);
+        if (version >= 6) {
+            // The dictionary keeps its own hash table, so the stored one is skipped.
+            buffer.position(buffer.position() + 4 * OffHeapStrings.tableSize(count));
+        }
+        return StringDictionary.fromBytes(bytes, offsets, count);
+    }
+
+    private static void writeInts(OutputStream out, int[] values) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(1 << 16);
+        for (int value : values) {
+            if (!chunk.hasRemaining()) {
+                out.write(chunk.array(), 0, chunk.position());
+                chunk.clear();
+            }
+            chunk.putInt(value);
+        }
+        out.write(chunk.array(), 0, chunk.position());
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count){
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * 4);
+        return values;
+    }
+}
@@ -0,0 +1,179 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+public class GraphSnapshotTest {
+
+    private Path write(String text) throws IOException {
+        Path file = Files.createTempFile("credits", ".txt");
+        file.toFile().deleteOnExit();
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private Path snapshotFile() throws IOException {
+        Path file = Files.createTempFile("graph", ".snap");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Path source = write("A\tM1\nB\tM1\nB\tM\u00e9\nC\tM\u00e9\nD\tM3\n");
+        CompactGraph graph = CompactGraph.fromCredits(new CreditLoader().load(source));
+        Path snapshot = snapshotFile();
+        GraphSnapshot.save(graph, snapshot, source);
+
+        CompactGraph loaded = GraphSnapshot.load(snapshot, source);
+        assertArrayEquals(graph.getNames(), loaded.getNames());
+        assertArrayEquals(graph.getLabels(), loaded.getLabels());
+        assertArrayEquals(graph.getOffsets(), loaded.getOffsets());
+        assertArrayEquals(graph.getTargets(), loaded.getTargets());
+        assertNull(loaded.getEdgeLabelIds());
+        for (int e = 0; e < graph.getTargets().length; e++) {
+            assertEquals(graph.edgeLabelId(e), loaded.edgeLabelId(e));
+        }
+        assertArrayEquals(graph.getEdgeTitleOffsets(), loaded.getEdgeTitleOffsets());
+        assertArrayEquals(graph.getEdgeTitleIds(), loaded.getEdgeTitleIds());
+    }
+
+    @Test
+    void testMap() throws IOException {
+        Path source = write("A\tM1\nB\tM1\nB\tM\u00e9\nC\tM\u00e9\nD\tM3\n");
+        CompactGraph graph = CompactGraph.fromCredits(new CreditLoader().load(source));
+        graph.setDistanceLabels(PrunedLandmarkLabels.build(graph));
+        Path snapshot = snapshotFile();
+        GraphSnapshot.save(graph, snapshot, source);
+
+        OffHeapGraph mapped = GraphSnapshot.map(snapshot, source);
+        assertEquals(graph.getOrder(), mapped.getOrder());
+        assertEquals(graph.getSize(), mapped.getSize());
+        int a = mapped.vertexId("A");
+        int c = mapped.vertexId("C");
+        assertEquals(graph.vertexId("C"), c);
+        assertEquals("M\u00e9", mapped.edgeLabel(mapped.vertexId("B"), c));
+        assertArrayEquals(graph.findPath(a, c), mapped.findPath(a, c));
+        assertThrows(IOException.class, () -> GraphSnapshot.map(snapshot, write("A\tM1\n")));
+    }
+
+    @Test
+    void testLabelsRoundTrip() throws IOException {
+        Path source = write("A\tM1\nB\tM1\nB\tM2\nC\tM2\nD\tM3\n");
+        CompactGraph graph = CompactGraph.fromCredits(new CreditLoader().load(source));
+        Path snapshot = snapshotFile();
+        GraphSnapshot.save(graph, snapshot, source);
+        assertNull(GraphSnapshot.load(snapshot, source).getDistanceLabels());
+
+        graph.setDistanceLabels(PrunedLandmarkLabels.build(graph));
+        GraphSnapshot.save(graph, snapshot, source);
+        PrunedLandmarkLabels labels = GraphSnapshot.load(snapshot, source).getDistanceLabels();
+        assertEquals(graph.getDistanceLabels().getEntries(), labels.getEntries());
+        assertEquals(2, labels.distance(graph.vertexId("A"), graph.vertexId("C")));
+        assertEquals(-1, labels.distance(graph.vertexId("A"), graph.vertexId("D")));
+    }
+
+    @Test
+    void testRejectsOtherSource() throws IOException {
+        Path source = write("A\tM1\nB\tM1\n");
+        Path other = write("A\tM1\nB\tM2\n");
+        Path snapshot = snapshotFile();
+        GraphSnapshot.save(CompactGraph.fromCredits(new CreditLoader().load(source)), snapshot, source);
+        Files.setLastModifiedTime(other, FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 1000));
+
+        assertThrows(IOException.class, () -> GraphSnapshot.load(snapshot, other));
+        assertThrows(IOException.class, () -> GraphSnapshot.load(snapshot, other, true));
+        assertThrows(IOException.class, () -> GraphSnapshot.map(snapshot, other, true));
+    }
+
+    @Test
+    void testChecksSourceByModificationTime() throws IOException {
+        Path source = write("A\tM1\nB\tM1\n");
+        Path snapshot = snapshotFile();
+        GraphSnapshot.save(CompactGraph.fromCredits(new CreditLoader().load(source)), snapshot, source);
+        FileTime saved = Files.getLastModifiedTime(source);
+
+        // Same size and time: trusted without reading the source.
+        Files.write(source, "A\tM1\nB\tM2\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(source, saved);
+        assertEquals(2, GraphSnapshot.load(snapshot, source).getOrder());
+        assertEquals(2, GraphSnapshot.map(snapshot, source).getOrder());
+        assertThrows(IOException.class, () -> GraphSnapshot.load(snapshot, source, true));
+
+        // Same contents, touched: rejected unless verified.
+        Files.write(source, "A\tM1\nB\tM1\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(source, FileTime.fromMillis(saved.toMillis() + 1000));
+        assertThrows(IOException.class, () -> GraphSnapshot.load(snapshot, source));
+        assertThrows(IOException.class, () -> GraphSnapshot.map(snapshot, source));
+        assertEquals(2, GraphSnapshot.load(snapshot, source, true).getOrder());
+        assertEquals(2, GraphSnapshot.map(snapshot, source, true).getOrder());
+    }
+
+    @Test
+    void testLoadsVersion3() throws IOException {
+        // A, B and C, where A and B share M1 and B and C share M2, in the version 3
+        // layout: stored edge labels after targets, and the side table last.
+        Path source = write("A\tM1\nB\tM1\nB\tM2\nC\tM2\n");
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(payload);
+        int[][] sections = {{3, 2, 4}, {0, 1, 2, 3}, null, {0, 2, 4}, null,
+            {0, 1, 3, 4}, {1, 0, 2, 1}, {0, 0, 1, 1}, {0}, {1, 4}, {0, 1, 2, 3, 4}, {0, 0, 1, 1}};
+        String[] arenas = {null, null, "ABC", null, "M1M2"};
+        for (int i = 0; i < sections.length; i++) {
+            if (sections[i] == null) {
+                out.write(arenas[i].getBytes(StandardCharsets.UTF_8));
+                continue;
+            }
+            for (int value : sections[i]) {
+                out.writeInt(value);
+            }
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload.toByteArray());
+        ByteBuffer header = ByteBuffer.allocate(48);
+        header.putLong(0x4241434f4e534e50L).putInt(3).putInt(0);
+        header.putLong(Files.size(source)).putLong(GraphSnapshot.checksum(source));
+        header.putLong(payload.size()).putLong(crc.getValue());
+        Path snapshot = snapshotFile();
+        Files.write(snapshot, header.array());
+        Files.write(snapshot, payload.toByteArray(), StandardOpenOption.APPEND);
+
+        CompactGraph loaded = GraphSnapshot.load(snapshot, source);
+        assertEquals(3, loaded.getOrder());
+        assertNull(loaded.getEdgeLabelIds());
+        assertEquals("M2", loaded.edgeLabel(2, 1));
+        assertEquals(List.of("M1"), loaded.edgeLabels(0, 1));
+        OffHeapGraph mapped = GraphSnapshot.map(snapshot, source);
+        assertEquals(3, mapped.getOrder());
+        assertEquals("M2", mapped.edgeLabel(1, 2));
+        assertEquals(2, mapped.vertexId("C"));
+    }
+
+    @Test
+    void testRejectsCorruptPayload() throws IOException {
+        Path source = write("A\tM1\nB\tM1\n");
+        Path snapshot = snapshotFile();
+        GraphSnapshot.save(CompactGraph.fromCredits(new CreditLoader().load(source)), snapshot, source);
+        try (RandomAccessFile file = new RandomAccessFile(snapshot.toFile(), "rw")) {
+            file.seek(file.length() - 1);
+            file.write(0x7f);
+        }
+
+        assertThrows(IOException.class, () -> GraphSnapshot.load(snapshot, source));
+    }
+}
@@ -1,6 +1,8 @@
 import org.junit.jupiter.api.Test;
 import static org.junit.Assert.*;
 
+import java.util.List;
+
 public class GraphTest {
     @Test
     void testAddEdge() {
@@ -58,6 +60,24 @@ public class GraphTest {
         assertEquals(v1, graph.findVertex("1"));
     }
 
+    @Test
+    void testVertexId() {
+        Graph graph = new Graph();
+        Vertex v1 = new Vertex("1");
+        Vertex v2 = new Vertex("2");
+
+        graph.addVertex(v1);
+        graph.addVertex(v2);
+        graph.addVertex(new Vertex("1"));
+
+        assertEquals(0, graph.vertexId("1"));
+        assertEquals(1, graph.vertexId("2"));
+        assertEquals(-1, graph.vertexId("pickles"));
+        assertEquals("2", graph.nameOf(1));
+        assertEquals(v1, graph.getVertex(0));
+        assertEquals(2, graph.getOrder());
+    }
+
     @Test
     void testGetOrder() {
         Graph graph = new Graph();
@@ -87,6 +107,29 @@ public class GraphTest {
 
         assertEquals(graph.getSize(), 1);
     }
+
+    @Test
+    void testRepeatedEdge() {
+        Graph graph = new Graph();
+        Vertex v1 = new Vertex("1");
+        Vertex v2 = new Vertex("2");
+        graph.addVertex(v1);
+        graph.addVertex(v2);
+
+        graph.addEdge(v1, v2, "M1");
+        graph.addEdge(v2, v1, "M2");
+        graph.addEdge(v1, v2, "M1");
+        graph.addEdge(v1, v1, "M3");
+
+        assertEquals(1, graph.getSize());
+        assertEquals(1, v1.getOrder());
+        assertEquals(1, v2.getOrder());
+        assertEquals("M1", v1.getEdge("2"));
+        assertEquals(List.of("M1", "M2"), v1.getEdges("2"));
+        assertEquals(List.of("M1", "M2"), v2.getEdges("1"));
+        assertEquals(List.of(), v1.getEdges("1"));
+    }
+
     public void testHasEdge() {
         Graph graph = new Graph();
         Vertex vertexA = new Vertex("A");
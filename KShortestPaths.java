@@ -0,0 +1,239 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+public class KShortestPaths implements Iterator<int[]> {
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final int center;
+    private final int goal;
+    private final List<int[]> accepted;
+    private final PriorityQueue<int[]> candidates;
+    private final Set<PathKey> known;
+    private final int[] blocked;
+    private final int[] seen;
+    private final int[] parent;
+    private final int[] queue;
+    private int epoch;
+    private int[] pending;
+    private boolean started;
+    private int searches;
+
+    /**
+     * The `KShortestPaths` class streams the loopless paths between two actors in
+     * order of length, using Yen's algorithm: each new path is found by taking a
+     * prefix ("root") of the previous path, blocking the root's vertices and the edges
+     * out of its last vertex that earlier paths with the same root already used, and
+     * searching for the shortest way on from there. The candidates are kept in a heap
+     * and the shortest is returned next. Paths are only computed when asked for, so
+     * the first k cost k rounds of spur searches no matter how many paths exist.
+     *
+     * In an unweighted graph every spur search is a plain BFS; its visited, blocked
+     * and parent arrays are stamped with a per-search epoch so they are never cleared.
+     * An instance holds scratch state and must only be used by one thread at a time.
+     *
+     * @param graph  The graph.
+     * @param center The ID of the source vertex.
+     * @param goal   The ID of the destination vertex.
+     */
+    public KShortestPaths(CompactGraph graph, int center, int goal){
+        int order = graph.getOrder();
+        this.offsets = graph.getOffsets();
+        this.targets = graph.getTargets();
+        this.center = center;
+        this.goal = goal;
+        this.accepted = new ArrayList<>();
+        this.candidates = new PriorityQueue<>((a, b) -> a.length != b.length ? Integer.compare(a.length, b.length) : Arrays.compare(a, b));
+        this.known = new HashSet<>();
+        this.blocked = new int[order];
+        this.seen = new int[order];
+        this.parent = new int[order];
+        this.queue = new int[order];
+    }
+
+    /**
+     * Tells whether another path exists, computing it if needed.
+     *
+     * @return True if `next` will return a path.
+     */
+    @Override
+    public boolean hasNext(){
+        if (pending == null) {
+            pending = advance();
+        }
+        return pending != null;
+    }
+
+    /**
+     * Returns the next path: no shorter than any returned before, and different from all of them.
+     *
+     * @return The vertex IDs on the path from center to goal.
+     */
+    @Override
+    public int[] next(){
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int[] path = pending;
+        pending = null;
+        return path;
+    }
+
+    /**
+     * Retrieves the number of BFS searches run so far, including the first one.
+     *
+     * @return The number of spur searches.
+     */
+    public int getSearches(){
+        return searches;
+    }
+
+    private int[] advance(){
+        if (!started) {
+            started = true;
+            int[] first = search(center, new int[0]);
+            if (first != null) {
+                accept(first);
+            }
+            return first;
+        }
+        if (accepted.isEmpty()) {
+            return null;
+        }
+        int[] last = accepted.get(accepted.size() - 1);
+        for (int i = 0; i + 1 < last.length; i++) {
+            int[] root = Arrays.copyOf(last, i + 1);
+            int[] spur = search(last[i], root);
+            if (spur != null) {
+                int[] candidate = Arrays.copyOf(root, i + spur.length);
+                System.arraycopy(spur, 1, candidate, i + 1, spur.length - 1);
+                if (known.add(new PathKey(candidate))) {
+                    candidates.add(candidate);
+                }
+            }
+        }
+        int[] next = candidates.poll();
+        if (next != null) {
+            accept(next);
+        }
+        return next;
+    }
+
+    private void accept(int[] path){
+        accepted.add(path);
+        known.add(new PathKey(path));
+    }
+
+    /**
+     * Finds the shortest path from the last vertex of a root to the goal that avoids
+     * the root's other vertices and every edge an accepted path with the same root
+     * takes out of it.
+     *
+     * @param from The spur vertex, the last vertex of the root.
+     * @param root The root path, or an empty array for the first search.
+     * @return The vertex IDs from the spur vertex to the goal, or null if there is none.
+     */
+    private int[] search(int from, int[] root){
+        nextEpoch();
+        searches++;
+        for (int i = 0; i + 1 < root.length; i++) {
+            blocked[root[i]] = epoch;
+        }
+        int spurIndex = root.length - 1;
+        int[] banned = new int[accepted.size()];
+        int bannedCount = 0;
+        if (root.length > 0) {
+            for (int[] path : accepted) {
+                if (path.length > root.length && Arrays.equals(path, 0, root.length, root, 0, root.length)) {
+                    banned[bannedCount++] = path[spurIndex + 1];
+                }
+            }
+        }
+
+        int head = 0;
+        int tail = 0;
+        seen[from] = epoch;
+        parent[from] = from;
+        queue[tail++] = from;
+        while (head < tail) {
+            int v = queue[head++];
+            if (v == goal) {
+                return walk(from, goal);
+            }
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int w = targets[e];
+                if (seen[w] == epoch || blocked[w] == epoch || v == from && contains(banned, bannedCount, w)) {
+                    continue;
+                }
+                seen[w] = epoch;
+                parent[w] = v;
+                queue[tail++] = w;
+            }
+        }
+        return null;
+    }
+
+    private static boolean contains(int[] values, int count, int value){
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int[] walk(int from, int to){
+        int length = 1;
+        for (int v = to; v != from; v = parent[v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int v = to;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = v;
+            v = parent[v];
+        }
+        return path;
+    }
+
+    /**
+     * Advances the search epoch, clearing the stamp arrays only when the counter wraps.
+     */
+    private void nextEpoch(){
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(blocked, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * A path compared by its vertices, for telling whether a candidate was seen before.
+     */
+    private static final class PathKey {
+        private final int[] path;
+        private final int hash;
+
+        PathKey(int[] path){
+            this.path = path;
+            this.hash = Arrays.hashCode(path);
+        }
+
+        @Override
+        public boolean equals(Object other){
+            return other instanceof PathKey && Arrays.equals(path, ((PathKey) other).path);
+        }
+
+        @Override
+        public int hashCode(){
+            return hash;
+        }
+    }
+}
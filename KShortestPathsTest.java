@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class KShortestPathsTest {
+
+    /**
+     * Counts the loopless paths from v to goal by brute force.
+     */
+    private int countPaths(CompactGraph graph, int v, int goal, boolean[] onPath) {
+        if (v == goal) {
+            return 1;
+        }
+        onPath[v] = true;
+        int count = 0;
+        for (int e = graph.getOffsets()[v]; e < graph.getOffsets()[v + 1]; e++) {
+            int w = graph.getTargets()[e];
+            if (!onPath[w]) {
+                count += countPaths(graph, w, goal, onPath);
+            }
+        }
+        onPath[v] = false;
+        return count;
+    }
+
+    @Test
+    void testSquareWithTail() {
+        // A-B-D and A-C-D around a square, plus a detour A-E-F-D.
+        String[] names = {"A", "B", "C", "D", "E", "F"};
+        String[] titles = {"M1", "M2", "M3", "M4", "M5", "M6", "M7"};
+        int[] creditActor = {0, 1, 0, 2, 1, 3, 2, 3, 0, 4, 4, 5, 5, 3};
+        int[] creditTitle = {0, 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 6, 6};
+        CompactGraph graph = CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, 14));
+        KShortestPaths paths = new KShortestPaths(graph, 0, 3);
+        assertArrayEquals(new int[] {0, 1, 3}, paths.next());
+        assertArrayEquals(new int[] {0, 2, 3}, paths.next());
+        assertArrayEquals(new int[] {0, 4, 5, 3}, paths.next());
+        assertFalse(paths.hasNext());
+        assertEquals(1, new KShortestPaths(graph, 0, 0).next().length);
+    }
+
+    @Test
+    void testMatchesBruteForce() {
+        CompactGraph graph = ShortestPathDagTest.randomGraph(20, 14, 10, 30);
+        for (int center = 0; center < graph.getOrder(); center += 3) {
+            for (int goal = 1; goal < graph.getOrder(); goal += 4) {
+                KShortestPaths paths = new KShortestPaths(graph, center, goal);
+                Set<List<Integer>> seen = new HashSet<>();
+                int first = 0;
+                int previous = 0;
+                int shortest = 0;
+                while (paths.hasNext()) {
+                    int[] path = paths.next();
+                    assertTrue(path.length >= previous);
+                    first = first == 0 ? path.length : first;
+                    if (path.length == first) {
+                        shortest++;
+                    }
+                    previous = path.length;
+                    assertEquals(path.length, Arrays.stream(path).distinct().count());
+                    List<Integer> key = new ArrayList<>();
+                    for (int v : path) {
+                        key.add(v);
+                    }
+                    assertTrue(seen.add(key));
+                }
+                assertEquals(countPaths(graph, center, goal, new boolean[graph.getOrder()]), seen.size());
+                assertEquals(ShortestPathDag.build(graph, center, goal).count(), shortest);
+            }
+        }
+    }
+}
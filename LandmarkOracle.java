@@ -0,0 +1,280 @@
+import java.util.Arrays;
+
+public class LandmarkOracle {
+
+    static final int UNKNOWN = 255;
+
+    private final CompactGraph graph;
+    private final int[] landmarks;
+    private final byte[] distances;
+    private final int count;
+
+    /**
+     * The `LandmarkOracle` class answers distance queries approximately, in time
+     * proportional to the number of landmarks rather than the size of the graph. It
+     * runs one BFS from each of k landmark actors and keeps every vertex's distance
+     * to each landmark as one byte, stored vertex by vertex so a vertex's k distances
+     * sit next to each other. By the triangle inequality, d(a, b) is at most
+     * d(L, a) + d(L, b) and at least |d(L, a) - d(L, b)| for every landmark L. When the
+     * two bounds meet, the distance is exact and a shortest path can be read off the
+     * landmark distances without searching; otherwise the upper bound cuts a
+     * bidirectional search short one level before it would reach that length.
+     *
+     * @param graph     The graph.
+     * @param landmarks The landmark vertex IDs.
+     * @param distances The distance from every vertex to every landmark, vertex-major;
+     *                  UNKNOWN if the landmark cannot reach the vertex.
+     */
+    LandmarkOracle(CompactGraph graph, int[] landmarks, byte[] distances){
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.distances = distances;
+        this.count = landmarks.length;
+    }
+
+    /**
+     * Picks k landmarks and runs a BFS from each.
+     *
+     * @param graph    The graph.
+     * @param k        The number of landmarks.
+     * @param farthest True to pick each landmark as far as possible from the ones
+     *                 already picked, false to pick the highest-degree actors.
+     * @return The oracle.
+     */
+    public static LandmarkOracle build(CompactGraph graph, int k, boolean farthest){
+        int order = graph.getOrder();
+        k = Math.max(1, Math.min(k, order));
+        int[] landmarks = new int[k];
+        byte[] distances = new byte[tableSize(order, k)];
+        if (!farthest) {
+            landmarks = MultiSourceBfs.topDegree(graph, k);
+            for (int i = 0; i < k; i++) {
+                store(distances, k, i, bfs(graph, landmarks[i]));
+            }
+            return new LandmarkOracle(graph, landmarks, distances);
+        }
+
+        // Start from the highest-degree actor, then repeatedly take the reachable vertex
+        // farthest from every landmark picked so far.
+        int[] nearest = new int[order];
+        Arrays.fill(nearest, Integer.MAX_VALUE);
+        int next = MultiSourceBfs.topDegree(graph, 1)[0];
+        for (int i = 0; i < k; i++) {
+            landmarks[i] = next;
+            int[] distance = bfs(graph, next);
+            store(distances, k, i, distance);
+            int best = -1;
+            for (int v = 0; v < order; v++) {
+                if (distance[v] >= 0) {
+                    nearest[v] = Math.min(nearest[v], distance[v]);
+                    if (best < 0 || nearest[v] > nearest[best]) {
+                        best = v;
+                    }
+                }
+            }
+            if (nearest[best] == 0 && i + 1 < k) {
+                // Every reachable vertex is already a landmark.
+                return new LandmarkOracle(graph, Arrays.copyOf(landmarks, i + 1), compact(distances, k, i + 1));
+            }
+            next = best;
+        }
+        return new LandmarkOracle(graph, landmarks, distances);
+    }
+
+    /**
+     * Sizes the distance table of k landmarks without overflowing.
+     *
+     * @param order The number of vertices.
+     * @param k     The number of landmarks.
+     * @return The number of bytes the table needs.
+     * @throws IllegalArgumentException If the table would not fit in one array.
+     */
+    private static int tableSize(int order, int k){
+        long size = (long) order * k;
+        if (size > Integer.MAX_VALUE - 8L) {
+            throw new IllegalArgumentException(k + " landmarks over " + order + " actors need " + size
+                    + " bytes of distances, more than one array can hold; use fewer landmarks.");
+        }
+        return (int) size;
+    }
+
+    private static byte[] compact(byte[] distances, int k, int kept){
+        int order = distances.length / k;
+        byte[] compacted = new byte[order * kept];
+        for (int v = 0; v < order; v++) {
+            System.arraycopy(distances, v * k, compacted, v * kept, kept);
+        }
+        return compacted;
+    }
+
+    private static void store(byte[] distances, int k, int landmark, int[] distance){
+        for (int v = 0; v < distance.length; v++) {
+            int d = distance[v];
+            distances[v * k + landmark] = (byte) (d < 0 || d >= UNKNOWN ? UNKNOWN : d);
+        }
+    }
+
+    private static int[] bfs(CompactGraph graph, int source){
+        int order = graph.getOrder();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] distance = new int[order];
+        Arrays.fill(distance, -1);
+        int[] queue = new int[order];
+        int head = 0;
+        int tail = 0;
+        distance[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int w = targets[e];
+                if (distance[w] < 0) {
+                    distance[w] = distance[v] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Retrieves the distance from a vertex to one landmark.
+     *
+     * @param v        The vertex ID.
+     * @param landmark The landmark's index, from 0 to getCount() - 1.
+     * @return The distance, or UNKNOWN.
+     */
+    int distance(int v, int landmark){
+        return distances[v * count + landmark] & 0xff;
+    }
+
+    /**
+     * Computes a lower bound on the distance between two vertices.
+     *
+     * @param a The first vertex ID.
+     * @param b The second vertex ID.
+     * @return A value no larger than the true distance.
+     */
+    public int lowerBound(int a, int b){
+        int bound = 0;
+        for (int i = 0; i < count; i++) {
+            int da = distance(a, i);
+            int db = distance(b, i);
+            if (da != UNKNOWN && db != UNKNOWN) {
+                bound = Math.max(bound, Math.abs(da - db));
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Computes an upper bound on the distance between two vertices.
+     *
+     * @param a The first vertex ID.
+     * @param b The second vertex ID.
+     * @return A value no smaller than the true distance, or -1 if no landmark reaches both.
+     */
+    public int upperBound(int a, int b){
+        int landmark = bestLandmark(a, b);
+        if (landmark < 0) {
+            return -1;
+        }
+        return distance(a, landmark) + distance(b, landmark);
+    }
+
+    /**
+     * Finds the landmark giving the smallest upper bound between two vertices.
+     *
+     * @return The landmark's index, or -1 if none reaches both.
+     */
+    private int bestLandmark(int a, int b){
+        int best = -1;
+        int bound = Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            int da = distance(a, i);
+            int db = distance(b, i);
+            if (da != UNKNOWN && db != UNKNOWN && da + db < bound) {
+                bound = da + db;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Builds a path through the best landmark by walking down the landmark's distances
+     * from each end. Its length is upperBound(a, b), so it is a shortest path whenever
+     * the two bounds are equal.
+     *
+     * @param a The first vertex ID.
+     * @param b The second vertex ID.
+     * @return The vertex IDs from a to b, or an empty array if no landmark reaches both.
+     */
+    public int[] pathVia(int a, int b){
+        int landmark = bestLandmark(a, b);
+        if (landmark < 0) {
+            return new int[0];
+        }
+        int da = distance(a, landmark);
+        int db = distance(b, landmark);
+        int[] path = new int[da + db + 1];
+        int[] down = descend(b, landmark, db);
+        int[] up = descend(a, landmark, da);
+        System.arraycopy(up, 0, path, 0, up.length);
+        for (int i = 0; i < db; i++) {
+            path[da + 1 + i] = down[db - 1 - i];
+        }
+        return path;
+    }
+
+    /**
+     * Walks from a vertex to a landmark, each step to a neighbour one closer to it.
+     *
+     * @return The vertices from v to the landmark; length is steps + 1.
+     */
+    private int[] descend(int v, int landmark, int steps){
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] walk = new int[steps + 1];
+        walk[0] = v;
+        for (int i = 1; i <= steps; i++) {
+            int want = steps - i;
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                if (distance(targets[e], landmark) == want) {
+                    v = targets[e];
+                    break;
+                }
+            }
+            walk[i] = v;
+        }
+        return walk;
+    }
+
+    /**
+     * Retrieves the landmarks.
+     *
+     * @return The landmark vertex IDs.
+     */
+    public int[] getLandmarks(){
+        return landmarks.clone();
+    }
+
+    /**
+     * Retrieves the number of landmarks.
+     *
+     * @return The number of landmarks.
+     */
+    public int getCount(){
+        return count;
+    }
+
+    /**
+     * Retrieves the memory used by the distance table.
+     *
+     * @return The number of bytes.
+     */
+    public long getBytes(){
+        return distances.length;
+    }
+}
@@ -0,0 +1,108 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+public class LandmarkOracleTest {
+
+    private CompactGraph randomGraph(long seed) {
+        Random random = new Random(seed);
+        String[] names = new String[200];
+        String[] titles = new String[120];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "A" + i;
+        }
+        for (int i = 0; i < titles.length; i++) {
+            titles[i] = "T" + i;
+        }
+        int[] creditActor = new int[360];
+        int[] creditTitle = new int[360];
+        for (int i = 0; i < creditActor.length; i++) {
+            creditActor[i] = random.nextInt(names.length);
+            creditTitle[i] = random.nextInt(titles.length);
+        }
+        return CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, creditActor.length));
+    }
+
+    private boolean adjacent(CompactGraph graph, int v, int w) {
+        for (int e = graph.getOffsets()[v]; e < graph.getOffsets()[v + 1]; e++) {
+            if (graph.getTargets()[e] == w) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void testChain() {
+        // A - B - C - D - E through one title per pair, with C as the only landmark.
+        String[] names = {"A", "B", "C", "D", "E"};
+        String[] titles = {"M1", "M2", "M3", "M4"};
+        int[] creditActor = {0, 1, 1, 2, 2, 3, 3, 4};
+        int[] creditTitle = {0, 0, 1, 1, 2, 2, 3, 3};
+        CompactGraph graph = CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, 8));
+        LandmarkOracle oracle = new LandmarkOracle(graph, new int[] {2}, new byte[] {2, 1, 0, 1, 2});
+        assertEquals(0, oracle.lowerBound(0, 4));
+        assertEquals(4, oracle.upperBound(0, 4));
+        assertEquals(2, oracle.lowerBound(0, 2));
+        assertEquals(2, oracle.upperBound(0, 2));
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, oracle.pathVia(0, 4));
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, new BidirectionalSearch(graph).findPath(0, 4, oracle));
+    }
+
+    @Test
+    void testBoundsAndPaths() {
+        CompactGraph graph = randomGraph(17);
+        BidirectionalSearch plain = new BidirectionalSearch(graph);
+        BidirectionalSearch bounded = new BidirectionalSearch(graph);
+        for (boolean farthest : new boolean[] {false, true}) {
+            LandmarkOracle oracle = LandmarkOracle.build(graph, 6, farthest);
+            assertEquals(6, oracle.getCount());
+            assertEquals(6L * graph.getOrder(), oracle.getBytes());
+            for (int a = 0; a < graph.getOrder(); a += 3) {
+                for (int b = 1; b < graph.getOrder(); b += 7) {
+                    int[] expected = plain.findPath(a, b);
+                    int[] path = bounded.findPath(a, b, oracle);
+                    assertEquals(expected.length, path.length);
+                    for (int i = 0; i + 1 < path.length; i++) {
+                        assertTrue(adjacent(graph, path[i], path[i + 1]));
+                    }
+                    if (expected.length > 0) {
+                        int distance = expected.length - 1;
+                        int upper = oracle.upperBound(a, b);
+                        assertTrue(oracle.lowerBound(a, b) <= distance);
+                        assertTrue(upper < 0 || upper >= distance);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFarthestSpreadsLandmarks() {
+        CompactGraph graph = randomGraph(3);
+        int[] landmarks = LandmarkOracle.build(graph, 4, true).getLandmarks();
+        assertEquals(MultiSourceBfs.topDegree(graph, 1)[0], landmarks[0]);
+        for (int i = 1; i < landmarks.length; i++) {
+            for (int j = 0; j < i; j++) {
+                assertTrue(landmarks[i] != landmarks[j]);
+            }
+        }
+    }
+
+    @Test
+    void testTableTooLarge() {
+        // 50000 isolated actors: 50000 landmarks would need 2.5 GB of distances.
+        int order = 50000;
+        String[] names = new String[order];
+        for (int v = 0; v < order; v++) {
+            names[v] = "A" + v;
+        }
+        CompactGraph graph = new CompactGraph(names, new String[0], new int[order + 1], new int[0], new int[0]);
+        assertThrows(IllegalArgumentException.class, () -> LandmarkOracle.build(graph, order, false));
+    }
+}
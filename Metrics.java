@@ -0,0 +1,254 @@
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Metrics {
+
+    public static final String PARSE = "parse";
+    public static final String INDEX = "index";
+    public static final String EDGES = "edges";
+    public static final String SNAPSHOT = "snapshot";
+    public static final String APPEND = "append";
+    public static final String COMPONENTS = "components";
+    public static final String LANDMARKS = "landmarks";
+    public static final String LABELS = "labels";
+    public static final String NAMES = "names";
+    public static final String MASK = "mask";
+    public static final String REORDER = "reorder";
+    public static final String QUERY = "query";
+    public static final String DEQUEUED = "vertices_dequeued";
+    public static final String SCANNED = "edges_scanned";
+    public static final String PEAK_FRONTIER = "peak_frontier";
+    public static final String HEAP = "heap_used_bytes";
+
+    private final Map<String, Timer> timers;
+    private final Map<String, LongAdder> counters;
+    private final Map<String, LongAccumulator> peaks;
+    private final Map<String, AtomicLong> gauges;
+
+    /**
+     * The `Metrics` class collects phase timings, traversal counters and gauges for one
+     * run: how long parsing, indexing, edge building and queries took, how many
+     * vertices and edges the searches touched, the largest BFS frontier, and the heap
+     * used once the graph was built. Every method is safe to call from several threads
+     * at once, so batch workers can share one instance. The collected values can be
+     * dumped as text, JSON or the Prometheus text format.
+     */
+    public Metrics(){
+        timers = new ConcurrentHashMap<>();
+        counters = new ConcurrentHashMap<>();
+        peaks = new ConcurrentHashMap<>();
+        gauges = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Total time, call count and longest call of one phase.
+     */
+    private static final class Timer {
+        final LongAdder count = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Records one run of a phase that started at the given time.
+     *
+     * @param phase The phase name.
+     * @param start The System.nanoTime() value taken when the phase started.
+     */
+    public void time(String phase, long start){
+        long elapsed = System.nanoTime() - start;
+        Timer timer = timers.computeIfAbsent(phase, p -> new Timer());
+        timer.count.increment();
+        timer.nanos.add(elapsed);
+        timer.max.accumulate(elapsed);
+    }
+
+    /**
+     * Adds to a counter.
+     *
+     * @param counter The counter name.
+     * @param amount  The amount to add.
+     */
+    public void count(String counter, long amount){
+        counters.computeIfAbsent(counter, c -> new LongAdder()).add(amount);
+    }
+
+    /**
+     * Raises a peak gauge to value if value is larger.
+     *
+     * @param peak  The gauge name.
+     * @param value The observed value.
+     */
+    public void peak(String peak, long value){
+        peaks.computeIfAbsent(peak, p -> new LongAccumulator(Math::max, 0)).accumulate(value);
+    }
+
+    /**
+     * Sets a gauge.
+     *
+     * @param gauge The gauge name.
+     * @param value The value.
+     */
+    public void gauge(String gauge, long value){
+        gauges.computeIfAbsent(gauge, g -> new AtomicLong()).set(value);
+    }
+
+    /**
+     * Records the traversal counters of the last query run by a bidirectional search.
+     *
+     * @param search The search that just answered a query.
+     */
+    public void recordSearch(BidirectionalSearch search){
+        count(DEQUEUED, search.getDequeued());
+        count(SCANNED, search.getScanned());
+        peak(PEAK_FRONTIER, search.getPeakFrontier());
+    }
+
+    /**
+     * Runs a garbage collection and records the heap still in use, which after the
+     * build is roughly the memory the graph holds.
+     */
+    public void recordHeap(){
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        gauge(HEAP, runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    /**
+     * Retrieves the number of times a phase was recorded.
+     *
+     * @param phase The phase name.
+     * @return The call count, or 0 if the phase never ran.
+     */
+    public long getCount(String phase){
+        Timer timer = timers.get(phase);
+        return timer == null ? 0 : timer.count.sum();
+    }
+
+    /**
+     * Retrieves the total time spent in a phase.
+     *
+     * @param phase The phase name.
+     * @return The total time in nanoseconds, or 0 if the phase never ran.
+     */
+    public long getNanos(String phase){
+        Timer timer = timers.get(phase);
+        return timer == null ? 0 : timer.nanos.sum();
+    }
+
+    /**
+     * Retrieves the value of a counter, peak or gauge.
+     *
+     * @param name The metric name.
+     * @return The value, or 0 if it was never recorded.
+     */
+    public long get(String name){
+        if (counters.containsKey(name)) {
+            return counters.get(name).sum();
+        }
+        if (peaks.containsKey(name)) {
+            return peaks.get(name).get();
+        }
+        if (gauges.containsKey(name)) {
+            return gauges.get(name).get();
+        }
+        return 0;
+    }
+
+    /**
+     * Collects every counter, peak and gauge by name.
+     *
+     * @return The values, sorted by name.
+     */
+    private Map<String, Long> values(){
+        Map<String, Long> values = new TreeMap<>();
+        for (String name : counters.keySet()) {
+            values.put(name, get(name));
+        }
+        for (String name : peaks.keySet()) {
+            values.put(name, get(name));
+        }
+        for (String name : gauges.keySet()) {
+            values.put(name, get(name));
+        }
+        return values;
+    }
+
+    /**
+     * Formats the metrics for people, with per-query averages of the traversal counters.
+     *
+     * @return The report text.
+     */
+    public String report(){
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Timer> entry : new TreeMap<>(timers).entrySet()) {
+            Timer timer = entry.getValue();
+            long count = timer.count.sum();
+            text.append(String.format("%-20s %10.3f ms total  %8d calls  %10.3f ms max%n", entry.getKey(),
+                    timer.nanos.sum() / 1e6, count, timer.max.get() / 1e6));
+        }
+        long queries = getCount(QUERY);
+        for (Map.Entry<String, Long> entry : values().entrySet()) {
+            text.append(String.format("%-20s %14d", entry.getKey(), entry.getValue()));
+            if (counters.containsKey(entry.getKey()) && queries > 0) {
+                text.append(String.format("  (%.1f per query)", (double) entry.getValue() / queries));
+            }
+            text.append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+
+    /**
+     * Formats the metrics as one JSON object.
+     *
+     * @return The JSON text.
+     */
+    public String toJson(){
+        StringBuilder json = new StringBuilder("{\"phases\":{");
+        boolean first = true;
+        for (Map.Entry<String, Timer> entry : new TreeMap<>(timers).entrySet()) {
+            Timer timer = entry.getValue();
+            json.append(first ? "" : ",").append(BatchRunner.quote(entry.getKey()));
+            json.append(":{\"count\":").append(timer.count.sum());
+            json.append(",\"nanos\":").append(timer.nanos.sum());
+            json.append(",\"maxNanos\":").append(timer.max.get()).append('}');
+            first = false;
+        }
+        json.append('}');
+        for (Map.Entry<String, Long> entry : values().entrySet()) {
+            json.append(',').append(BatchRunner.quote(entry.getKey())).append(':').append(entry.getValue());
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Formats the metrics in the Prometheus text exposition format.
+     *
+     * @return The exposition text.
+     */
+    public String toPrometheus(){
+        StringBuilder text = new StringBuilder();
+        Map<String, Timer> sorted = new TreeMap<>(timers);
+        text.append("# TYPE bacon_phase_seconds_total counter\n");
+        for (Map.Entry<String, Timer> entry : sorted.entrySet()) {
+            text.append("bacon_phase_seconds_total{phase=\"").append(entry.getKey()).append("\"} ")
+                    .append(entry.getValue().nanos.sum() / 1e9).append('\n');
+        }
+        text.append("# TYPE bacon_phase_calls_total counter\n");
+        for (Map.Entry<String, Timer> entry : sorted.entrySet()) {
+            text.append("bacon_phase_calls_total{phase=\"").append(entry.getKey()).append("\"} ")
+                    .append(entry.getValue().count.sum()).append('\n');
+        }
+        for (Map.Entry<String, Long> entry : values().entrySet()) {
+            boolean counter = counters.containsKey(entry.getKey());
+            String name = "bacon_" + entry.getKey() + (counter ? "_total" : "");
+            text.append("# TYPE ").append(name).append(counter ? " counter\n" : " gauge\n");
+            text.append(name).append(' ').append(entry.getValue()).append('\n');
+        }
+        return text.toString();
+    }
+}
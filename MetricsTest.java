@@ -0,0 +1,79 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+public class MetricsTest {
+
+    private CompactGraph chain() {
+        String[] names = {"A", "B", "C", "D"};
+        String[] titles = {"M1", "M2", "M3"};
+        int[] creditActor = {0, 1, 1, 2, 2, 3};
+        int[] creditTitle = {0, 0, 1, 1, 2, 2};
+        return CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, 6));
+    }
+
+    @Test
+    void testCounters() {
+        Metrics metrics = new Metrics();
+        metrics.count(Metrics.SCANNED, 5);
+        metrics.count(Metrics.SCANNED, 7);
+        metrics.peak(Metrics.PEAK_FRONTIER, 3);
+        metrics.peak(Metrics.PEAK_FRONTIER, 2);
+        metrics.gauge(Metrics.HEAP, 100);
+        metrics.time(Metrics.QUERY, System.nanoTime());
+        metrics.time(Metrics.QUERY, System.nanoTime());
+
+        assertEquals(12, metrics.get(Metrics.SCANNED));
+        assertEquals(3, metrics.get(Metrics.PEAK_FRONTIER));
+        assertEquals(100, metrics.get(Metrics.HEAP));
+        assertEquals(0, metrics.get(Metrics.DEQUEUED));
+        assertEquals(2, metrics.getCount(Metrics.QUERY));
+        assertEquals(0, metrics.getCount(Metrics.PARSE));
+    }
+
+    @Test
+    void testSearchCounters() {
+        BidirectionalSearch search = new BidirectionalSearch(chain());
+        search.findPath(0, 3);
+        assertEquals(3, search.getDequeued());
+        assertEquals(5, search.getScanned());
+        assertEquals(1, search.getPeakFrontier());
+        assertEquals(1, search.getQueries());
+    }
+
+    @Test
+    void testFormats() {
+        Metrics metrics = new Metrics();
+        CompactGraph.fromCredits(new CreditTable(new String[] {"A", "B"}, new String[] {"M"},
+                new int[] {0, 1}, new int[] {0, 0}, 2), metrics);
+        metrics.count(Metrics.DEQUEUED, 4);
+        assertEquals(1, metrics.getCount(Metrics.INDEX));
+        assertEquals(1, metrics.getCount(Metrics.EDGES));
+
+        String json = metrics.toJson();
+        assertTrue(json.startsWith("{\"phases\":{\"components\":{\"count\":1,"));
+        assertTrue(json.endsWith(",\"vertices_dequeued\":4}"));
+
+        String prometheus = metrics.toPrometheus();
+        assertTrue(prometheus.contains("bacon_phase_calls_total{phase=\"index\"} 1\n"));
+        assertTrue(prometheus.contains("# TYPE bacon_vertices_dequeued_total counter\nbacon_vertices_dequeued_total 4\n"));
+    }
+
+    @Test
+    void testBatchRecordsQueries() throws IOException {
+        Metrics metrics = new Metrics();
+        BatchRunner runner = new BatchRunner(chain(), "A", 2, false, null, metrics);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        runner.run(new BufferedReader(new StringReader("D\nC\nZ\n")), new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        assertEquals(2, metrics.getCount(Metrics.QUERY));
+        assertTrue(metrics.get(Metrics.SCANNED) > 0);
+    }
+}
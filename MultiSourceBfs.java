@@ -0,0 +1,159 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class MultiSourceBfs {
+
+    private static final int WIDTH = 64;
+
+    private final CompactGraph graph;
+    private final int[] offsets;
+    private final int[] targets;
+
+    /**
+     * The `MultiSourceBfs` class runs breadth-first searches from up to 64 sources at
+     * once (MS-BFS). Every vertex keeps one long word per state: bit i of seen[v] says
+     * source i has reached v, and bit i of visit[v] says v is on source i's current
+     * frontier. One sweep over a frontier vertex's adjacency therefore advances every
+     * source that has it on its frontier, so vertices and edges shared by many of the
+     * searches are only touched once per level. Batches of 64 sources are independent
+     * and run in parallel on a ForkJoinPool.
+     *
+     * @param graph The graph to search.
+     */
+    public MultiSourceBfs(CompactGraph graph){
+        this.graph = graph;
+        this.offsets = graph.getOffsets();
+        this.targets = graph.getTargets();
+    }
+
+    /**
+     * Runs a full BFS from every source and gathers its distance statistics.
+     *
+     * @param sources The vertex IDs to search from.
+     * @param pool    The pool to run the batches on.
+     * @return The statistics of every source.
+     */
+    public CenterReport run(int[] sources, ForkJoinPool pool){
+        long[] distanceSums = new long[sources.length];
+        int[] reached = new int[sources.length];
+        int[] eccentricity = new int[sources.length];
+        List<RecursiveAction> batches = new ArrayList<>();
+        for (int from = 0; from < sources.length; from += WIDTH) {
+            int first = from;
+            int last = Math.min(sources.length, from + WIDTH);
+            batches.add(new RecursiveAction() {
+                @Override
+                protected void compute(){
+                    runBatch(sources, first, last, distanceSums, reached, eccentricity);
+                }
+            });
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute(){
+                invokeAll(batches);
+            }
+        });
+        return new CenterReport(graph, sources, distanceSums, reached, eccentricity);
+    }
+
+    /**
+     * Runs one batch of at most 64 sources together.
+     */
+    private void runBatch(int[] sources, int first, int last, long[] distanceSums, int[] reached, int[] eccentricity){
+        int order = graph.getOrder();
+        long[] seen = new long[order];
+        long[] visit = new long[order];
+        long[] visitNext = new long[order];
+        int[] frontier = new int[order];
+        int[] nextFrontier = new int[order];
+        boolean[] queued = new boolean[order];
+        int frontierSize = 0;
+
+        for (int i = first; i < last; i++) {
+            int s = sources[i];
+            long bit = 1L << (i - first);
+            seen[s] |= bit;
+            if (visit[s] == 0) {
+                frontier[frontierSize++] = s;
+            }
+            visit[s] |= bit;
+            reached[i] = 1;
+        }
+
+        int level = 0;
+        while (frontierSize > 0) {
+            level++;
+            int nextSize = 0;
+            for (int f = 0; f < frontierSize; f++) {
+                int v = frontier[f];
+                long bits = visit[v];
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int w = targets[e];
+                    if ((bits & ~seen[w]) != 0) {
+                        visitNext[w] |= bits;
+                        if (!queued[w]) {
+                            queued[w] = true;
+                            nextFrontier[nextSize++] = w;
+                        }
+                    }
+                }
+                visit[v] = 0;
+            }
+
+            int kept = 0;
+            for (int f = 0; f < nextSize; f++) {
+                int w = nextFrontier[f];
+                queued[w] = false;
+                long fresh = visitNext[w] & ~seen[w];
+                visitNext[w] = 0;
+                if (fresh == 0) {
+                    continue;
+                }
+                seen[w] |= fresh;
+                visit[w] = fresh;
+                nextFrontier[kept++] = w;
+                while (fresh != 0) {
+                    int i = first + Long.numberOfTrailingZeros(fresh);
+                    fresh &= fresh - 1;
+                    distanceSums[i] += level;
+                    reached[i]++;
+                    eccentricity[i] = level;
+                }
+            }
+
+            int[] swap = frontier;
+            frontier = nextFrontier;
+            nextFrontier = swap;
+            frontierSize = kept;
+        }
+    }
+
+    /**
+     * Picks the vertices with the highest degree, a cheap way to choose candidate
+     * centers when searching from every vertex would take too long.
+     *
+     * @param graph The graph.
+     * @param count The number of vertices to pick.
+     * @return The IDs of the highest-degree vertices, highest first.
+     */
+    public static int[] topDegree(CompactGraph graph, int count){
+        int order = graph.getOrder();
+        count = Math.min(count, order);
+        Integer[] ids = new Integer[order];
+        for (int v = 0; v < order; v++) {
+            ids[v] = v;
+        }
+        Arrays.sort(ids, (a, b) -> graph.degree(b) != graph.degree(a)
+                ? Integer.compare(graph.degree(b), graph.degree(a))
+                : Integer.compare(a, b));
+        int[] top = new int[count];
+        for (int i = 0; i < count; i++) {
+            top[i] = ids[i];
+        }
+        return top;
+    }
+}
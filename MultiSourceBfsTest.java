@@ -0,0 +1,64 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class MultiSourceBfsTest {
+
+    private CompactGraph randomGraph(int actors, int titles, int credits, long seed) {
+        Random random = new Random(seed);
+        String[] names = new String[actors];
+        String[] titleNames = new String[titles];
+        for (int i = 0; i < actors; i++) {
+            names[i] = "A" + i;
+        }
+        for (int i = 0; i < titles; i++) {
+            titleNames[i] = "M" + i;
+        }
+        int[] creditActor = new int[credits];
+        int[] creditTitle = new int[credits];
+        for (int i = 0; i < credits; i++) {
+            creditActor[i] = random.nextInt(actors);
+            creditTitle[i] = random.nextInt(titles);
+        }
+        return CompactGraph.fromCredits(new CreditTable(names, titleNames, creditActor, creditTitle, credits));
+    }
+
+    @Test
+    void testMatchesSingleSourceBfs() {
+        CompactGraph graph = randomGraph(400, 250, 600, 5);
+        int[] sources = new int[150];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = (i * 7) % 400;
+        }
+        CenterReport report = new MultiSourceBfs(graph).run(sources, ForkJoinPool.commonPool());
+
+        assertEquals(150, report.size());
+        for (int i = 0; i < sources.length; i++) {
+            BaconTable table = new BaconTable(graph, sources[i]);
+            long[] histogram = table.getHistogram();
+            assertEquals(table.getReachable(), report.reached(i));
+            assertEquals(histogram.length - 1, report.eccentricity(i));
+            assertEquals(table.getAverage(), report.averageDistance(i), 1e-9);
+        }
+    }
+
+    @Test
+    void testRanked() {
+        String[] names = {"Hub", "A", "B", "C", "Lonely1", "Lonely2"};
+        String[] titles = {"M1", "M2", "M3", "M4"};
+        int[] creditActor = {0, 1, 0, 2, 0, 3, 4, 5};
+        int[] creditTitle = {0, 0, 1, 1, 2, 2, 3, 3};
+        CompactGraph graph = CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, 8));
+        CenterReport report = new MultiSourceBfs(graph).run(new int[] {1, 4, 0}, ForkJoinPool.commonPool());
+
+        int[] ranked = report.ranked();
+        assertEquals(0, report.source(ranked[0]));
+        assertEquals(4, report.source(ranked[2]));
+        assertTrue(report.report(2).contains("Hub"));
+        assertEquals(0, MultiSourceBfs.topDegree(graph, 1)[0]);
+    }
+}
@@ -0,0 +1,381 @@
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntUnaryOperator;
+
+public class NameIndex {
+
+    private static final int CHUNK = 4096;
+    private static final double MIN_SIMILARITY = 0.35;
+    private static final int EXACT = 0;
+    private static final int BASE = 1;
+    private static final int PREFIX = 2;
+    private static final int FUZZY = 3;
+
+    private final StringDictionary names;
+    private final String[] keys;
+    private final int[] sorted;
+    private final int[] gramCounts;
+    private final int mask;
+    private final int[] postingStart;
+    private final int[] postings;
+    private final ThreadLocal<int[][]> scratch;
+
+    /**
+     * The `NameIndex` class resolves misspelled or partial actor names. Every name is
+     * normalised to a key: lower case, accents removed and runs of spaces collapsed.
+     * The keys are kept sorted for prefix lookups, and each key is split into
+     * overlapping three-character grams with an inverted list per gram, so a fuzzy
+     * lookup only scores the names that share a gram with the query, by the Dice
+     * coefficient of their gram counts.
+     *
+     * Results are ranked in tiers: an exact key match, then a match once a trailing
+     * disambiguation such as " (I)" is dropped, then prefix matches, then fuzzy
+     * matches by similarity. Within a tier, and between equally similar fuzzy matches,
+     * the caller's weight decides, such as an actor's degree, so well-known actors
+     * come first. Each thread keeps its own scratch counters for fuzzy lookups.
+     *
+     * Grams are hashed into a power-of-two number of buckets; a collision only adds a
+     * candidate with a slightly inflated score.
+     *
+     * @param names        The names, by vertex ID.
+     * @param keys         The normalised key of each name.
+     * @param sorted       The vertex IDs in key order.
+     * @param gramCounts   The number of grams in each key.
+     * @param postingStart The start of each bucket's posting run; length is buckets + 1.
+     * @param postings     The vertex IDs of every bucket, back to back.
+     */
+    private NameIndex(StringDictionary names, String[] keys, int[] sorted, int[] gramCounts, int[] postingStart, int[] postings){
+        this.names = names;
+        this.keys = keys;
+        this.sorted = sorted;
+        this.gramCounts = gramCounts;
+        this.mask = postingStart.length - 2;
+        this.postingStart = postingStart;
+        this.postings = postings;
+        this.scratch = ThreadLocal.withInitial(() -> new int[][] {new int[keys.length], new int[keys.length]});
+    }
+
+    /**
+     * Builds the index of a set of names, in chunks on a pool.
+     *
+     * @param names The names, by vertex ID.
+     * @param pool  The pool to build on.
+     * @return The index.
+     */
+    public static NameIndex build(StringDictionary names, ForkJoinPool pool){
+        int count = names.size();
+        int buckets = Math.max(1 << 10, Math.min(1 << 20, Integer.highestOneBit(Math.max(1, count) * 4)));
+        String[] keys = new String[count];
+        int[] gramCounts = new int[count];
+        int chunks = (count + CHUNK - 1) / CHUNK;
+        int[][] chunkCounts = new int[chunks][];
+
+        // First pass: normalise every name and count its grams per bucket, chunk by chunk.
+        runChunks(pool, chunks, chunk -> {
+            int[] bucketCounts = new int[buckets];
+            for (int id = chunk * CHUNK; id < Math.min(count, (chunk + 1) * CHUNK); id++) {
+                String key = normalize(names.get(id));
+                keys[id] = key;
+                String padded = pad(key);
+                gramCounts[id] = padded.length() - 2;
+                for (int i = 0; i + 3 <= padded.length(); i++) {
+                    bucketCounts[bucket(padded, i, buckets - 1)]++;
+                }
+            }
+            chunkCounts[chunk] = bucketCounts;
+        });
+
+        // Turn the counts into each chunk's write position in every bucket, then scatter.
+        int[] postingStart = new int[buckets + 1];
+        int total = 0;
+        for (int b = 0; b < buckets; b++) {
+            postingStart[b] = total;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int size = chunkCounts[chunk][b];
+                chunkCounts[chunk][b] = total;
+                total += size;
+            }
+        }
+        postingStart[buckets] = total;
+        int[] postings = new int[total];
+        runChunks(pool, chunks, chunk -> {
+            int[] next = chunkCounts[chunk];
+            for (int id = chunk * CHUNK; id < Math.min(count, (chunk + 1) * CHUNK); id++) {
+                String padded = pad(keys[id]);
+                for (int i = 0; i + 3 <= padded.length(); i++) {
+                    postings[next[bucket(padded, i, buckets - 1)]++] = id;
+                }
+            }
+        });
+
+        Integer[] order = new Integer[count];
+        for (int id = 0; id < count; id++) {
+            order[id] = id;
+        }
+        Arrays.parallelSort(order, (a, b) -> {
+            int byKey = keys[a].compareTo(keys[b]);
+            return byKey != 0 ? byKey : Integer.compare(a, b);
+        });
+        int[] sorted = new int[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = order[i];
+        }
+        return new NameIndex(names, keys, sorted, gramCounts, postingStart, postings);
+    }
+
+    private interface ChunkBody {
+        void run(int chunk);
+    }
+
+    private static void runChunks(ForkJoinPool pool, int chunks, ChunkBody body){
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int index = chunk;
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute(){
+                    body.run(index);
+                }
+            });
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute(){
+                invokeAll(tasks);
+            }
+        });
+    }
+
+    /**
+     * Normalises a name for matching: accents removed, lower case, and spaces trimmed
+     * and collapsed.
+     *
+     * @param name The name.
+     * @return The key.
+     */
+    static String normalize(String name){
+        String stripped = name;
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) >= 0x80) {
+                stripped = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+                break;
+            }
+        }
+        // Lower-case and collapse whitespace in one pass; most names are plain ASCII.
+        StringBuilder key = new StringBuilder(stripped.length());
+        boolean space = false;
+        for (int i = 0; i < stripped.length(); i++) {
+            char c = stripped.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = key.length() > 0;
+            }
+            else {
+                if (space) {
+                    key.append(' ');
+                    space = false;
+                }
+                key.append(c < 0x80 ? (char) (c >= 'A' && c <= 'Z' ? c + 32 : c) : Character.toLowerCase(c));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Drops a trailing disambiguation in parentheses, such as the " (I)" in
+     * "kevin bacon (i)".
+     *
+     * @param key A normalised name.
+     * @return The key without its disambiguation.
+     */
+    static String base(String key){
+        if (key.endsWith(")")) {
+            int open = key.lastIndexOf(" (");
+            if (open > 0) {
+                return key.substring(0, open);
+            }
+        }
+        return key;
+    }
+
+    private static String pad(String key){
+        return "  " + key + " ";
+    }
+
+    private static int bucket(String padded, int at, int mask){
+        long gram = (long) padded.charAt(at) << 32 | (long) padded.charAt(at + 1) << 16 | padded.charAt(at + 2);
+        long mixed = gram * 0x9e3779b97f4a7c15L;
+        return (int) (mixed >>> 40) & mask;
+    }
+
+    /**
+     * Finds the vertex a name most likely means: the exact name if it exists, else
+     * the best-weighted name whose key, with or without its disambiguation, equals the
+     * query's key. Misspellings are not resolved; use `suggest` for those.
+     *
+     * @param query  The name as typed.
+     * @param weight The tie-break weight of each vertex ID, such as its degree.
+     * @return The vertex ID, or -1 if no name matches.
+     */
+    public int resolve(String query, IntUnaryOperator weight){
+        int exact = names.find(query);
+        if (exact >= 0) {
+            return exact;
+        }
+        int[] best = suggest(query, 1, weight);
+        if (best.length == 0) {
+            return -1;
+        }
+        String key = keys[best[0]];
+        String wanted = normalize(query);
+        return key.equals(wanted) || base(key).equals(wanted) ? best[0] : -1;
+    }
+
+    /**
+     * Ranks the names closest to a query: exact and disambiguation matches first,
+     * then names starting with the query, then names sharing enough of its grams.
+     *
+     * @param query  The name or part of a name as typed.
+     * @param limit  The largest number of results.
+     * @param weight The tie-break weight of each vertex ID, such as its degree; null for none.
+     * @return The vertex IDs of the best matches, best first.
+     */
+    public int[] suggest(String query, int limit, IntUnaryOperator weight){
+        String key = normalize(query);
+        Ranking ranking = new Ranking(limit, weight);
+        if (key.isEmpty() || limit <= 0) {
+            return ranking.result();
+        }
+
+        // Prefix matches are a contiguous run of the sorted keys.
+        int from = lowerBound(key);
+        for (int i = from; i < sorted.length && keys[sorted[i]].startsWith(key); i++) {
+            int id = sorted[i];
+            String candidate = keys[id];
+            int tier = candidate.equals(key) ? EXACT : base(candidate).equals(key) ? BASE : PREFIX;
+            ranking.offer(id, tier, 0);
+        }
+
+        String padded = pad(key);
+        int queryGrams = padded.length() - 2;
+        int[][] buffers = scratch.get();
+        int[] counts = buffers[0];
+        int[] touched = buffers[1];
+        int touchedCount = 0;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            int b = bucket(padded, i, mask);
+            for (int p = postingStart[b]; p < postingStart[b + 1]; p++) {
+                int id = postings[p];
+                if (counts[id]++ == 0) {
+                    touched[touchedCount++] = id;
+                }
+            }
+        }
+        for (int t = 0; t < touchedCount; t++) {
+            int id = touched[t];
+            double similarity = 2.0 * Math.min(counts[id], Math.min(queryGrams, gramCounts[id])) / (queryGrams + gramCounts[id]);
+            counts[id] = 0;
+            if (similarity >= MIN_SIMILARITY && !keys[id].startsWith(key)) {
+                ranking.offer(id, FUZZY, similarity);
+            }
+        }
+        return ranking.result();
+    }
+
+    private int lowerBound(String key){
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[sorted[mid]].compareTo(key) < 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Retrieves the name of a vertex.
+     *
+     * @param id The vertex ID.
+     * @return The name as stored.
+     */
+    public String nameOf(int id){
+        return names.get(id);
+    }
+
+    /**
+     * Retrieves the number of names in the index.
+     *
+     * @return The number of names.
+     */
+    public int size(){
+        return keys.length;
+    }
+
+    /**
+     * Keeps the best few results seen so far, ordered by tier, then score, then
+     * weight, then vertex ID.
+     */
+    private static class Ranking {
+        private final int[] ids;
+        private final int[] tiers;
+        private final double[] scores;
+        private final int[] weights;
+        private final IntUnaryOperator weight;
+        private int size;
+
+        Ranking(int limit, IntUnaryOperator weight){
+            int capacity = Math.max(0, limit);
+            this.ids = new int[capacity];
+            this.tiers = new int[capacity];
+            this.scores = new double[capacity];
+            this.weights = new int[capacity];
+            this.weight = weight;
+        }
+
+        void offer(int id, int tier, double score){
+            int w = weight == null ? 0 : weight.applyAsInt(id);
+            int at = size;
+            while (at > 0 && better(id, tier, score, w, at - 1)) {
+                at--;
+            }
+            if (at >= ids.length) {
+                return;
+            }
+            int last = Math.min(size, ids.length - 1);
+            System.arraycopy(ids, at, ids, at + 1, last - at);
+            System.arraycopy(tiers, at, tiers, at + 1, last - at);
+            System.arraycopy(scores, at, scores, at + 1, last - at);
+            System.arraycopy(weights, at, weights, at + 1, last - at);
+            ids[at] = id;
+            tiers[at] = tier;
+            scores[at] = score;
+            weights[at] = w;
+            size = Math.min(size + 1, ids.length);
+        }
+
+        private boolean better(int id, int tier, double score, int w, int other){
+            if (tier != tiers[other]) {
+                return tier < tiers[other];
+            }
+            if (score != scores[other]) {
+                return score > scores[other];
+            }
+            if (w != weights[other]) {
+                return w > weights[other];
+            }
+            return id < ids[other];
+        }
+
+        int[] result(){
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class NameIndexTest {
+
+    private NameIndex index(String... names) {
+        return NameIndex.build(new StringDictionary(names), ForkJoinPool.commonPool());
+    }
+
+    @Test
+    void testNormalize() {
+        assertEquals("kevin bacon (i)", NameIndex.normalize("  Kevin   Bacon (I) "));
+        assertEquals("penelope cruz", NameIndex.normalize("Pen\u00e9lope Cruz"));
+        assertEquals("kevin bacon", NameIndex.base("kevin bacon (i)"));
+        assertEquals("kevin bacon", NameIndex.base("kevin bacon"));
+    }
+
+    @Test
+    void testResolve() {
+        NameIndex index = index("Kevin Bacon (I)", "Kevin Bacon (II)", "Pen\u00e9lope Cruz", "Tom Hanks");
+        int[] degrees = {40, 2, 10, 30};
+        assertEquals(3, index.resolve("Tom Hanks", v -> degrees[v]));
+        assertEquals(3, index.resolve("tom  hanks", v -> degrees[v]));
+        assertEquals(0, index.resolve("kevin bacon", v -> degrees[v]));
+        assertEquals(1, index.resolve("Kevin Bacon (II)", v -> degrees[v]));
+        assertEquals(2, index.resolve("Penelope Cruz", v -> degrees[v]));
+        assertEquals(-1, index.resolve("Kevn Bacon", v -> degrees[v]));
+        assertEquals(-1, index.resolve("Tom", v -> degrees[v]));
+    }
+
+    @Test
+    void testSuggest() {
+        NameIndex index = index("Tom Hanks", "Tom Cruise", "Tommy Lee Jones", "Kevin Bacon (I)", "Kevin Costner");
+        int[] degrees = {30, 50, 20, 40, 10};
+        // Prefix matches come first, better-connected first.
+        assertArrayEquals(new int[] {1, 0, 2}, index.suggest("tom", 3, v -> degrees[v]));
+        assertArrayEquals(new int[] {1}, index.suggest("tom", 1, v -> degrees[v]));
+        assertEquals(3, index.suggest("Kevn Bacon", 1, v -> degrees[v])[0]);
+        assertEquals(0, index.suggest("Tom Hankz", 1, null)[0]);
+        assertEquals(0, index.suggest("xyz", 5, null).length);
+        assertEquals(0, index.suggest("", 5, null).length);
+    }
+
+    @Test
+    void testGraphResolution() {
+        String[] names = {"Kevin Bacon (I)", "Tom Hanks", "Kevin Bacon (II)"};
+        String[] titles = {"Apollo 13", "Other"};
+        int[] creditActor = {0, 1, 2, 1};
+        int[] creditTitle = {0, 0, 1, 1};
+        CompactGraph graph = CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, 4));
+        assertEquals(graph.vertexId("Tom Hanks"), graph.resolveVertex("TOM HANKS"));
+        assertEquals(graph.vertexId("Kevin Bacon (I)"), graph.resolveVertex("kevin bacon"));
+        assertEquals(-1, graph.resolveVertex("Meryl Streep"));
+    }
+}
@@ -0,0 +1,230 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+public class OffHeapGraph implements CostarGraph {
+
+    private final OffHeapStrings names;
+    private final OffHeapStrings labels;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer edgeLabelIds;
+    private final IntBuffer edgeTitleOffsets;
+    private final IntBuffer edgeTitleIds;
+
+    /**
+     * The `OffHeapGraph` class is a CSR co-star graph laid out like `CompactGraph`,
+     * but with its offsets, targets, edge labels and string tables in direct or
+     * file-mapped buffers rather than heap arrays. A graph mapped from a snapshot
+     * is paged in by the operating system as it is read, so a graph larger than the
+     * heap can be queried, and the collector never scans or copies it; the heap only
+     * holds the scratch arrays of each query. Instances are read-only and can be
+     * queried from several threads at once.
+     *
+     * @param names        The vertex names; handles are vertex IDs.
+     * @param labels       The distinct edge labels; handles are label IDs.
+     * @param offsets      The start of each vertex's neighbour run; limit is order + 1.
+     * @param targets      The neighbour IDs of every vertex, back to back.
+     * @param edgeLabelIds The label ID of every entry in targets.
+     */
+    public OffHeapGraph(OffHeapStrings names, OffHeapStrings labels, IntBuffer offsets, IntBuffer targets, IntBuffer edgeLabelIds){
+        this(names, labels, offsets, targets, edgeLabelIds, null, null);
+    }
+
+    /**
+     * Creates a graph whose edge labels are either stored per entry or, as in
+     * `CompactGraph`, taken from the first title of each entry's run in the side
+     * table of shared titles. Exactly one of the two is given.
+     *
+     * @param names            The vertex names; handles are vertex IDs.
+     * @param labels           The distinct edge labels; handles are label IDs.
+     * @param offsets          The start of each vertex's neighbour run; limit is order + 1.
+     * @param targets          The neighbour IDs of every vertex, back to back.
+     * @param edgeLabelIds     The label ID of every entry in targets, or null with the side table.
+     * @param edgeTitleOffsets The start of each entry's title run; limit is entries + 1, or null.
+     * @param edgeTitleIds     The sorted title IDs of every entry, back to back, or null.
+     */
+    public OffHeapGraph(OffHeapStrings names, OffHeapStrings labels, IntBuffer offsets, IntBuffer targets, IntBuffer edgeLabelIds,
+            IntBuffer edgeTitleOffsets, IntBuffer edgeTitleIds){
+        if (offsets.limit() != names.size() + 1 || offsets.get(names.size()) != targets.limit()
+                || edgeLabelIds != null && targets.limit() != edgeLabelIds.limit()) {
+            throw new IllegalArgumentException("CSR buffers do not match the vertex table.");
+        }
+        if ((edgeTitleOffsets == null) != (edgeTitleIds == null) || (edgeTitleOffsets == null) == (edgeLabelIds == null)
+                || edgeTitleOffsets != null && edgeTitleOffsets.limit() != targets.limit() + 1) {
+            throw new IllegalArgumentException("Edge title runs do not match the CSR buffers.");
+        }
+        this.names = names;
+        this.labels = labels;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.edgeLabelIds = edgeLabelIds;
+        this.edgeTitleOffsets = edgeTitleOffsets;
+        this.edgeTitleIds = edgeTitleIds;
+    }
+
+    /**
+     * Copies a heap graph into direct buffers, with the side table of shared titles
+     * if the graph has one.
+     *
+     * @param graph The graph to copy.
+     * @return The off-heap copy, with the same vertex and label IDs.
+     */
+    public static OffHeapGraph copyOf(CompactGraph graph){
+        OffHeapStrings names = OffHeapStrings.copyOf(graph.getNameDictionary());
+        OffHeapStrings labels = OffHeapStrings.copyOf(graph.getLabelDictionary());
+        if (graph.hasEdgeTitles()) {
+            return new OffHeapGraph(names, labels, direct(graph.getOffsets()), direct(graph.getTargets()), null,
+                    direct(graph.getEdgeTitleOffsets()), direct(graph.getEdgeTitleIds()));
+        }
+        return new OffHeapGraph(names, labels, direct(graph.getOffsets()), direct(graph.getTargets()), direct(graph.getEdgeLabelIds()));
+    }
+
+    private static IntBuffer direct(int[] values){
+        IntBuffer buffer = ByteBuffer.allocateDirect(4 * Math.max(1, values.length)).order(ByteOrder.nativeOrder()).asIntBuffer();
+        buffer.put(values);
+        return buffer.flip();
+    }
+
+    /**
+     * Retrieves the number of vertices in the graph.
+     *
+     * @return The order of the graph.
+     */
+    public int getOrder(){
+        return offsets.limit() - 1;
+    }
+
+    /**
+     * Retrieves the number of undirected edges in the graph.
+     *
+     * @return The size of the graph.
+     */
+    public int getSize(){
+        return targets.limit() / 2;
+    }
+
+    /**
+     * Looks up the ID of the vertex with a given name.
+     *
+     * @param name The name of the vertex.
+     * @return The ID of the vertex, or -1 if no vertex has that name.
+     */
+    public int vertexId(String name){
+        return names.find(name);
+    }
+
+    /**
+     * Retrieves the name of the vertex with a given ID.
+     *
+     * @param id The ID of the vertex.
+     * @return The name of the vertex.
+     */
+    public String nameOf(int id){
+        return names.get(id);
+    }
+
+    /**
+     * Retrieves the number of neighbours of a vertex.
+     *
+     * @param v The ID of the vertex.
+     * @return The degree of the vertex.
+     */
+    public int degree(int v){
+        return offsets.get(v + 1) - offsets.get(v);
+    }
+
+    /**
+     * Retrieves one neighbour of a vertex.
+     *
+     * @param v The ID of the vertex.
+     * @param i The position of the neighbour, from 0 to degree(v) - 1.
+     * @return The ID of the neighbour.
+     */
+    public int neighbor(int v, int i){
+        return targets.get(offsets.get(v) + i);
+    }
+
+    /**
+     * Retrieves the label with a given label ID.
+     *
+     * @param labelId The ID of the label.
+     * @return The label, or null for -1.
+     */
+    public String labelOf(int labelId){
+        if (labelId < 0) {
+            return null;
+        }
+        return labels.get(labelId);
+    }
+
+    /**
+     * Retrieves the label of the edge between two vertices.
+     *
+     * @param v The ID of the first vertex.
+     * @param w The ID of the second vertex.
+     * @return The label of the edge, or null if there is no such edge.
+     */
+    public String edgeLabel(int v, int w){
+        int end = offsets.get(v + 1);
+        for (int i = offsets.get(v); i < end; i++) {
+            if (targets.get(i) == w) {
+                return labelOf(edgeLabelId(i));
+            }
+        }
+        return null;
+    }
+
+    private int edgeLabelId(int e){
+        if (edgeTitleOffsets == null) {
+            return edgeLabelIds.get(e);
+        }
+        int start = edgeTitleOffsets.get(e);
+        return start < edgeTitleOffsets.get(e + 1) ? edgeTitleIds.get(start) : -1;
+    }
+
+    /**
+     * Retrieves the memory held outside the heap, or mapped from a file.
+     *
+     * @return The number of bytes of the CSR buffers, the edge labels or title runs, and both string tables.
+     */
+    public long getBytes(){
+        long labelInts = edgeTitleOffsets == null ? edgeLabelIds.capacity() : edgeTitleOffsets.capacity() + edgeTitleIds.capacity();
+        return 4L * (offsets.capacity() + targets.capacity() + labelInts) + names.getBytes() + labels.getBytes();
+    }
+
+    /**
+     * Finds a shortest path between two vertices using BFS over the CSR buffers.
+     * The parent and queue arrays are the only heap memory a query uses.
+     *
+     * @param center The ID of the source vertex.
+     * @param goal   The ID of the destination vertex.
+     * @return The vertex IDs on the path from center to goal, or an empty array if there is none.
+     */
+    public int[] findPath(int center, int goal){
+        int[] parent = new int[getOrder()];
+        Arrays.fill(parent, -1);
+        int[] queue = new int[getOrder()];
+        int head = 0;
+        int tail = 0;
+
+        parent[center] = center;
+        queue[tail++] = center;
+        while (head < tail) {
+            int v = queue[head++];
+            if (v == goal) {
+                return CompactGraph.buildPath(parent, center, goal);
+            }
+            int end = offsets.get(v + 1);
+            for (int i = offsets.get(v); i < end; i++) {
+                int w = targets.get(i);
+                if (parent[w] == -1) {
+                    parent[w] = v;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return new int[0];
+    }
+}
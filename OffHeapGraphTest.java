@@ -0,0 +1,42 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class OffHeapGraphTest {
+
+    @Test
+    void testMatchesCompactGraph() {
+        CompactGraph graph = ShortestPathDagTest.randomGraph(7, 300, 120, 900);
+        OffHeapGraph copy = OffHeapGraph.copyOf(graph);
+        assertEquals(graph.getOrder(), copy.getOrder());
+        assertEquals(graph.getSize(), copy.getSize());
+        for (int v = 0; v < graph.getOrder(); v++) {
+            assertEquals(v, copy.vertexId(graph.nameOf(v)));
+            assertEquals(graph.nameOf(v), copy.nameOf(v));
+            assertEquals(graph.degree(v), copy.degree(v));
+            for (int i = 0; i < graph.degree(v); i++) {
+                int w = graph.neighbor(v, i);
+                assertEquals(w, copy.neighbor(v, i));
+                assertEquals(graph.edgeLabel(v, w), copy.edgeLabel(v, w));
+            }
+        }
+        for (int goal = 0; goal < graph.getOrder(); goal += 7) {
+            assertEquals(graph.findPath(0, goal).length, copy.findPath(0, goal).length);
+        }
+    }
+
+    @Test
+    void testLookups() {
+        String[] names = {"A", "B", "C", "D"};
+        String[] titles = {"M1", "M2", "M3"};
+        int[] creditActor = {0, 1, 1, 2, 3};
+        int[] creditTitle = {0, 0, 1, 1, 2};
+        CostarGraph graph = OffHeapGraph.copyOf(CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, 5)));
+        assertEquals(-1, graph.vertexId("Z"));
+        assertEquals("M2", graph.edgeLabel(1, 2));
+        assertNull(graph.edgeLabel(0, 2));
+        assertEquals(3, graph.findPath(0, 2).length);
+        assertEquals(0, graph.findPath(0, 3).length);
+    }
+}
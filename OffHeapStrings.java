@@ -0,0 +1,183 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class OffHeapStrings {
+
+    private final ByteBuffer bytes;
+    private final IntBuffer starts;
+    private final IntBuffer table;
+    private final int count;
+
+    /**
+     * The `OffHeapStrings` class is a read-only string table kept outside the heap: the
+     * UTF-8 bytes of every string back to back, their start offsets, and an
+     * open-addressing hash table of handles, all in direct or mapped buffers. It
+     * lays strings out the way `StringDictionary` does and hashes them the same way,
+     * but `find` compares bytes in place, so the table adds no objects to the heap.
+     * This constructor builds the hash table, which reads every string once.
+     *
+     * @param bytes  The UTF-8 bytes of every string, back to back.
+     * @param starts The start of each string; length is count + 1.
+     */
+    public OffHeapStrings(ByteBuffer bytes, IntBuffer starts){
+        this(bytes, starts, build(bytes, starts));
+    }
+
+    /**
+     * Wraps strings whose hash table was built beforehand, such as one mapped from a
+     * snapshot, so no string is read until it is looked up.
+     *
+     * @param bytes  The UTF-8 bytes of every string, back to back.
+     * @param starts The start of each string; length is count + 1.
+     * @param table  The hash table, as filled by `fillTable`.
+     */
+    public OffHeapStrings(ByteBuffer bytes, IntBuffer starts, IntBuffer table){
+        if (table.limit() != tableSize(starts.limit() - 1)) {
+            throw new IllegalArgumentException("Hash table does not match the string count.");
+        }
+        this.bytes = bytes;
+        this.starts = starts;
+        this.table = table;
+        this.count = starts.limit() - 1;
+    }
+
+    /**
+     * Retrieves the number of slots in the hash table of a string table.
+     *
+     * @param count The number of strings.
+     * @return The number of slots, a power of two at least twice the count.
+     */
+    static int tableSize(int count){
+        return Integer.highestOneBit(Math.max(1, count)) * 4;
+    }
+
+    /**
+     * Fills the hash table of a string table, one handle per string and -1 in
+     * empty slots.
+     *
+     * @param bytes  The UTF-8 bytes of every string, back to back.
+     * @param starts The start of each string; length is count + 1.
+     * @param table  The table to fill, of `tableSize(count)` slots.
+     */
+    static void fillTable(ByteBuffer bytes, IntBuffer starts, IntBuffer table){
+        int size = table.limit();
+        for (int slot = 0; slot < size; slot++) {
+            table.put(slot, -1);
+        }
+        for (int id = 0; id < starts.limit() - 1; id++) {
+            int slot = slot(hash(bytes, starts.get(id), starts.get(id + 1)), size);
+            while (table.get(slot) >= 0) {
+                slot = (slot + 1) & (size - 1);
+            }
+            table.put(slot, id);
+        }
+    }
+
+    private static IntBuffer build(ByteBuffer bytes, IntBuffer starts){
+        int size = tableSize(starts.limit() - 1);
+        IntBuffer table = ByteBuffer.allocateDirect(4 * size).order(ByteOrder.nativeOrder()).asIntBuffer();
+        fillTable(bytes, starts, table);
+        return table;
+    }
+
+    /**
+     * Copies a dictionary into direct buffers.
+     *
+     * @param dictionary The dictionary to copy.
+     * @return The off-heap copy, with the same handles.
+     */
+    public static OffHeapStrings copyOf(StringDictionary dictionary){
+        int count = dictionary.size();
+        ByteBuffer bytes = ByteBuffer.allocateDirect(Math.max(1, dictionary.getArenaSize()));
+        bytes.put(dictionary.arena(), 0, dictionary.getArenaSize());
+        IntBuffer starts = ByteBuffer.allocateDirect(4 * (count + 1)).order(ByteOrder.nativeOrder()).asIntBuffer();
+        starts.put(dictionary.starts(), 0, count + 1);
+        return new OffHeapStrings(bytes, starts.clear());
+    }
+
+    /**
+     * Looks up the handle of a string.
+     *
+     * @param value The string.
+     * @return Its handle, or -1 if it is not in the table.
+     */
+    public int find(String value){
+        if (value == null) {
+            return -1;
+        }
+        byte[] wanted = value.getBytes(StandardCharsets.UTF_8);
+        int hash = 1;
+        for (byte b : wanted) {
+            hash = 31 * hash + b;
+        }
+        int mask = table.limit() - 1;
+        for (int slot = slot(hash, table.limit()); table.get(slot) >= 0; slot = (slot + 1) & mask) {
+            int id = table.get(slot);
+            if (matches(id, wanted)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes the string with the given handle.
+     *
+     * @param id The handle.
+     * @return The string.
+     */
+    public String get(int id){
+        if (id < 0 || id >= count) {
+            throw new IndexOutOfBoundsException("No string with handle " + id);
+        }
+        int start = starts.get(id);
+        byte[] value = new byte[starts.get(id + 1) - start];
+        bytes.get(start, value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Retrieves the number of strings.
+     *
+     * @return The number of strings.
+     */
+    public int size(){
+        return count;
+    }
+
+    /**
+     * Retrieves the memory held outside the heap, or mapped from a file.
+     *
+     * @return The number of bytes of the strings, their offsets and the hash table.
+     */
+    public long getBytes(){
+        return bytes.capacity() + 4L * (starts.capacity() + table.capacity());
+    }
+
+    private boolean matches(int id, byte[] wanted){
+        int start = starts.get(id);
+        if (starts.get(id + 1) - start != wanted.length) {
+            return false;
+        }
+        for (int i = 0; i < wanted.length; i++) {
+            if (bytes.get(start + i) != wanted[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(ByteBuffer bytes, int start, int end){
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + bytes.get(i);
+        }
+        return hash;
+    }
+
+    private static int slot(int hash, int size){
+        return (hash ^ (hash >>> 16)) & (size - 1);
+    }
+}
@@ -0,0 +1,45 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+public class OffHeapStringsTest {
+
+    @Test
+    void testCopy() {
+        StringDictionary dictionary = new StringDictionary(new String[] {"Kevin Bacon", "Ren\u00e9e Zellweger", ""});
+        OffHeapStrings strings = OffHeapStrings.copyOf(dictionary);
+        assertEquals(3, strings.size());
+        for (int id = 0; id < 3; id++) {
+            assertEquals(dictionary.get(id), strings.get(id));
+            assertEquals(id, strings.find(dictionary.get(id)));
+        }
+        assertEquals(-1, strings.find("Kevin Baco"));
+        assertEquals(-1, strings.find(null));
+        assertThrows(IndexOutOfBoundsException.class, () -> strings.get(3));
+    }
+
+    @Test
+    void testPrebuiltTable() {
+        StringDictionary dictionary = new StringDictionary(new String[] {"A", "B", "C"});
+        ByteBuffer bytes = ByteBuffer.wrap(dictionary.arena(), 0, dictionary.getArenaSize());
+        IntBuffer starts = IntBuffer.wrap(Arrays.copyOf(dictionary.starts(), 4));
+        IntBuffer table = IntBuffer.allocate(OffHeapStrings.tableSize(3));
+        OffHeapStrings.fillTable(bytes, starts, table);
+        OffHeapStrings strings = new OffHeapStrings(bytes, starts, table);
+        assertEquals(1, strings.find("B"));
+        assertEquals(-1, strings.find("D"));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapStrings(bytes, starts, IntBuffer.allocate(4)));
+    }
+
+    @Test
+    void testEmpty() {
+        OffHeapStrings strings = OffHeapStrings.copyOf(new StringDictionary());
+        assertEquals(0, strings.size());
+        assertEquals(-1, strings.find("A"));
+    }
+}
@@ -0,0 +1,286 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class ParallelBfs {
+
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    private static final int GRAIN = 64;
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final int order;
+    private final int words;
+    private final ForkJoinPool pool;
+    private final int alpha;
+    private final int beta;
+    private final int[] parent;
+    private final int[] distance;
+    private AtomicLongArray visited;
+    private AtomicLongArray frontier;
+    private AtomicLongArray next;
+    private int bottomUpLevels;
+    private int levels;
+
+    /**
+     * The `ParallelBfs` class is a level-synchronous, direction-optimizing BFS in the
+     * style of Beamer et al. Each level runs either top-down (frontier vertices claim
+     * their unvisited neighbours with a CAS on the visited bitset) or bottom-up (every
+     * unvisited vertex looks for a parent in the frontier bitset). It switches to
+     * bottom-up when the frontier's edges exceed 1/alpha of the unexplored edges and
+     * back once the frontier holds fewer than 1/beta of the vertices. Levels are split
+     * into word ranges of the bitsets and run on a ForkJoinPool; in bottom-up steps each
+     * task owns its words, so only top-down steps need atomics.
+     * An instance holds the result arrays of its last search and must only be used by
+     * one thread at a time.
+     *
+     * @param graph The graph to search.
+     * @param pool  The pool to run level expansion on.
+     */
+    public ParallelBfs(CompactGraph graph, ForkJoinPool pool){
+        this(graph, pool, ALPHA, BETA);
+    }
+
+    /**
+     * Creates a search with explicit direction-switching thresholds. An alpha of 0
+     * keeps every level top-down.
+     *
+     * @param graph The graph to search.
+     * @param pool  The pool to run level expansion on.
+     * @param alpha Go bottom-up when frontier edges * alpha exceed the unexplored edges.
+     * @param beta  Go back top-down when the frontier size * beta drops below the order.
+     */
+    ParallelBfs(CompactGraph graph, ForkJoinPool pool, int alpha, int beta){
+        this.offsets = graph.getOffsets();
+        this.targets = graph.getTargets();
+        this.order = graph.getOrder();
+        this.words = (order + 63) >>> 6;
+        this.pool = pool;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.parent = new int[order];
+        this.distance = new int[order];
+    }
+
+    /**
+     * Runs a full BFS from a source vertex, filling the parent and distance arrays.
+     *
+     * @param source The ID of the source vertex.
+     */
+    public void run(int source){
+        search(source, -1);
+    }
+
+    /**
+     * Finds a shortest path between two vertices, stopping after the level that reaches goal.
+     *
+     * @param center The ID of the source vertex.
+     * @param goal   The ID of the destination vertex.
+     * @return The vertex IDs on the path from center to goal, or an empty array if there is none.
+     */
+    public int[] findPath(int center, int goal){
+        search(center, goal);
+        if (distance[goal] < 0) {
+            return new int[0];
+        }
+        return CompactGraph.buildPath(parent, center, goal);
+    }
+
+    /**
+     * Retrieves the parent array of the last search. The source is its own parent and
+     * unreached vertices have -1.
+     *
+     * @return The parent of each vertex.
+     */
+    public int[] getParent(){
+        return parent;
+    }
+
+    /**
+     * Retrieves the distance array of the last search; unreached vertices have -1.
+     *
+     * @return The distance of each vertex from the source.
+     */
+    public int[] getDistance(){
+        return distance;
+    }
+
+    /**
+     * Retrieves the number of levels the last search expanded.
+     *
+     * @return The number of levels.
+     */
+    public int getLevels(){
+        return levels;
+    }
+
+    /**
+     * Retrieves how many levels of the last search ran bottom-up.
+     *
+     * @return The number of bottom-up levels.
+     */
+    public int getBottomUpLevels(){
+        return bottomUpLevels;
+    }
+
+    private void search(int source, int goal){
+        Arrays.fill(parent, -1);
+        Arrays.fill(distance, -1);
+        visited = new AtomicLongArray(words);
+        frontier = new AtomicLongArray(words);
+        next = new AtomicLongArray(words);
+        levels = 0;
+        bottomUpLevels = 0;
+
+        parent[source] = source;
+        distance[source] = 0;
+        visited.set(source >>> 6, 1L << source);
+        frontier.set(source >>> 6, 1L << source);
+        long frontierEdges = degree(source);
+        long frontierSize = 1;
+        long unexplored = targets.length - frontierEdges;
+        boolean bottomUp = false;
+
+        while (frontierSize > 0 && (goal < 0 || distance[goal] < 0)) {
+            if (!bottomUp && alpha > 0 && frontierEdges * alpha > unexplored) {
+                bottomUp = true;
+            }
+            else if (bottomUp && frontierSize * beta < order) {
+                bottomUp = false;
+            }
+
+            long[] found = pool.invoke(new LevelTask(0, words, levels + 1, bottomUp));
+            frontierSize = found[0];
+            frontierEdges = found[1];
+            unexplored -= frontierEdges;
+            levels++;
+            if (bottomUp) {
+                bottomUpLevels++;
+            }
+
+            AtomicLongArray swap = frontier;
+            frontier = next;
+            next = swap;
+            for (int i = 0; i < words; i++) {
+                next.set(i, 0);
+            }
+        }
+    }
+
+    private int degree(int v){
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * Expands one level over a range of bitset words. Returns the number of vertices
+     * it discovered and the sum of their degrees.
+     */
+    private class LevelTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int depth;
+        private final boolean bottomUp;
+
+        LevelTask(int from, int to, int depth, boolean bottomUp){
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+            this.bottomUp = bottomUp;
+        }
+
+        @Override
+        protected long[] compute(){
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                LevelTask left = new LevelTask(from, middle, depth, bottomUp);
+                left.fork();
+                long[] right = new LevelTask(middle, to, depth, bottomUp).compute();
+                long[] result = left.join();
+                result[0] += right[0];
+                result[1] += right[1];
+                return result;
+            }
+            return bottomUp ? bottomUp() : topDown();
+        }
+
+        private long[] topDown(){
+            long count = 0;
+            long edges = 0;
+            for (int i = from; i < to; i++) {
+                long bits = frontier.get(i);
+                while (bits != 0) {
+                    int v = (i << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                        int w = targets[e];
+                        if (claim(visited, w)) {
+                            parent[w] = v;
+                            distance[w] = depth;
+                            claim(next, w);
+                            count++;
+                            edges += degree(w);
+                        }
+                    }
+                }
+            }
+            return new long[] {count, edges};
+        }
+
+        private long[] bottomUp(){
+            long count = 0;
+            long edges = 0;
+            for (int i = from; i < to; i++) {
+                long seen = visited.get(i);
+                long unvisited = ~seen;
+                if (i == words - 1 && (order & 63) != 0) {
+                    unvisited &= (1L << (order & 63)) - 1;
+                }
+                long found = 0;
+                while (unvisited != 0) {
+                    int bit = Long.numberOfTrailingZeros(unvisited);
+                    unvisited &= unvisited - 1;
+                    int v = (i << 6) + bit;
+                    for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                        int u = targets[e];
+                        if ((frontier.get(u >>> 6) & (1L << u)) != 0) {
+                            parent[v] = u;
+                            distance[v] = depth;
+                            found |= 1L << bit;
+                            count++;
+                            edges += degree(v);
+                            break;
+                        }
+                    }
+                }
+                if (found != 0) {
+                    visited.set(i, seen | found);
+                    next.set(i, found);
+                }
+            }
+            return new long[] {count, edges};
+        }
+    }
+
+    /**
+     * Atomically sets the bit for a vertex.
+     *
+     * @return True if this call set the bit, false if it was already set.
+     */
+    private static boolean claim(AtomicLongArray bits, int v){
+        int index = v >>> 6;
+        long mask = 1L << v;
+        while (true) {
+            long old = bits.get(index);
+            if ((old & mask) != 0) {
+                return false;
+            }
+            if (bits.compareAndSet(index, old, old | mask)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelBfsTest {
+
+    private CompactGraph randomGraph(int actors, int titles, int credits, long seed) {
+        Random random = new Random(seed);
+        String[] names = new String[actors];
+        String[] titleNames = new String[titles];
+        for (int i = 0; i < actors; i++) {
+            names[i] = "A" + i;
+        }
+        for (int i = 0; i < titles; i++) {
+            titleNames[i] = "M" + i;
+        }
+        int[] creditActor = new int[credits];
+        int[] creditTitle = new int[credits];
+        for (int i = 0; i < credits; i++) {
+            creditActor[i] = random.nextInt(actors);
+            creditTitle[i] = random.nextInt(titles);
+        }
+        return CompactGraph.fromCredits(new CreditTable(names, titleNames, creditActor, creditTitle, credits));
+    }
+
+    private int[] sequentialDistances(CompactGraph graph, int source) {
+        BaconTable table = new BaconTable(graph, source);
+        int[] distance = new int[graph.getOrder()];
+        for (int v = 0; v < distance.length; v++) {
+            distance[v] = table.distance(v);
+        }
+        return distance;
+    }
+
+    @Test
+    void testMatchesSequentialBfs() {
+        CompactGraph graph = randomGraph(3000, 1500, 4000, 11);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (int alpha : new int[] {0, 14, Integer.MAX_VALUE}) {
+            ParallelBfs bfs = new ParallelBfs(graph, pool, alpha, 24);
+            for (int source = 0; source < 3000; source += 499) {
+                bfs.run(source);
+                assertArrayEquals(sequentialDistances(graph, source), bfs.getDistance());
+                int[] parent = bfs.getParent();
+                for (int v = 0; v < graph.getOrder(); v++) {
+                    if (v != source && parent[v] >= 0) {
+                        assertEquals(bfs.getDistance()[v] - 1, bfs.getDistance()[parent[v]]);
+                        assertTrue(graph.edgeLabel(v, parent[v]) != null);
+                    }
+                }
+            }
+            if (alpha == Integer.MAX_VALUE) {
+                assertTrue(bfs.getBottomUpLevels() > 0);
+            }
+            if (alpha == 0) {
+                assertEquals(0, bfs.getBottomUpLevels());
+            }
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    void testFindPath() {
+        CompactGraph graph = randomGraph(500, 300, 900, 3);
+        ParallelBfs bfs = new ParallelBfs(graph, ForkJoinPool.commonPool());
+        BidirectionalSearch search = new BidirectionalSearch(graph);
+        for (int t = 0; t < 500; t += 37) {
+            assertEquals(search.findPath(0, t).length, bfs.findPath(0, t).length);
+        }
+    }
+}
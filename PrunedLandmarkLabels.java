@@ -0,0 +1,230 @@
+import java.util.Arrays;
+
+public class PrunedLandmarkLabels {
+
+    private static final int MAX_DISTANCE = 254;
+
+    private final int[] labelOffsets;
+    private final int[] hubs;
+    private final byte[] distances;
+
+    /**
+     * The `PrunedLandmarkLabels` class answers exact distance queries without
+     * traversing the graph. Every vertex v holds a label: a list of (hub, d(v, hub))
+     * pairs chosen so that for any two vertices a and b, some hub on a shortest a-b
+     * path appears in both labels. The distance is then the smallest
+     * d(a, hub) + d(hub, b) over the hubs the two labels share, found by merging the
+     * two lists, which are sorted by hub.
+     *
+     * The labels are built with one BFS per vertex in decreasing degree order, and
+     * each BFS is pruned at every vertex whose distance the labels built so far already
+     * answer. In small-world graphs like the co-star graph a few high-degree actors lie
+     * on most shortest paths, so later searches are pruned almost at once and the
+     * labels stay short.
+     *
+     * Hubs are stored by their position in the degree order, and the labels are kept
+     * back to back in one array with an offset per vertex.
+     *
+     * @param labelOffsets The start of each vertex's label; length is order + 1.
+     * @param hubs         The hub ranks of every label, back to back.
+     * @param distances    The distance to each hub, as an unsigned byte.
+     */
+    PrunedLandmarkLabels(int[] labelOffsets, int[] hubs, byte[] distances){
+        this.labelOffsets = labelOffsets;
+        this.hubs = hubs;
+        this.distances = distances;
+    }
+
+    /**
+     * Builds the labels of a graph.
+     *
+     * @param graph The graph.
+     * @return The labels.
+     * @throws IllegalArgumentException If two connected vertices are more than 254 steps apart.
+     */
+    public static PrunedLandmarkLabels build(CompactGraph graph){
+        int order = graph.getOrder();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] byRank = MultiSourceBfs.topDegree(graph, order);
+
+        int[][] labelHubs = new int[order][];
+        byte[][] labelDistances = new byte[order][];
+        int[] labelSizes = new int[order];
+        int[] rootDistance = new int[order];
+        Arrays.fill(rootDistance, Integer.MAX_VALUE);
+        int[] depth = new int[order];
+        Arrays.fill(depth, -1);
+        int[] queue = new int[order];
+
+        for (int r = 0; r < order; r++) {
+            int root = byRank[r];
+            // Spread the root's label by hub so each pruning test is one pass over the other label.
+            for (int i = 0; i < labelSizes[root]; i++) {
+                rootDistance[labelHubs[root][i]] = labelDistances[root][i] & 0xff;
+            }
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            depth[root] = 0;
+            while (head < tail) {
+                int v = queue[head++];
+                int d = depth[v];
+                if (covered(rootDistance, labelHubs[v], labelDistances[v], labelSizes[v], d)) {
+                    continue;
+                }
+                if (d > MAX_DISTANCE) {
+                    throw new IllegalArgumentException("Distances above " + MAX_DISTANCE + " cannot be labelled.");
+                }
+                append(labelHubs, labelDistances, labelSizes, v, r, d);
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int w = targets[e];
+                    if (depth[w] < 0) {
+                        depth[w] = d + 1;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            for (int i = 0; i < tail; i++) {
+                depth[queue[i]] = -1;
+            }
+            for (int i = 0; i < labelSizes[root]; i++) {
+                rootDistance[labelHubs[root][i]] = Integer.MAX_VALUE;
+            }
+        }
+
+        int[] labelOffsets = new int[order + 1];
+        for (int v = 0; v < order; v++) {
+            labelOffsets[v + 1] = labelOffsets[v] + labelSizes[v];
+        }
+        int[] hubs = new int[labelOffsets[order]];
+        byte[] distances = new byte[hubs.length];
+        for (int v = 0; v < order; v++) {
+            System.arraycopy(labelHubs[v], 0, hubs, labelOffsets[v], labelSizes[v]);
+            System.arraycopy(labelDistances[v], 0, distances, labelOffsets[v], labelSizes[v]);
+            labelHubs[v] = null;
+            labelDistances[v] = null;
+        }
+        return new PrunedLandmarkLabels(labelOffsets, hubs, distances);
+    }
+
+    /**
+     * Checks whether the labels built so far already give a distance of at most d
+     * between the current root and a vertex.
+     */
+    private static boolean covered(int[] rootDistance, int[] hubs, byte[] distances, int size, int d){
+        for (int i = 0; i < size; i++) {
+            int through = rootDistance[hubs[i]];
+            if (through != Integer.MAX_VALUE && through + (distances[i] & 0xff) <= d) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void append(int[][] labelHubs, byte[][] labelDistances, int[] labelSizes, int v, int hub, int d){
+        int size = labelSizes[v];
+        if (labelHubs[v] == null) {
+            labelHubs[v] = new int[4];
+            labelDistances[v] = new byte[4];
+        }
+        else if (size == labelHubs[v].length) {
+            labelHubs[v] = Arrays.copyOf(labelHubs[v], size * 2);
+            labelDistances[v] = Arrays.copyOf(labelDistances[v], size * 2);
+        }
+        labelHubs[v][size] = hub;
+        labelDistances[v][size] = (byte) d;
+        labelSizes[v] = size + 1;
+    }
+
+    /**
+     * Computes the exact distance between two vertices by merging their labels.
+     *
+     * @param a The first vertex ID.
+     * @param b The second vertex ID.
+     * @return The number of edges on a shortest path, or -1 if no path exists.
+     */
+    public int distance(int a, int b){
+        int i = labelOffsets[a];
+        int endA = labelOffsets[a + 1];
+        int j = labelOffsets[b];
+        int endB = labelOffsets[b + 1];
+        int best = Integer.MAX_VALUE;
+        while (i < endA && j < endB) {
+            int hubA = hubs[i];
+            int hubB = hubs[j];
+            if (hubA == hubB) {
+                best = Math.min(best, (distances[i] & 0xff) + (distances[j] & 0xff));
+                i++;
+                j++;
+            }
+            else if (hubA < hubB) {
+                i++;
+            }
+            else {
+                j++;
+            }
+        }
+        return best == Integer.MAX_VALUE ? -1 : best;
+    }
+
+    /**
+     * Retrieves the label offsets.
+     *
+     * @return The start of each vertex's label. Callers must not modify it.
+     */
+    int[] getLabelOffsets(){
+        return labelOffsets;
+    }
+
+    /**
+     * Retrieves the hub ranks of every label.
+     *
+     * @return The hubs, back to back. Callers must not modify it.
+     */
+    int[] getHubs(){
+        return hubs;
+    }
+
+    /**
+     * Retrieves the hub distances of every label.
+     *
+     * @return The distances as unsigned bytes. Callers must not modify it.
+     */
+    byte[] getDistances(){
+        return distances;
+    }
+
+    /**
+     * Retrieves the total number of label entries.
+     *
+     * @return The number of (hub, distance) pairs.
+     */
+    public int getEntries(){
+        return hubs.length;
+    }
+
+    /**
+     * Retrieves the memory used by the labels.
+     *
+     * @return The number of bytes.
+     */
+    public long getBytes(){
+        return 4L * labelOffsets.length + 5L * hubs.length;
+    }
+
+    /**
+     * Summarises the label sizes on one line.
+     *
+     * @return The statistics as text.
+     */
+    public String stats(){
+        int order = labelOffsets.length - 1;
+        int largest = 0;
+        for (int v = 0; v < order; v++) {
+            largest = Math.max(largest, labelOffsets[v + 1] - labelOffsets[v]);
+        }
+        return String.format("Distance labels: %d entries over %d actors (%.1f average, %d largest), %.1f MB",
+                hubs.length, order, order == 0 ? 0.0 : (double) hubs.length / order, largest, getBytes() / 1048576.0);
+    }
+}
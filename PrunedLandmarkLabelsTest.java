@@ -0,0 +1,55 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+public class PrunedLandmarkLabelsTest {
+
+    @Test
+    void testStar() {
+        // B is in every title, so it should be the only hub anyone but the leaves needs.
+        String[] names = {"A", "B", "C", "D", "E"};
+        String[] titles = {"M1", "M2", "M3", "M4"};
+        int[] creditActor = {0, 1, 1, 2, 1, 3, 4};
+        int[] creditTitle = {0, 0, 1, 1, 2, 2, 3};
+        CompactGraph graph = CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, 7));
+        PrunedLandmarkLabels labels = PrunedLandmarkLabels.build(graph);
+        assertEquals(0, labels.distance(1, 1));
+        assertEquals(1, labels.distance(0, 1));
+        assertEquals(2, labels.distance(0, 3));
+        assertEquals(-1, labels.distance(0, 4));
+        // B labels itself, A, C and D label themselves and B, E labels only itself.
+        assertEquals(1 + 2 * 3 + 1, labels.getEntries());
+        assertTrue(labels.stats().startsWith("Distance labels: 8 entries over 5 actors"));
+    }
+
+    @Test
+    void testMatchesSearch() {
+        Random random = new Random(18);
+        String[] names = new String[250];
+        String[] titles = new String[150];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "A" + i;
+        }
+        for (int i = 0; i < titles.length; i++) {
+            titles[i] = "T" + i;
+        }
+        int[] creditActor = new int[400];
+        int[] creditTitle = new int[400];
+        for (int i = 0; i < creditActor.length; i++) {
+            creditActor[i] = random.nextInt(names.length);
+            creditTitle[i] = random.nextInt(titles.length);
+        }
+        CompactGraph graph = CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, creditActor.length));
+        PrunedLandmarkLabels labels = PrunedLandmarkLabels.build(graph);
+        BidirectionalSearch search = new BidirectionalSearch(graph);
+        for (int a = 0; a < graph.getOrder(); a += 2) {
+            for (int b = 0; b < graph.getOrder(); b += 5) {
+                assertEquals(search.findPath(a, b).length - 1, labels.distance(a, b));
+                assertEquals(labels.distance(a, b), labels.distance(b, a));
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class QueryServer {
+
+    private static final int BACKLOG = 4096;
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String TEXT = "text/plain; charset=utf-8";
+
+    private final CompactGraph graph;
+    private final BatchRunner runner;
+    private final SearchPool searches;
+    private final Metrics metrics;
+    private final int threads;
+    private HttpServer server;
+    private ExecutorService executor;
+    private boolean virtual;
+
+    /**
+     * The `QueryServer` class serves path and distance queries over HTTP from one
+     * long-lived process, so the graph is built once instead of once per query. The
+     * graph, and every index it carries, is only read while serving, so requests run
+     * concurrently: on a virtual thread each when the JVM has them, and on a fixed
+     * worker pool otherwise. Search scratch arrays come from a shared pool of at most
+     * threads searches rather than from each thread, so with virtual threads a burst
+     * of requests waits for a search instead of allocating one per request.
+     *
+     * It answers GET requests on four paths, taking actor names as URL-encoded query
+     * parameters; "from" defaults to the default center:
+     *   /path?from=A&to=B      a shortest path, as one batch JSON line
+     *   /distance?from=A&to=B  the distance only, from distance labels when present
+     *   /health                "ok" once the server is up
+     *   /metrics               the collected metrics in the Prometheus text format
+     *
+     * Replies are small, so launch the JVM with -Dsun.net.httpserver.nodelay=true:
+     * without TCP_NODELAY each reply on a kept-alive connection waits out the
+     * client's delayed ACK, about 40 ms. The command line sets it for --serve.
+     *
+     * @param graph         The graph to query.
+     * @param defaultCenter The source actor for queries that name only a destination.
+     * @param threads       The number of worker threads when virtual threads are not
+     *                      available, and the most searches that run at once.
+     * @param cache         The tree cache over graph, or null to always search.
+     * @param metrics       Where to record each query, or null.
+     * @param mask          The edge mask over graph, or null to use every edge.
+     */
+    public QueryServer(CompactGraph graph, String defaultCenter, int threads, BfsTreeCache cache, Metrics metrics, EdgeMask mask){
+        this.graph = graph;
+        this.runner = new BatchRunner(graph, defaultCenter, 1, true, cache, metrics, mask);
+        this.metrics = metrics;
+        this.threads = Math.max(1, threads);
+        this.searches = new SearchPool(graph, this.threads);
+    }
+
+    /**
+     * Builds the indexes queries need, binds the address and starts serving.
+     *
+     * @param address The address to listen on; port 0 picks a free port.
+     * @return The port the server listens on.
+     * @throws IOException If the address cannot be bound.
+     */
+    public int start(InetSocketAddress address) throws IOException {
+        // Build the lazy indexes now, so the first requests do not race to build them.
+        graph.getComponents();
+        graph.getNameIndex();
+        executor = newExecutor();
+        server = HttpServer.create(address, BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return getPort();
+    }
+
+    /**
+     * Stops serving and shuts the request threads down.
+     *
+     * @param delaySeconds The longest time to wait for requests in progress.
+     */
+    public void stop(int delaySeconds){
+        if (server != null) {
+            server.stop(delaySeconds);
+            executor.shutdown();
+            server = null;
+        }
+    }
+
+    /**
+     * Retrieves the port the server listens on.
+     *
+     * @return The bound port.
+     */
+    public int getPort(){
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Tells whether requests run on virtual threads.
+     *
+     * @return True if the JVM provides virtual threads, false if a fixed pool is used.
+     */
+    public boolean usesVirtualThreads(){
+        return virtual;
+    }
+
+    /**
+     * Retrieves the pool of search scratch arrays.
+     *
+     * @return The pool.
+     */
+    SearchPool getSearches(){
+        return searches;
+    }
+
+    /**
+     * Creates the executor requests run on. Virtual threads are looked up
+     * reflectively, so the class still compiles and runs on JVMs without them.
+     *
+     * @return A virtual-thread-per-task executor, or a fixed pool of threads workers.
+     */
+    private ExecutorService newExecutor(){
+        try {
+            ExecutorService perTask = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            virtual = true;
+            return perTask;
+        }
+        catch (ReflectiveOperationException e) {
+            virtual = false;
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    /**
+     * Answers one request and closes the exchange.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException If the response cannot be written.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                send(exchange, 405, JSON, "{\"error\":\"method not allowed\"}");
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/health")) {
+                send(exchange, 200, TEXT, "ok");
+                return;
+            }
+            if (path.equals("/metrics")) {
+                if (metrics == null) {
+                    send(exchange, 404, TEXT, "metrics are not enabled");
+                }
+                else {
+                    send(exchange, 200, TEXT, metrics.toPrometheus());
+                }
+                return;
+            }
+            if (!path.equals("/path") && !path.equals("/distance")) {
+                send(exchange, 404, JSON, "{\"error\":\"not found\"}");
+                return;
+            }
+
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String goal = query.get("to");
+            if (goal == null || goal.trim().isEmpty()) {
+                send(exchange, 400, JSON, "{\"error\":\"missing to\"}");
+                return;
+            }
+            String center = query.getOrDefault("from", runner.getDefaultCenter()).trim();
+            BidirectionalSearch search;
+            try {
+                search = searches.borrow();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                send(exchange, 503, JSON, "{\"error\":\"shutting down\"}");
+                return;
+            }
+            String result;
+            try {
+                result = path.equals("/path")
+                        ? runner.answer(center, goal.trim(), search)
+                        : runner.distance(center, goal.trim(), search);
+            }
+            finally {
+                searches.release(search);
+            }
+            send(exchange, 200, JSON, result);
+        }
+        catch (IllegalArgumentException e) {
+            send(exchange, 400, JSON, "{\"error\":" + BatchRunner.quote(e.getMessage()) + "}");
+        }
+        catch (RuntimeException e) {
+            System.err.println("Query failed: " + exchange.getRequestURI() + ": " + e);
+            send(exchange, 500, JSON, "{\"error\":\"internal error\"}");
+        }
+        finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Parses a URL query string.
+     *
+     * @param raw The raw query, or null.
+     * @return The decoded parameters; the last value wins when a name repeats.
+     * @throws IllegalArgumentException If a value is not valid URL encoding.
+     */
+    static Map<String, String> parseQuery(String raw){
+        Map<String, String> parameters = new HashMap<>();
+        if (raw == null || raw.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : raw.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static void send(HttpExchange exchange, int status, String type, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", type);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class QueryServerTest {
+
+    private QueryServer server;
+
+    private CompactGraph graph() {
+        String[] names = {"A", "B", "C", "D"};
+        String[] titles = {"M1", "M2", "M3"};
+        int[] creditActor = {0, 1, 1, 2, 3};
+        int[] creditTitle = {0, 0, 1, 1, 2};
+        return CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, 5));
+    }
+
+    private int start(CompactGraph graph, Metrics metrics) throws IOException {
+        server = new QueryServer(graph, "A", 4, null, metrics, null);
+        return server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    private static String get(int port, String target, int status) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + port + target);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        assertEquals(status, connection.getResponseCode());
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @AfterEach
+    void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testPath() throws IOException {
+        int port = start(graph(), null);
+        assertEquals("{\"source\":\"A\",\"destination\":\"C\",\"status\":\"ok\",\"distance\":2,"
+                + "\"path\":[\"A\",\"M1\",\"B\",\"M2\",\"C\"]}", get(port, "/path?from=A&to=C", 200));
+        assertEquals("{\"source\":\"A\",\"destination\":\"B\",\"status\":\"ok\",\"distance\":1,"
+                + "\"path\":[\"A\",\"M1\",\"B\"]}", get(port, "/path?to=B", 200));
+        assertEquals("{\"source\":\"A\",\"destination\":\"D\",\"status\":\"no_path\",\"distance\":-1,\"path\":[]}",
+                get(port, "/path?from=A&to=D", 200));
+        assertEquals("{\"source\":\"A\",\"destination\":\"Z Z\",\"status\":\"unknown_actor\",\"distance\":-1,\"path\":[]}",
+                get(port, "/path?from=A&to=Z+Z", 200));
+    }
+
+    @Test
+    void testDistance() throws IOException {
+        CompactGraph graph = graph();
+        graph.setDistanceLabels(PrunedLandmarkLabels.build(graph));
+        int port = start(graph, null);
+        assertEquals("{\"source\":\"C\",\"destination\":\"A\",\"status\":\"ok\",\"distance\":2}",
+                get(port, "/distance?from=C&to=A", 200));
+        assertEquals("{\"source\":\"C\",\"destination\":\"D\",\"status\":\"no_path\",\"distance\":-1}",
+                get(port, "/distance?from=C&to=D", 200));
+    }
+
+    @Test
+    void testErrors() throws IOException {
+        int port = start(graph(), new Metrics());
+        assertEquals("ok", get(port, "/health", 200));
+        assertEquals("{\"error\":\"missing to\"}", get(port, "/path?from=A", 400));
+        assertEquals("{\"error\":\"not found\"}", get(port, "/route?to=B", 404));
+        get(port, "/path?to=C", 200);
+        assertTrue(get(port, "/metrics", 200).contains("query"));
+    }
+
+    @Test
+    void testInternalError() throws IOException {
+        // Components from a sound graph over CSR arrays whose first neighbour is out of range,
+        // as a stale index would leave them: the search itself fails.
+        CompactGraph sound = graph();
+        CompactGraph broken = new CompactGraph(new String[] {"A", "B", "C"}, new String[] {"M1"},
+                new int[] {0, 1, 2, 2}, new int[] {7, 0}, new int[] {0, 0});
+        broken.setComponents(ComponentIndex.of(sound));
+        int port = start(broken, null);
+        assertEquals("{\"error\":\"internal error\"}", get(port, "/path?from=A&to=C", 500));
+        assertEquals("ok", get(port, "/health", 200));
+    }
+
+    @Test
+    void testConcurrentQueries() throws Exception {
+        int port = start(graph(), null);
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> replies = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String target = i % 2 == 0 ? "/path?from=C&to=A" : "/distance?from=A&to=C";
+                replies.add(clients.submit(() -> get(port, target, 200)));
+            }
+            for (int i = 0; i < replies.size(); i++) {
+                String reply = replies.get(i).get();
+                assertTrue(reply.contains("\"distance\":2"), reply);
+            }
+        }
+        finally {
+            clients.shutdown();
+        }
+        // Searches are reused, and never more than the server's thread count are created.
+        assertTrue(server.getSearches().getCreated() <= 4);
+    }
+
+    @Test
+    void testParseQuery() {
+        Map<String, String> query = QueryServer.parseQuery("from=Kevin+Bacon+%28I%29&to=Ren%C3%A9e&flag");
+        assertEquals("Kevin Bacon (I)", query.get("from"));
+        assertEquals("Ren\u00e9e", query.get("to"));
+        assertEquals("", query.get("flag"));
+        assertTrue(QueryServer.parseQuery(null).isEmpty());
+    }
+}
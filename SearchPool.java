@@ -0,0 +1,75 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SearchPool {
+
+    private final CompactGraph graph;
+    private final int capacity;
+    private final ArrayBlockingQueue<BidirectionalSearch> idle;
+    private final AtomicInteger created;
+
+    /**
+     * The `SearchPool` class hands out search scratch arrays to request handlers that
+     * do not stay on one thread, such as virtual threads, where a thread-local search
+     * would be allocated afresh for every request. A search is created only when every
+     * pooled one is in use and the pool holds fewer than capacity; past that a borrower
+     * waits for a search to be released. Each search holds arrays the size of the
+     * graph, so the cap, not the number of requests in flight, bounds their memory.
+     *
+     * @param graph    The graph every search runs over.
+     * @param capacity The most searches the pool ever creates.
+     */
+    public SearchPool(CompactGraph graph, int capacity){
+        this.graph = graph;
+        this.capacity = Math.max(1, capacity);
+        this.idle = new ArrayBlockingQueue<>(this.capacity);
+        this.created = new AtomicInteger();
+    }
+
+    /**
+     * Takes a search out of the pool, creating one if none is idle and the pool is
+     * below capacity, and waiting for one to be released otherwise.
+     *
+     * @return A search owned by the caller until it is released.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public BidirectionalSearch borrow() throws InterruptedException {
+        BidirectionalSearch search = idle.poll();
+        if (search != null) {
+            return search;
+        }
+        for (int count = created.get(); count < capacity; count = created.get()) {
+            if (created.compareAndSet(count, count + 1)) {
+                return new BidirectionalSearch(graph);
+            }
+        }
+        return idle.take();
+    }
+
+    /**
+     * Returns a search to the pool. The caller must not use it afterwards.
+     *
+     * @param search A search taken from this pool.
+     */
+    public void release(BidirectionalSearch search){
+        idle.offer(search);
+    }
+
+    /**
+     * Retrieves the number of searches the pool has created.
+     *
+     * @return The number of searches created, idle or in use.
+     */
+    public int getCreated(){
+        return created.get();
+    }
+
+    /**
+     * Retrieves the most searches the pool creates.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity(){
+        return capacity;
+    }
+}
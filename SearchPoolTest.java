@@ -0,0 +1,55 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class SearchPoolTest {
+
+    private CompactGraph graph() {
+        String[] names = {"A", "B", "C"};
+        String[] titles = {"M1", "M2"};
+        int[] creditActor = {0, 1, 1, 2};
+        int[] creditTitle = {0, 0, 1, 1};
+        return CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, 4));
+    }
+
+    @Test
+    void testReuse() throws InterruptedException {
+        SearchPool pool = new SearchPool(graph(), 2);
+        BidirectionalSearch first = pool.borrow();
+        BidirectionalSearch second = pool.borrow();
+        assertNotSame(first, second);
+        assertEquals(2, pool.getCreated());
+
+        pool.release(first);
+        assertSame(first, pool.borrow());
+        assertEquals(2, pool.getCreated());
+        assertArrayEquals(new int[] {0, 1, 2}, first.findPath(0, 2));
+    }
+
+    @Test
+    void testWaitsAtCapacity() throws Exception {
+        SearchPool pool = new SearchPool(graph(), 1);
+        BidirectionalSearch first = pool.borrow();
+        CompletableFuture<BidirectionalSearch> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.borrow();
+            }
+            catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThrows(TimeoutException.class, () -> waiting.get(100, TimeUnit.MILLISECONDS));
+
+        pool.release(first);
+        assertSame(first, waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(1, pool.getCreated());
+    }
+}
@@ -0,0 +1,237 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class ShortestPathDag implements Iterable<int[]> {
+
+    private final int center;
+    private final int goal;
+    private final int distance;
+    private final int[] vertices;
+    private final int[] predStart;
+    private final int[] preds;
+    private final long[] counts;
+
+    /**
+     * The `ShortestPathDag` class holds every shortest path between two actors at once.
+     * A BFS from the center finds each vertex's level, and a walk back from the goal
+     * keeps only the vertices and edges that lie on some shortest path, recording for
+     * each kept vertex all of its predecessors one level closer to the center. The
+     * paths are then counted with one pass over the DAG and can be streamed one at a
+     * time without ever holding more than one of them.
+     *
+     * Kept vertices are numbered in the order the walk back from the goal reached them,
+     * so the goal is 0, every predecessor has a larger number than its successor, and
+     * the center comes last.
+     *
+     * @param center    The ID of the source vertex.
+     * @param goal      The ID of the destination vertex.
+     * @param distance  The length of the shortest paths, or -1 if there is none.
+     * @param vertices  The vertex ID of each kept vertex.
+     * @param predStart The start of each kept vertex's predecessor run; length is kept + 1.
+     * @param preds     The predecessors of every kept vertex, as kept-vertex numbers.
+     */
+    private ShortestPathDag(int center, int goal, int distance, int[] vertices, int[] predStart, int[] preds){
+        this.center = center;
+        this.goal = goal;
+        this.distance = distance;
+        this.vertices = vertices;
+        this.predStart = predStart;
+        this.preds = preds;
+        this.counts = new long[vertices.length];
+        for (int i = vertices.length - 1; i >= 0; i--) {
+            long count = predStart[i] == predStart[i + 1] ? 1 : 0;
+            for (int p = predStart[i]; p < predStart[i + 1]; p++) {
+                count = saturatedAdd(count, counts[preds[p]]);
+            }
+            counts[i] = count;
+        }
+    }
+
+    /**
+     * Builds the shortest-path DAG between two vertices.
+     *
+     * @param graph  The graph.
+     * @param center The ID of the source vertex.
+     * @param goal   The ID of the destination vertex.
+     * @return The DAG, empty if no path exists.
+     */
+    public static ShortestPathDag build(CompactGraph graph, int center, int goal){
+        if (!graph.getComponents().connected(center, goal)) {
+            return new ShortestPathDag(center, goal, -1, new int[0], new int[1], new int[0]);
+        }
+        int order = graph.getOrder();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] level = new int[order];
+        Arrays.fill(level, -1);
+        int[] queue = new int[order];
+        int head = 0;
+        int tail = 0;
+        level[center] = 0;
+        queue[tail++] = center;
+        // Levels past the goal's cannot hold a shortest path, so stop expanding once the goal is reached.
+        while (head < tail && level[goal] < 0) {
+            int v = queue[head++];
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int w = targets[e];
+                if (level[w] < 0) {
+                    level[w] = level[v] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        if (level[goal] < 0) {
+            return new ShortestPathDag(center, goal, -1, new int[0], new int[1], new int[0]);
+        }
+
+        // Walk back from the goal; the queue array is reused for the kept vertices.
+        int[] kept = new int[order];
+        Arrays.fill(kept, -1);
+        int[] vertices = queue;
+        int[] predStart = new int[16];
+        int[] preds = new int[16];
+        int keptCount = 0;
+        int predCount = 0;
+        kept[goal] = keptCount;
+        vertices[keptCount++] = goal;
+        for (int i = 0; i < keptCount; i++) {
+            int w = vertices[i];
+            if (i + 1 >= predStart.length) {
+                predStart = Arrays.copyOf(predStart, predStart.length * 2);
+            }
+            predStart[i] = predCount;
+            for (int e = offsets[w]; e < offsets[w + 1]; e++) {
+                int u = targets[e];
+                if (level[u] < 0 || level[u] != level[w] - 1) {
+                    continue;
+                }
+                if (kept[u] < 0) {
+                    kept[u] = keptCount;
+                    vertices[keptCount++] = u;
+                }
+                if (predCount == preds.length) {
+                    preds = Arrays.copyOf(preds, predCount * 2);
+                }
+                preds[predCount++] = kept[u];
+            }
+        }
+        predStart = Arrays.copyOf(predStart, keptCount + 1);
+        predStart[keptCount] = predCount;
+        return new ShortestPathDag(center, goal, level[goal], Arrays.copyOf(vertices, keptCount), predStart,
+                Arrays.copyOf(preds, predCount));
+    }
+
+    private static long saturatedAdd(long a, long b){
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * Retrieves the length of the shortest paths.
+     *
+     * @return The number of edges on each shortest path, or -1 if there is none.
+     */
+    public int getDistance(){
+        return distance;
+    }
+
+    /**
+     * Counts the shortest paths.
+     *
+     * @return The number of distinct shortest paths, capped at Long.MAX_VALUE.
+     */
+    public long count(){
+        return distance < 0 ? 0 : counts[0];
+    }
+
+    /**
+     * Counts the vertices on at least one shortest path.
+     *
+     * @return The number of vertices in the DAG.
+     */
+    public int getVertexCount(){
+        return vertices.length;
+    }
+
+    /**
+     * Retrieves the source vertex.
+     *
+     * @return The center's vertex ID.
+     */
+    public int getCenter(){
+        return center;
+    }
+
+    /**
+     * Retrieves the destination vertex.
+     *
+     * @return The goal's vertex ID.
+     */
+    public int getGoal(){
+        return goal;
+    }
+
+    /**
+     * Streams the shortest paths. Each path is computed when it is asked for, so only
+     * the current one is held at any time.
+     *
+     * @return An iterator over the vertex IDs of each path, from center to goal.
+     */
+    @Override
+    public Iterator<int[]> iterator(){
+        return new PathIterator();
+    }
+
+    /**
+     * Enumerates the paths like an odometer: position d holds the choice of
+     * predecessor d steps back from the goal, and advancing bumps the deepest position
+     * that still has another choice and resets every position after it.
+     */
+    private class PathIterator implements Iterator<int[]> {
+        private final int[] node = new int[distance + 1];
+        private final int[] choice = new int[distance + 1];
+        private boolean more;
+
+        PathIterator(){
+            more = distance >= 0;
+            if (more) {
+                descend(0);
+            }
+        }
+
+        private void descend(int from){
+            for (int d = from; d < distance; d++) {
+                choice[d] = 0;
+                node[d + 1] = preds[predStart[node[d]]];
+            }
+        }
+
+        @Override
+        public boolean hasNext(){
+            return more;
+        }
+
+        @Override
+        public int[] next(){
+            if (!more) {
+                throw new NoSuchElementException();
+            }
+            int[] path = new int[distance + 1];
+            for (int d = 0; d <= distance; d++) {
+                path[distance - d] = vertices[node[d]];
+            }
+            more = false;
+            for (int d = distance - 1; d >= 0; d--) {
+                if (predStart[node[d]] + choice[d] + 1 < predStart[node[d] + 1]) {
+                    choice[d]++;
+                    node[d + 1] = preds[predStart[node[d]] + choice[d]];
+                    descend(d + 1);
+                    more = true;
+                    break;
+                }
+            }
+            return path;
+        }
+    }
+}
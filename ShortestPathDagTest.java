@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class ShortestPathDagTest {
+
+    static CompactGraph randomGraph(long seed, int actors, int titleCount, int creditCount) {
+        Random random = new Random(seed);
+        String[] names = new String[actors];
+        String[] titles = new String[titleCount];
+        for (int i = 0; i < actors; i++) {
+            names[i] = "A" + i;
+        }
+        for (int i = 0; i < titleCount; i++) {
+            titles[i] = "T" + i;
+        }
+        int[] creditActor = new int[creditCount];
+        int[] creditTitle = new int[creditCount];
+        for (int i = 0; i < creditCount; i++) {
+            creditActor[i] = random.nextInt(actors);
+            creditTitle[i] = random.nextInt(titleCount);
+        }
+        return CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, creditCount));
+    }
+
+    private CompactGraph diamond() {
+        // A reaches D through B or C, and E is on its own.
+        String[] names = {"A", "B", "C", "D", "E"};
+        String[] titles = {"M1", "M2", "M3", "M4", "M5"};
+        int[] creditActor = {0, 1, 0, 2, 1, 3, 2, 3, 4};
+        int[] creditTitle = {0, 0, 1, 1, 2, 2, 3, 3, 4};
+        return CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, 9));
+    }
+
+    @Test
+    void testDiamond() {
+        ShortestPathDag dag = ShortestPathDag.build(diamond(), 0, 3);
+        assertEquals(2, dag.getDistance());
+        assertEquals(2, dag.count());
+        assertEquals(4, dag.getVertexCount());
+        Iterator<int[]> paths = dag.iterator();
+        assertArrayEquals(new int[] {0, 1, 3}, paths.next());
+        assertArrayEquals(new int[] {0, 2, 3}, paths.next());
+        assertFalse(paths.hasNext());
+
+        ShortestPathDag none = ShortestPathDag.build(diamond(), 0, 4);
+        assertEquals(-1, none.getDistance());
+        assertEquals(0, none.count());
+        assertFalse(none.iterator().hasNext());
+        assertEquals(1, ShortestPathDag.build(diamond(), 2, 2).count());
+    }
+
+    @Test
+    void testEnumeratesEveryShortestPath() {
+        CompactGraph graph = randomGraph(19, 120, 60, 260);
+        BidirectionalSearch search = new BidirectionalSearch(graph);
+        for (int center = 0; center < graph.getOrder(); center += 11) {
+            for (int goal = 1; goal < graph.getOrder(); goal += 13) {
+                ShortestPathDag dag = ShortestPathDag.build(graph, center, goal);
+                int distance = search.findPath(center, goal).length - 1;
+                assertEquals(distance, dag.getDistance());
+                Set<List<Integer>> seen = new HashSet<>();
+                for (int[] path : dag) {
+                    assertEquals(distance + 1, path.length);
+                    assertEquals(center, path[0]);
+                    assertEquals(goal, path[distance]);
+                    for (int i = 0; i < distance; i++) {
+                        assertEquals(1, ShortestPathDag.build(graph, path[i], path[i + 1]).getDistance());
+                    }
+                    List<Integer> key = new ArrayList<>();
+                    for (int v : path) {
+                        key.add(v);
+                    }
+                    seen.add(key);
+                }
+                assertEquals(dag.count(), seen.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,355 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class StringDictionary {
+
+    private byte[] arena;
+    private int arenaSize;
+    private int[] starts;
+    private int[] hashes;
+    private int count;
+    private int[] table;
+
+    /**
+     * The `StringDictionary` class stores each distinct string once, as UTF-8 bytes
+     * back to back in one byte arena, and hands out dense int handles in order of
+     * first appearance. Lookups hash the UTF-8 bytes into an open-addressing table of
+     * handles, so the dictionary holds no `String` objects at all; `get` decodes a
+     * string only when it is asked for. Instances are not thread-safe while strings
+     * are being added, but can be read from several threads once they are complete.
+     */
+    public StringDictionary(){
+        arena = new byte[1 << 12];
+        starts = new int[64];
+        hashes = new int[64];
+        table = new int[128];
+        Arrays.fill(table, -1);
+    }
+
+    /**
+     * Creates a dictionary holding the given strings, with handle i for values[i].
+     *
+     * @param values The distinct strings.
+     * @throws IllegalArgumentException If a string appears twice.
+     */
+    public StringDictionary(String[] values){
+        this();
+        for (String value : values) {
+            int before = count;
+            if (intern(value) != before) {
+                throw new IllegalArgumentException("Duplicate string in dictionary: " + value);
+            }
+        }
+    }
+
+    /**
+     * Creates a dictionary over an existing arena, such as one read back from a
+     * snapshot. String i is arena[starts[i]] up to arena[starts[i + 1]] and must be
+     * distinct from every other.
+     *
+     * @param arena  The UTF-8 bytes of every string, back to back.
+     * @param starts The start of each string; length is count + 1.
+     * @param count  The number of strings.
+     * @return The dictionary.
+     */
+    static StringDictionary fromBytes(byte[] arena, int[] starts, int count){
+        StringDictionary dictionary = new StringDictionary();
+        dictionary.arena = arena;
+        dictionary.arenaSize = starts[count];
+        dictionary.starts = starts;
+        dictionary.count = count;
+        dictionary.hashes = new int[Math.max(starts.length, 1)];
+        for (int id = 0; id < count; id++) {
+            dictionary.hashes[id] = hash(arena, starts[id], starts[id + 1]);
+        }
+        dictionary.table = new int[Math.max(128, Integer.highestOneBit(Math.max(1, count)) * 4)];
+        dictionary.rehash(dictionary.table.length);
+        return dictionary;
+    }
+
+    /**
+     * Retrieves the handle of a string, adding the string if it is new.
+     *
+     * @param value The string.
+     * @return Its handle.
+     */
+    public int intern(String value){
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return intern(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Retrieves the handle of the UTF-8 bytes from start (inclusive) to end
+     * (exclusive) of an array, adding them if they are new.
+     *
+     * @param bytes The array holding the bytes.
+     * @param start The first byte.
+     * @param end   One past the last byte.
+     * @return The handle.
+     */
+    public int intern(byte[] bytes, int start, int end){
+        int hash = hash(bytes, start, end);
+        int slot = slot(hash);
+        while (table[slot] >= 0) {
+            int id = table[slot];
+            if (hashes[id] == hash && matches(id, bytes, start, end)) {
+                return id;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        int length = end - start;
+        ensureArena(length);
+        System.arraycopy(bytes, start, arena, arenaSize, length);
+        return add(slot, hash, length);
+    }
+
+    /**
+     * Retrieves the handle of the UTF-8 bytes from start (inclusive) to end
+     * (exclusive) of a buffer, adding them if they are new. The buffer's position is
+     * not changed.
+     *
+     * @param buffer The buffer holding the bytes.
+     * @param start  The first byte.
+     * @param end    One past the last byte.
+     * @return The handle.
+     */
+    public int intern(ByteBuffer buffer, int start, int end){
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+        int slot = slot(hash);
+        while (table[slot] >= 0) {
+            int id = table[slot];
+            if (hashes[id] == hash && matches(id, buffer, start, end)) {
+                return id;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        int length = end - start;
+        ensureArena(length);
+        for (int i = 0; i < length; i++) {
+            arena[arenaSize + i] = buffer.get(start + i);
+        }
+        return add(slot, hash, length);
+    }
+
+    /**
+     * Adds the string of another dictionary, copying its bytes without decoding them.
+     *
+     * @param other The other dictionary.
+     * @param id    The handle of the string in other.
+     * @return The string's handle in this dictionary.
+     */
+    public int intern(StringDictionary other, int id){
+        return intern(other.arena, other.starts[id], other.starts[id + 1]);
+    }
+
+    /**
+     * Looks up the handle of a string without adding it.
+     *
+     * @param value The string.
+     * @return Its handle, or -1 if it is not in the dictionary.
+     */
+    public int find(String value){
+        if (value == null) {
+            return -1;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return find(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Looks up the handle of a string of another dictionary without adding it or
+     * decoding it.
+     *
+     * @param other The other dictionary.
+     * @param id    The handle of the string in other.
+     * @return Its handle in this dictionary, or -1 if it is not in the dictionary.
+     */
+    public int find(StringDictionary other, int id){
+        return find(other.arena, other.starts[id], other.starts[id + 1]);
+    }
+
+    private int find(byte[] bytes, int start, int end){
+        int hash = hash(bytes, start, end);
+        int slot = slot(hash);
+        while (table[slot] >= 0) {
+            int id = table[slot];
+            if (hashes[id] == hash && matches(id, bytes, start, end)) {
+                return id;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Copies the dictionary, so strings can be added to the copy while this one is
+     * still being read.
+     *
+     * @return A dictionary with the same strings and handles.
+     */
+    public StringDictionary copy(){
+        StringDictionary copy = new StringDictionary();
+        copy.arena = Arrays.copyOf(arena, arena.length);
+        copy.arenaSize = arenaSize;
+        copy.starts = Arrays.copyOf(starts, starts.length);
+        copy.hashes = Arrays.copyOf(hashes, hashes.length);
+        copy.count = count;
+        copy.table = Arrays.copyOf(table, table.length);
+        return copy;
+    }
+
+    /**
+     * Decodes the string with the given handle.
+     *
+     * @param id The handle.
+     * @return The string.
+     */
+    public String get(int id){
+        if (id < 0 || id >= count) {
+            throw new IndexOutOfBoundsException("No string with handle " + id);
+        }
+        return new String(arena, starts[id], starts[id + 1] - starts[id], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Retrieves the number of distinct strings.
+     *
+     * @return The number of strings.
+     */
+    public int size(){
+        return count;
+    }
+
+    /**
+     * Retrieves the number of UTF-8 bytes stored for the strings.
+     *
+     * @return The arena size in bytes.
+     */
+    public int getArenaSize(){
+        return arenaSize;
+    }
+
+    /**
+     * Estimates the memory held by the dictionary: the arena, the start and hash
+     * arrays and the lookup table.
+     *
+     * @return The approximate size in bytes.
+     */
+    public long getBytes(){
+        return arena.length + 4L * (starts.length + hashes.length + table.length) + 64;
+    }
+
+    /**
+     * Decodes every string, in handle order.
+     *
+     * @return The strings.
+     */
+    public String[] toArray(){
+        String[] values = new String[count];
+        for (int id = 0; id < count; id++) {
+            values[id] = get(id);
+        }
+        return values;
+    }
+
+    /**
+     * Retrieves the arena without copying it. Only the first getArenaSize() bytes are
+     * used, and callers must not modify it.
+     *
+     * @return The UTF-8 bytes of every string.
+     */
+    byte[] arena(){
+        return arena;
+    }
+
+    /**
+     * Retrieves the start offsets without copying them. Only the first size() + 1
+     * entries are used, and callers must not modify them.
+     *
+     * @return The start of each string in the arena.
+     */
+    int[] starts(){
+        return starts;
+    }
+
+    /**
+     * Shrinks the arena and the start and hash arrays to the space actually used.
+     * Call this once no more strings will be added.
+     */
+    public void trim(){
+        arena = Arrays.copyOf(arena, arenaSize);
+        starts = Arrays.copyOf(starts, count + 1);
+        hashes = Arrays.copyOf(hashes, count + 1);
+    }
+
+    private int add(int slot, int hash, int length){
+        if (count + 1 >= starts.length) {
+            starts = Arrays.copyOf(starts, starts.length * 2);
+            hashes = Arrays.copyOf(hashes, hashes.length * 2);
+        }
+        int id = count++;
+        starts[id] = arenaSize;
+        starts[id + 1] = arenaSize + length;
+        hashes[id] = hash;
+        arenaSize += length;
+        table[slot] = id;
+        if (count * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return id;
+    }
+
+    private void ensureArena(int length){
+        if (arenaSize + length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + length));
+        }
+    }
+
+    private int slot(int hash){
+        return (hash ^ (hash >>> 16)) & (table.length - 1);
+    }
+
+    private boolean matches(int id, byte[] bytes, int start, int end){
+        int offset = starts[id];
+        return starts[id + 1] - offset == end - start
+                && Arrays.equals(arena, offset, offset + end - start, bytes, start, end);
+    }
+
+    private boolean matches(int id, ByteBuffer buffer, int start, int end){
+        int offset = starts[id];
+        if (starts[id + 1] - offset != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (arena[offset++] != buffer.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash(int size){
+        table = new int[size];
+        Arrays.fill(table, -1);
+        int mask = size - 1;
+        for (int id = 0; id < count; id++) {
+            int slot = slot(hashes[id]);
+            while (table[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id;
+        }
+    }
+
+    private static int hash(byte[] bytes, int start, int end){
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+}
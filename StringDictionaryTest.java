@@ -0,0 +1,71 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class StringDictionaryTest {
+
+    @Test
+    void testIntern() {
+        StringDictionary dictionary = new StringDictionary();
+        assertEquals(0, dictionary.intern("Kevin Bacon"));
+        assertEquals(1, dictionary.intern("Act\u00f6r"));
+        assertEquals(2, dictionary.intern(""));
+        assertEquals(0, dictionary.intern("Kevin Bacon"));
+        assertEquals(3, dictionary.size());
+        assertEquals("Act\u00f6r", dictionary.get(1));
+        assertEquals(1, dictionary.find("Act\u00f6r"));
+        assertEquals(-1, dictionary.find("Kevin"));
+        assertEquals(-1, dictionary.find(null));
+        assertEquals(17, dictionary.getArenaSize());
+    }
+
+    @Test
+    void testGrowth() {
+        StringDictionary dictionary = new StringDictionary();
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, dictionary.intern("Actor " + i));
+        }
+        dictionary.trim();
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, dictionary.find("Actor " + i));
+            assertEquals("Actor " + i, dictionary.get(i));
+        }
+    }
+
+    @Test
+    void testBuffersAndCopies() {
+        ByteBuffer buffer = ByteBuffer.wrap("xxMoviexx".getBytes(StandardCharsets.UTF_8));
+        StringDictionary local = new StringDictionary();
+        assertEquals(0, local.intern(buffer, 2, 7));
+        StringDictionary global = new StringDictionary(new String[] {"Other"});
+        assertEquals(1, global.intern(local, 0));
+        assertEquals(1, global.find("Movie"));
+
+        StringDictionary copy = StringDictionary.fromBytes(global.arena(), global.starts(), global.size());
+        assertArrayEquals(new String[] {"Other", "Movie"}, copy.toArray());
+        assertEquals(1, copy.find("Movie"));
+        assertEquals(2, copy.intern("New"));
+    }
+
+    @Test
+    void testCopy() {
+        StringDictionary original = new StringDictionary(new String[] {"A", "B"});
+        StringDictionary copy = original.copy();
+        assertEquals(2, copy.intern("C"));
+        assertEquals(1, copy.find(original, 1));
+        assertEquals(3, copy.size());
+        assertEquals(-1, original.find(copy, 2));
+        assertEquals(2, original.size());
+        assertEquals(-1, original.find("C"));
+    }
+
+    @Test
+    void testDuplicates() {
+        assertThrows(IllegalArgumentException.class, () -> new StringDictionary(new String[] {"A", "A"}));
+    }
+}
@@ -0,0 +1,205 @@
+public class TitleAttributes {
+
+    private static final String[] TV_MARKERS = {"(TV)", "(mini)"};
+    private static final String GAME_MARKER = "(VG)";
+
+    private final short[] years;
+    private final long[] tv;
+    private final long[] games;
+
+    /**
+     * The `TitleAttributes` class keeps, for every title ID, the attributes query
+     * filters test: its release year, whether it is TV and whether it is a video
+     * game. All are parsed from the title strings the way IMDb lists write them: the
+     * year from the first "(YYYY)" or "(YYYY/I)" suffix, TV from a quoted series
+     * title, an episode in braces, or a "(TV)" or "(mini)" marker, and video games
+     * from a "(VG)" marker. A "(V)" title is a film released straight to video, so it
+     * counts as a movie. The TV and game flags are kept as bitsets.
+     *
+     * @param years The release year of each title, or 0 if unknown.
+     * @param tv    One bit per title, set for TV titles.
+     * @param games One bit per title, set for video games.
+     */
+    TitleAttributes(short[] years, long[] tv, long[] games){
+        this.years = years;
+        this.tv = tv;
+        this.games = games;
+    }
+
+    /**
+     * Parses the attributes of every title in a dictionary.
+     *
+     * @param titles The titles, by title ID.
+     * @return The attributes.
+     */
+    public static TitleAttributes parse(StringDictionary titles){
+        int count = titles.size();
+        short[] years = new short[count];
+        long[] tv = new long[(count + 63) >>> 6];
+        long[] games = new long[tv.length];
+        for (int t = 0; t < count; t++) {
+            String title = titles.get(t);
+            years[t] = (short) parseYear(title);
+            if (isTvTitle(title)) {
+                tv[t >>> 6] |= 1L << t;
+            }
+            if (isGameTitle(title)) {
+                games[t >>> 6] |= 1L << t;
+            }
+        }
+        return new TitleAttributes(years, tv, games);
+    }
+
+    /**
+     * Finds the release year in a title.
+     *
+     * @param title The title.
+     * @return The year of the first "(YYYY)" or "(YYYY/...)" group, or 0 if there is none.
+     */
+    static int parseYear(String title){
+        for (int at = title.indexOf('('); at >= 0; at = title.indexOf('(', at + 1)) {
+            if (at + 5 < title.length() && (title.charAt(at + 5) == ')' || title.charAt(at + 5) == '/')) {
+                int year = 0;
+                int i = at + 1;
+                while (i < at + 5 && Character.isDigit(title.charAt(i))) {
+                    year = year * 10 + (title.charAt(i) - '0');
+                    i++;
+                }
+                if (i == at + 5) {
+                    return year;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Checks a title for the IMDb markers of TV: a quoted series name, an episode in
+     * braces, or a TV or mini-series marker.
+     *
+     * @param title The title.
+     * @return True if the title is TV.
+     */
+    static boolean isTvTitle(String title){
+        if (title.startsWith("\"") || title.indexOf('{') >= 0) {
+            return true;
+        }
+        for (String marker : TV_MARKERS) {
+            if (title.contains(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks a title for the IMDb marker of a video game.
+     *
+     * @param title The title.
+     * @return True if the title is a video game.
+     */
+    static boolean isGameTitle(String title){
+        return title.contains(GAME_MARKER);
+    }
+
+    /**
+     * Marks every title missing from a list of movies as TV, for credits files whose
+     * titles carry no TV markers. Titles already marked TV stay TV, even when the
+     * list names them, and the years and game flags are kept.
+     *
+     * @param titles The titles, by title ID.
+     * @param movies The titles known to be movies, such as those of a movies-only credits file.
+     * @return New attributes with the unlisted titles added to the TV flags.
+     */
+    public TitleAttributes withMovies(StringDictionary titles, StringDictionary movies){
+        long[] marked = tv.clone();
+        for (int t = 0; t < years.length; t++) {
+            if (movies.find(titles.get(t)) < 0) {
+                marked[t >>> 6] |= 1L << t;
+            }
+        }
+        return new TitleAttributes(years, marked, games);
+    }
+
+    /**
+     * Retrieves the number of titles.
+     *
+     * @return The number of titles.
+     */
+    public int size(){
+        return years.length;
+    }
+
+    /**
+     * Retrieves the release year of a title.
+     *
+     * @param title The title ID.
+     * @return The year, or 0 if unknown.
+     */
+    public int year(int title){
+        return years[title];
+    }
+
+    /**
+     * Tells whether a title is TV.
+     *
+     * @param title The title ID.
+     * @return True if the title is TV.
+     */
+    public boolean isTv(int title){
+        return (tv[title >>> 6] & 1L << title) != 0;
+    }
+
+    /**
+     * Tells whether a title is a video game.
+     *
+     * @param title The title ID.
+     * @return True if the title is a video game.
+     */
+    public boolean isGame(int title){
+        return (games[title >>> 6] & 1L << title) != 0;
+    }
+
+    /**
+     * Counts the TV titles.
+     *
+     * @return The number of titles marked TV.
+     */
+    public int countTv(){
+        int count = 0;
+        for (long word : tv) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Counts the video games.
+     *
+     * @return The number of titles marked as video games.
+     */
+    public int countGames(){
+        int count = 0;
+        for (long word : games) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Builds the bitset of the titles a filter allows. Movies only excludes video
+     * games as well as TV.
+     *
+     * @param filter The filter.
+     * @return One bit per title, set for allowed titles.
+     */
+    public long[] mask(TitleFilter filter){
+        long[] allowed = new long[tv.length];
+        for (int t = 0; t < years.length; t++) {
+            if (filter.allows(isTv(t) || isGame(t), years[t])) {
+                allowed[t >>> 6] |= 1L << t;
+            }
+        }
+        return allowed;
+    }
+}
@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TitleAttributesTest {
+
+    private boolean allowed(long[] mask, int title) {
+        return (mask[title >>> 6] & 1L << title) != 0;
+    }
+
+    @Test
+    void testParse() {
+        assertEquals(1994, TitleAttributes.parseYear("Air Up There, The (1994)"));
+        assertEquals(2001, TitleAttributes.parseYear("Hamlet (2001/I)"));
+        assertEquals(1994, TitleAttributes.parseYear("\"Friends\" (1994) {The One (1999)}"));
+        assertEquals(0, TitleAttributes.parseYear("Nomadland"));
+        assertEquals(0, TitleAttributes.parseYear("Unfinished (????)"));
+        assertEquals(0, TitleAttributes.parseYear("Ocean's (12)"));
+        assertTrue(TitleAttributes.isTvTitle("\"Friends\" (1994)"));
+        assertTrue(TitleAttributes.isTvTitle("\"Friends\" (1994) {The One with the Thumb (#1.3)}"));
+        assertTrue(TitleAttributes.isTvTitle("Saturday Night Live Christmas (1999) (TV)"));
+        assertFalse(TitleAttributes.isTvTitle("Apollo 13 (1995)"));
+    }
+
+    @Test
+    void testVideo() {
+        // A straight-to-video release is a movie, not TV and not a game.
+        assertFalse(TitleAttributes.isTvTitle("Making Of (2004) (V)"));
+        assertFalse(TitleAttributes.isGameTitle("Making Of (2004) (V)"));
+        TitleAttributes attributes = TitleAttributes.parse(new StringDictionary(new String[] {"Making Of (2004) (V)"}));
+        assertFalse(attributes.isTv(0) || attributes.isGame(0));
+        assertTrue(allowed(attributes.mask(TitleFilter.parse(true, null)), 0));
+    }
+
+    @Test
+    void testVideoGame() {
+        assertFalse(TitleAttributes.isTvTitle("Apollo 13 (1995) (VG)"));
+        assertTrue(TitleAttributes.isGameTitle("Apollo 13 (1995) (VG)"));
+        TitleAttributes attributes = TitleAttributes.parse(new StringDictionary(new String[] {"Apollo 13 (1995) (VG)"}));
+        assertFalse(attributes.isTv(0));
+        assertTrue(attributes.isGame(0));
+        assertEquals(0, attributes.countTv());
+        assertEquals(1, attributes.countGames());
+        assertFalse(allowed(attributes.mask(TitleFilter.parse(true, null)), 0));
+        assertTrue(allowed(attributes.mask(TitleFilter.parse(false, "1995")), 0));
+    }
+
+    @Test
+    void testMask() {
+        StringDictionary titles = new StringDictionary(new String[] {
+            "Apollo 13 (1995)", "\"Friends\" (1994)", "Footloose (1984)", "Nomadland", "Diner (1982) (TV)"});
+        TitleAttributes attributes = TitleAttributes.parse(titles);
+        assertEquals(5, attributes.size());
+        assertEquals(1995, attributes.year(0));
+        assertEquals(0, attributes.year(3));
+        assertEquals(2, attributes.countTv());
+
+        long[] movies = attributes.mask(TitleFilter.parse(true, null));
+        assertTrue(allowed(movies, 0) && allowed(movies, 2) && allowed(movies, 3));
+        assertFalse(allowed(movies, 1) || allowed(movies, 4));
+
+        // A year range excludes titles whose year is unknown.
+        long[] eighties = attributes.mask(TitleFilter.parse(false, "1980-1989"));
+        assertTrue(allowed(eighties, 2) && allowed(eighties, 4));
+        assertFalse(allowed(eighties, 0) || allowed(eighties, 1) || allowed(eighties, 3));
+
+        TitleAttributes listed = attributes.withMovies(titles, new StringDictionary(new String[] {"Apollo 13 (1995)", "Footloose (1984)"}));
+        assertTrue(listed.isTv(3) && listed.isTv(1));
+        assertFalse(listed.isTv(0) || listed.isTv(2));
+        // Listing a title does not clear the TV flag its markers set.
+        TitleAttributes relisted = attributes.withMovies(titles, new StringDictionary(new String[] {"Diner (1982) (TV)"}));
+        assertTrue(relisted.isTv(4));
+    }
+
+    @Test
+    void testFilterParse() {
+        assertTrue(TitleFilter.parse(false, null).isEmpty());
+        assertTrue(TitleFilter.parse(false, "1990-").allows(false, 2020));
+        assertFalse(TitleFilter.parse(false, "1990-").allows(false, 1989));
+        assertTrue(TitleFilter.parse(false, "-1990").allows(false, 1950));
+        assertTrue(TitleFilter.parse(true, "1994").allows(false, 1994));
+        assertFalse(TitleFilter.parse(true, "1994").allows(true, 1994));
+        assertEquals("movies only, 1990-1999", TitleFilter.parse(true, "1990-1999").toString());
+        assertThrows(IllegalArgumentException.class, () -> TitleFilter.parse(false, "nineties"));
+        assertThrows(IllegalArgumentException.class, () -> TitleFilter.parse(false, "2000-1990"));
+        assertThrows(IllegalArgumentException.class, () -> TitleFilter.parse(false, "-"));
+    }
+}
@@ -0,0 +1,113 @@
+public class TitleFilter {
+
+    private final boolean moviesOnly;
+    private final int fromYear;
+    private final int toYear;
+
+    /**
+     * The `TitleFilter` class describes which titles a query may connect actors
+     * through: optionally only movies, leaving out TV and video games, and optionally
+     * only titles released in a range of years. Titles with an unknown year are
+     * excluded as soon as a year range is given.
+     *
+     * @param moviesOnly True to exclude TV titles and video games.
+     * @param fromYear   The first year allowed, or Integer.MIN_VALUE for no limit.
+     * @param toYear     The last year allowed, or Integer.MAX_VALUE for no limit.
+     */
+    public TitleFilter(boolean moviesOnly, int fromYear, int toYear){
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("Year range " + fromYear + "-" + toYear + " is empty.");
+        }
+        this.moviesOnly = moviesOnly;
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+    }
+
+    /**
+     * Builds a filter from command-line values.
+     *
+     * @param moviesOnly True to exclude TV titles and video games.
+     * @param years      A year range such as "1990-1999", "1990-", "-1999" or "1994", or null for any year.
+     * @return The filter.
+     * @throws IllegalArgumentException If the year range cannot be parsed.
+     */
+    public static TitleFilter parse(boolean moviesOnly, String years){
+        if (years == null) {
+            return new TitleFilter(moviesOnly, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        String range = years.trim();
+        int dash = range.indexOf('-');
+        try {
+            if (dash < 0) {
+                int year = Integer.parseInt(range);
+                return new TitleFilter(moviesOnly, year, year);
+            }
+            String from = range.substring(0, dash).trim();
+            String to = range.substring(dash + 1).trim();
+            if (from.isEmpty() && to.isEmpty()) {
+                throw new NumberFormatException(range);
+            }
+            return new TitleFilter(moviesOnly,
+                    from.isEmpty() ? Integer.MIN_VALUE : Integer.parseInt(from),
+                    to.isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(to));
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid year range: " + years);
+        }
+    }
+
+    /**
+     * Tells whether the filter excludes TV titles and video games.
+     *
+     * @return True if only movies are allowed.
+     */
+    public boolean isMoviesOnly(){
+        return moviesOnly;
+    }
+
+    /**
+     * Tells whether the filter limits the release year.
+     *
+     * @return True if a year range was given.
+     */
+    public boolean hasYears(){
+        return fromYear != Integer.MIN_VALUE || toYear != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Tells whether the filter allows every title.
+     *
+     * @return True if neither TV nor years are restricted.
+     */
+    public boolean isEmpty(){
+        return !moviesOnly && !hasYears();
+    }
+
+    /**
+     * Checks a title's attributes against the filter.
+     *
+     * @param tv   True if the title is TV.
+     * @param year The release year, or 0 if unknown.
+     * @return True if the title is allowed.
+     */
+    public boolean allows(boolean tv, int year){
+        if (moviesOnly && tv) {
+            return false;
+        }
+        if (hasYears()) {
+            return year != 0 && year >= fromYear && year <= toYear;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString(){
+        StringBuilder text = new StringBuilder(moviesOnly ? "movies only" : "all titles");
+        if (hasYears()) {
+            text.append(", ");
+            text.append(fromYear == Integer.MIN_VALUE ? "" : String.valueOf(fromYear)).append('-');
+            text.append(toYear == Integer.MAX_VALUE ? "" : String.valueOf(toYear));
+        }
+        return text.toString();
+    }
+}
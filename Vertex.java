@@ -1,11 +1,13 @@
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
 public class Vertex{
 
     String name;
     private ArrayList<Vertex> adjacents;
-    private HashMap<String, String> edges;
+    private HashMap<String, List<String>> edges;
 
     /**
      * Constructs a new vertex with the given name.
@@ -15,19 +17,26 @@ public class Vertex{
     public Vertex(String nameString){
         this.name = nameString;
         adjacents = new ArrayList<>();
-        edges = new HashMap<String, String>();
+        edges = new HashMap<String, List<String>>();
 
     }
 
     /**
-     * Creates an edge between this vertex and a neighboring vertex with the given label.
+     * Creates an edge between this vertex and a neighboring vertex with the given label,
+     * or adds the label to the edge's labels if the edge already exists. The first
+     * label stays the label of the edge.
      *
      * @param key   The name of the neighboring vertex.
      * @param value The label associated with the edge.
      */
     public void makeEdge(String key, String value){
-        if (!edges.containsKey(key)) {
-            edges.put(key, value);
+        List<String> labels = edges.get(key);
+        if (labels == null) {
+            labels = new ArrayList<>(1);
+            edges.put(key, labels);
+        }
+        if (!labels.contains(value)) {
+            labels.add(value);
         }
     }
     
@@ -35,10 +44,33 @@ public class Vertex{
      * Retrieves the label of the edge between this vertex and a neighboring vertex.
      *
      * @param key The name of the neighboring vertex.
-     * @return The label of the edge, or null if no edge exists.
+     * @return The first label of the edge, or null if no edge exists.
      */
     public String getEdge(String key){
-        return edges.get(key);
+        List<String> labels = edges.get(key);
+        return labels == null ? null : labels.get(0);
+    }
+
+    /**
+     * Retrieves every label of the edge between this vertex and a neighboring vertex,
+     * such as all the titles two actors share.
+     *
+     * @param key The name of the neighboring vertex.
+     * @return The labels in the order they were added, or an empty list if no edge exists.
+     */
+    public List<String> getEdges(String key){
+        List<String> labels = edges.get(key);
+        return labels == null ? Collections.emptyList() : Collections.unmodifiableList(labels);
+    }
+
+    /**
+     * Checks whether this vertex has an edge to a neighboring vertex.
+     *
+     * @param key The name of the neighboring vertex.
+     * @return True if an edge exists, whatever its labels.
+     */
+    public boolean hasEdge(String key){
+        return edges.containsKey(key);
     }
 
     /**
@@ -0,0 +1,101 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class VertexOrderingTest {
+
+    @Test
+    void testPermutesConsistently() {
+        CompactGraph graph = ShortestPathDagTest.randomGraph(11, 200, 80, 600);
+        for (VertexOrdering.Strategy strategy : VertexOrdering.Strategy.values()) {
+            VertexOrdering ordering = VertexOrdering.reorder(graph, strategy);
+            CompactGraph reordered = ordering.getGraph();
+            assertEquals(graph.getOrder(), reordered.getOrder());
+            assertEquals(graph.getSize(), reordered.getSize());
+            boolean[] used = new boolean[graph.getOrder()];
+            for (int v = 0; v < graph.getOrder(); v++) {
+                int moved = ordering.newId(v);
+                assertEquals(v, ordering.oldId(moved));
+                used[moved] = true;
+                assertEquals(graph.nameOf(v), reordered.nameOf(moved));
+                assertEquals(moved, reordered.vertexId(graph.nameOf(v)));
+                assertEquals(graph.degree(v), reordered.degree(moved));
+                for (int i = 0; i < graph.degree(v); i++) {
+                    int w = graph.neighbor(v, i);
+                    assertEquals(graph.edgeLabels(v, w), reordered.edgeLabels(moved, ordering.newId(w)));
+                }
+                for (int i = 1; i < reordered.degree(v); i++) {
+                    assertTrue(reordered.neighbor(v, i - 1) < reordered.neighbor(v, i));
+                }
+            }
+            for (boolean seen : used) {
+                assertTrue(seen);
+            }
+            for (int goal = 0; goal < graph.getOrder(); goal += 9) {
+                assertEquals(graph.findPath(3, goal).length,
+                        reordered.findPath(ordering.newId(3), ordering.newId(goal)).length);
+            }
+        }
+    }
+
+    @Test
+    void testImprovesLocality() {
+        // A long chain whose vertices were numbered at random.
+        int order = 500;
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < order; i++) {
+            ids.add(i);
+        }
+        Collections.shuffle(ids, new Random(3));
+        String[] names = new String[order];
+        String[] titles = new String[order - 1];
+        int[] creditActor = new int[2 * (order - 1)];
+        int[] creditTitle = new int[2 * (order - 1)];
+        for (int i = 0; i < order; i++) {
+            names[i] = "A" + i;
+        }
+        for (int i = 0; i < order - 1; i++) {
+            titles[i] = "T" + i;
+            creditActor[2 * i] = ids.get(i);
+            creditActor[2 * i + 1] = ids.get(i + 1);
+            creditTitle[2 * i] = i;
+            creditTitle[2 * i + 1] = i;
+        }
+        CompactGraph graph = CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, creditActor.length));
+
+        for (VertexOrdering.Strategy strategy : new VertexOrdering.Strategy[] {VertexOrdering.Strategy.BFS, VertexOrdering.Strategy.RCM}) {
+            VertexOrdering ordering = VertexOrdering.reorder(graph, strategy);
+            double[] gaps = ordering.getMeanGaps();
+            assertTrue(gaps[0] > 50, strategy + ": " + gaps[0]);
+            assertTrue(gaps[1] <= 2, strategy + ": " + gaps[1]);
+        }
+    }
+
+    @Test
+    void testByDegree() {
+        String[] names = {"A", "B", "C", "D"};
+        String[] titles = {"M1", "M2"};
+        int[] creditActor = {0, 1, 2, 2, 3};
+        int[] creditTitle = {0, 0, 0, 1, 1};
+        CompactGraph graph = CompactGraph.fromCredits(new CreditTable(names, titles, creditActor, creditTitle, 5));
+        assertEquals(List.of(2, 0, 1, 3), toList(VertexOrdering.byDegree(graph, true)));
+        assertEquals(List.of(3, 0, 1, 2), toList(VertexOrdering.byDegree(graph, false)));
+        assertEquals(VertexOrdering.Strategy.RCM, VertexOrdering.Strategy.parse(" Rcm "));
+        assertThrows(IllegalArgumentException.class, () -> VertexOrdering.Strategy.parse("random"));
+    }
+
+    private static List<Integer> toList(int[] values) {
+        List<Integer> list = new ArrayList<>();
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}